@@ -1,14 +1,88 @@
 package com.api.bookmanagement.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 @Configuration
+@EnableScheduling
 public class AppConfig {
 
+    /**
+     * Only used for OpenLibrary: bounded timeouts, so a hung upstream fails the call instead of
+     * holding the request thread until the socket gives up.
+     */
+    @Bean
+    public RestTemplate restTemplate(OpenLibraryProperties properties) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(Duration.ofMillis(properties.getConnectTimeoutMs()));
+        requestFactory.setReadTimeout(Duration.ofMillis(properties.getReadTimeoutMs()));
+        return new RestTemplate(requestFactory);
+    }
+
+    /**
+     * Runs OpenLibrary requests so a hedged duplicate can be sent while the first one is pending.
+     * Virtual threads: they only wait on the network.
+     */
+    @Bean
+    public SimpleAsyncTaskExecutor openLibraryExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("openlibrary-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    /**
+     * Executor used to run the chunks of large book-id lookups in parallel.
+     * Keep it below the JDBC pool size so lookups never starve the other requests.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor bookLookupExecutor(@Value("${books.lookup.parallelism}") int parallelism) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setThreadNamePrefix("book-lookup-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs the per-shard queries of cross-shard reads; one task per shard, waiting on JDBC.
+     */
+    @Bean
+    public SimpleAsyncTaskExecutor shardQueryExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("shard-query-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    /**
+     * Long-running workers of the ISBN enrichment queue, one thread each.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor isbnEnrichmentExecutor(@Value("${isbn.enrichment.workers}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Math.max(1, workers));
+        executor.setMaxPoolSize(Math.max(1, workers));
+        executor.setThreadNamePrefix("isbn-enrichment-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Executor sending change feed events to SSE subscribers. Sends block on slow clients,
+     * so each drain runs on its own virtual thread.
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public SimpleAsyncTaskExecutor changeFeedExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("change-feed-");
+        executor.setVirtualThreads(true);
+        return executor;
     }
 }
@@ -0,0 +1,93 @@
+package com.api.bookmanagement.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends read-only transactions to the read replicas and everything else to the primary.
+ * <p>
+ * The proxy only fetches a physical connection when the first statement runs, after the
+ * transaction has flagged the connection read-only, so {@code @Transactional(readOnly = true)}
+ * is all a service method needs to be routed to a replica.
+ * <p>
+ * With shards configured, connections come from the shard selected by {@link ShardRouter}
+ * instead, and replicas are not used.
+ * <p>
+ * Binds {@link DataSourceProperties} itself: Boot's DataSource auto-configuration backs off as
+ * soon as an R2DBC connection factory exists, which is the case in the reactive profile.
+ */
+@Configuration
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaDataSource(HikariDataSource primaryDataSource,
+                                                      DataSourceRoutingProperties properties,
+                                                      ReadYourWritesTracker readYourWritesTracker) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (DataSourceRoutingProperties.Replica replica : properties.getReplicas()) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.getUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword())
+                    .build();
+            dataSource.setPoolName("replica-" + replicas.size());
+            dataSource.setReadOnly(true);
+            replicas.add(dataSource);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, readYourWritesTracker,
+                properties.getHealthCheckTimeoutSeconds());
+    }
+
+    @Bean
+    public ShardRoutingDataSource shardDataSource(HikariDataSource primaryDataSource,
+                                                  DataSourceRoutingProperties properties) {
+        List<DataSource> shards = new ArrayList<>();
+        shards.add(primaryDataSource);
+        for (DataSourceRoutingProperties.Shard shard : properties.getShards()) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(shard.getUrl())
+                    .username(shard.getUsername())
+                    .password(shard.getPassword())
+                    .build();
+            dataSource.setPoolName("shard-" + shards.size());
+            shards.add(dataSource);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaDataSource,
+                                 ShardRoutingDataSource shardDataSource, DataSourceRoutingProperties properties) {
+        if (shardDataSource.shardCount() > 1) {
+            if (!properties.getReplicas().isEmpty()) {
+                throw new IllegalStateException("Read replicas cannot be combined with shards");
+            }
+            // Lazy: the shard is picked when the first statement of the transaction runs
+            return new LazyConnectionDataSourceProxy(shardDataSource);
+        }
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+}
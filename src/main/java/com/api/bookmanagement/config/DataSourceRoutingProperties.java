@@ -0,0 +1,52 @@
+package com.api.bookmanagement.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "datasource.routing")
+@Getter
+@Setter
+public class DataSourceRoutingProperties {
+
+    /** Read replicas receiving read-only transactions; empty sends everything to the primary. */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * SQL script run on every replica once it has the primary's schema, for local replicas on
+     * their own in-memory database; empty leaves the replicas as they are.
+     */
+    private String replicaSeed;
+
+    /** How long a client's reads stay on the primary after its own write, 0 to disable. */
+    private long readYourWritesWindowMs;
+
+    private int healthCheckTimeoutSeconds;
+
+    /**
+     * Databases added to the primary to partition the catalog, numbered from 1 (the primary is
+     * shard 0); empty keeps everything on the primary. Not combined with read replicas.
+     */
+    private List<Shard> shards = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+
+    @Getter
+    @Setter
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
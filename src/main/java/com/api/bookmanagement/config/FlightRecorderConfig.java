@@ -0,0 +1,97 @@
+package com.api.bookmanagement.config;
+
+import com.api.bookmanagement.event.jfr.RepositoryQueryEvent;
+import com.api.bookmanagement.event.jfr.ServiceCallEvent;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Service;
+
+/**
+ * Emits the custom JFR events of service and repository calls. Each interceptor first asks the
+ * event whether it is enabled: with no recording running that check is a constant the JIT folds
+ * away, together with the event allocation.
+ */
+@Configuration(proxyBeanMethods = false)
+public class FlightRecorderConfig {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor serviceCallEventAdvisor() {
+        MethodInterceptor interceptor = invocation -> {
+            ServiceCallEvent event = new ServiceCallEvent();
+            if (!event.isEnabled()) {
+                return invocation.proceed();
+            }
+            event.begin();
+            try {
+                return invocation.proceed();
+            } catch (Throwable e) {
+                event.failed = true;
+                throw e;
+            } finally {
+                if (event.shouldCommit()) {
+                    event.service = invocation.getMethod().getDeclaringClass().getSimpleName();
+                    event.method = invocation.getMethod().getName();
+                    event.entityId = entityId(invocation.getArguments());
+                    event.commit();
+                }
+            }
+        };
+        return new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(Service.class, true), interceptor);
+    }
+
+    /** Adds the event to the proxy Spring Data builds for each repository, named after its interface. */
+    @Bean
+    public static BeanPostProcessor repositoryQueryEventCustomizer() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, information) -> proxyFactory.addAdvice(
+                                    repositoryQueryInterceptor(information.getRepositoryInterface().getSimpleName()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static MethodInterceptor repositoryQueryInterceptor(String repository) {
+        return invocation -> {
+            RepositoryQueryEvent event = new RepositoryQueryEvent();
+            if (!event.isEnabled()) {
+                return invocation.proceed();
+            }
+            event.begin();
+            try {
+                return invocation.proceed();
+            } catch (Throwable e) {
+                event.failed = true;
+                throw e;
+            } finally {
+                if (event.shouldCommit()) {
+                    event.repository = repository;
+                    event.method = invocation.getMethod().getName();
+                    event.commit();
+                }
+            }
+        };
+    }
+
+    private static long entityId(Object[] arguments) {
+        for (Object argument : arguments) {
+            if (argument instanceof Long id) {
+                return id;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,67 @@
+package com.api.bookmanagement.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+
+/**
+ * Local replica setup: once Hibernate has created the primary's schema, copies it to every read
+ * replica and runs {@code datasource.routing.replica-seed} there. The replicas hold rows of their
+ * own, so a read served by the primary instead of a replica shows in its results.
+ * <p>
+ * Runs as the entity manager factory is initialized, before any bean using it can read from a
+ * replica. Only for H2 databases, whose {@code SCRIPT} statement exports the schema.
+ */
+@Component
+@Slf4j
+public class LocalReplicaInitializer implements BeanPostProcessor {
+
+    private final ObjectProvider<DataSourceRoutingProperties> properties;
+
+    private final ObjectProvider<HikariDataSource> primaryDataSource;
+
+    private final ResourceLoader resourceLoader;
+
+    public LocalReplicaInitializer(ObjectProvider<DataSourceRoutingProperties> properties,
+                                   ObjectProvider<HikariDataSource> primaryDataSource, ResourceLoader resourceLoader) {
+        this.properties = properties;
+        this.primaryDataSource = primaryDataSource;
+        this.resourceLoader = resourceLoader;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof EntityManagerFactory) {
+            DataSourceRoutingProperties routing = properties.getObject();
+            if (StringUtils.hasText(routing.getReplicaSeed()) && !routing.getReplicas().isEmpty()) {
+                seedReplicas(routing);
+            }
+        }
+        return bean;
+    }
+
+    private void seedReplicas(DataSourceRoutingProperties routing) {
+        List<String> schema = new JdbcTemplate(primaryDataSource.getObject()).queryForList("SCRIPT NODATA", String.class);
+        ResourceDatabasePopulator seed = new ResourceDatabasePopulator(resourceLoader.getResource(routing.getReplicaSeed()));
+        for (DataSourceRoutingProperties.Replica replica : routing.getReplicas()) {
+            // Outside the read-only replica pool, which is not started yet
+            DriverManagerDataSource dataSource = new DriverManagerDataSource(replica.getUrl(), replica.getUsername(),
+                    replica.getPassword());
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            schema.forEach(jdbcTemplate::execute);
+            seed.execute(dataSource);
+            log.info("Replica {} created from the primary's schema and seeded from {}", replica.getUrl(),
+                    routing.getReplicaSeed());
+        }
+    }
+}
@@ -6,7 +6,11 @@ import org.springframework.context.MessageSource;
 import org.springframework.context.support.MessageSourceAccessor;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 @RequiredArgsConstructor
@@ -16,13 +20,57 @@ public class Messages {
 
 	private MessageSourceAccessor accessor;
 
+	private final Map<String, Template> templates = new ConcurrentHashMap<>();
+
 	@PostConstruct
 	private void init() {
 		accessor = new MessageSourceAccessor(messageSource, Locale.ENGLISH);
 	}
 
+	/**
+	 * Messages made only of text and {@code {n}} placeholders are split once into a template and
+	 * then filled in by concatenation. Anything MessageFormat would treat differently (quotes,
+	 * format types) goes through the message source every time.
+	 */
 	public String get(String code, Object... params) {
-		return accessor.getMessage(code, params);
+		Template template = templates.computeIfAbsent(code, key -> Template.compile(accessor.getMessage(key)));
+		return template == Template.UNSUPPORTED ? accessor.getMessage(code, params) : template.format(params);
 	}
-}
 
+	private record Template(String[] parts, int[] indexes) {
+
+		private static final Template UNSUPPORTED = new Template(new String[0], new int[0]);
+
+		static Template compile(String message) {
+			if (message.indexOf('\'') >= 0) {
+				return UNSUPPORTED;
+			}
+			List<String> parts = new ArrayList<>();
+			List<Integer> indexes = new ArrayList<>();
+			int start = 0;
+			int open;
+			while ((open = message.indexOf('{', start)) >= 0) {
+				int close = message.indexOf('}', open);
+				String index = close < 0 ? "" : message.substring(open + 1, close);
+				if (index.isEmpty() || !index.chars().allMatch(Character::isDigit)) {
+					return UNSUPPORTED;
+				}
+				parts.add(message.substring(start, open));
+				indexes.add(Integer.parseInt(index));
+				start = close + 1;
+			}
+			parts.add(message.substring(start));
+			return new Template(parts.toArray(String[]::new), indexes.stream().mapToInt(Integer::intValue).toArray());
+		}
+
+		String format(Object[] params) {
+			StringBuilder output = new StringBuilder(parts[0]);
+			for (int i = 0; i < indexes.length; i++) {
+				int index = indexes[i];
+				output.append(params != null && index < params.length ? params[index] : "{" + index + "}")
+						.append(parts[i + 1]);
+			}
+			return output.toString();
+		}
+	}
+}
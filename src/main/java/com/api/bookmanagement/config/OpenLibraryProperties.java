@@ -0,0 +1,40 @@
+package com.api.bookmanagement.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "openlibrary.resilience")
+@Getter
+@Setter
+public class OpenLibraryProperties {
+
+    private long connectTimeoutMs = 2000;
+
+    private long readTimeoutMs = 5000;
+
+    /** Number of recent calls the circuit breaker computes its failure rate over. */
+    private int windowSize = 20;
+
+    private int minimumCalls = 10;
+
+    private double failureRateThreshold = 0.5;
+
+    /** How long the breaker rejects calls before letting a probe through. */
+    private long openDurationMs = 30000;
+
+    /** Latency percentile after which a duplicate request is sent. */
+    private double hedgePercentile = 0.95;
+
+    private long hedgeMinDelayMs = 50;
+
+    /** Hedge delay used until enough latencies were recorded, and its upper bound. */
+    private long hedgeMaxDelayMs = 2000;
+
+    /** Retry tokens earned per request; 0.1 allows one retry or hedge per ten requests. */
+    private double retryBudgetRatio = 0.1;
+
+    private int retryBudgetMax = 10;
+}
@@ -0,0 +1,63 @@
+package com.api.bookmanagement.config;
+
+import com.api.bookmanagement.event.EntityChangedEvent;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers which clients wrote recently, so their next reads go to the primary instead of a
+ * replica that may not have caught up yet. Clients are told apart by the {@code X-Client-Id}
+ * header, or by their address when they don't send one.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final long windowNanos;
+
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(DataSourceRoutingProperties properties) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(properties.getReadYourWritesWindowMs());
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        String client = currentClient();
+        if (windowNanos > 0 && client != null) {
+            long now = System.nanoTime();
+            lastWrites.put(client, now);
+            if (lastWrites.size() > PURGE_THRESHOLD) {
+                lastWrites.values().removeIf(written -> now - written > windowNanos);
+            }
+        }
+    }
+
+    public boolean isWithinWindow() {
+        String client = windowNanos > 0 ? currentClient() : null;
+        if (client == null) {
+            return false;
+        }
+        Long written = lastWrites.get(client);
+        return written != null && System.nanoTime() - written <= windowNanos;
+    }
+
+    private static String currentClient() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        String client = request.getHeader(CLIENT_ID_HEADER);
+        return client != null ? client : request.getRemoteAddr();
+    }
+}
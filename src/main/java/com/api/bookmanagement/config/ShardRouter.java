@@ -0,0 +1,196 @@
+package com.api.bookmanagement.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.relational.SchemaManager;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Partitions authors, and their books with them, over the shards of {@link ShardRoutingDataSource}.
+ * <p>
+ * Each shard hands out ids from its own interleaved identity range: shard {@code k} of {@code n}
+ * only issues ids equal to {@code k} modulo {@code n}. Ids stay unique across shards, and an
+ * author or book id alone tells which shard holds the row. New authors are spread round-robin;
+ * a book is written on its author's shard. With a single database every call runs inline, in
+ * the caller's transaction.
+ */
+@Component
+@Slf4j
+public class ShardRouter {
+
+    private final ShardRoutingDataSource dataSource;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final Executor shardQueryExecutor;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final TransactionTemplate shardTransaction;
+
+    private final AtomicInteger nextShard = new AtomicInteger();
+
+    public ShardRouter(ShardRoutingDataSource dataSource, PlatformTransactionManager transactionManager,
+                       EntityManagerFactory entityManagerFactory,
+                       @Qualifier("shardQueryExecutor") Executor shardQueryExecutor) {
+        this.dataSource = dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+        this.shardQueryExecutor = shardQueryExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.shardTransaction = new TransactionTemplate(transactionManager);
+        this.shardTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Creates the tables of the shards other than the primary, which {@code ddl-auto} already
+     * manages, and moves every shard onto its identity range.
+     */
+    @PostConstruct
+    void prepareShards() {
+        if (!isSharded()) {
+            return;
+        }
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        SchemaManager schemaManager = entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager();
+        for (int shard = 0; shard < shardCount(); shard++) {
+            int current = shard;
+            dataSource.onShard(shard, () -> {
+                Integer tables = jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE UPPER(TABLE_NAME) = 'BOOK'", Integer.class);
+                if (tables == null || tables == 0) {
+                    schemaManager.exportMappedObjects(false);
+                }
+                interleaveIds(jdbcTemplate, "author", current);
+                interleaveIds(jdbcTemplate, "book", current);
+                return null;
+            });
+        }
+        log.info("Catalog partitioned over {} shards", shardCount());
+    }
+
+    public boolean isSharded() {
+        return dataSource.shardCount() > 1;
+    }
+
+    public int shardCount() {
+        return dataSource.shardCount();
+    }
+
+    /** Shard holding the author or book {@code id}. */
+    public int shardOf(Long id) {
+        return id == null || !isSharded() ? 0 : (int) Math.floorMod(id, (long) shardCount());
+    }
+
+    /** Shard the calling thread's statements run against. */
+    public int currentShard() {
+        return isSharded() ? dataSource.currentShard() : 0;
+    }
+
+    /** Shard receiving the next new author. */
+    public int nextShard() {
+        return isSharded() ? Math.floorMod(nextShard.getAndIncrement(), shardCount()) : 0;
+    }
+
+    /**
+     * Runs {@code action} against {@code shard}. Inside a transaction, only effective if the
+     * transaction has not run any statement yet: its connection is taken by the first one.
+     */
+    public <T> T onShard(int shard, Supplier<T> action) {
+        return isSharded() ? dataSource.onShard(shard, action) : action.get();
+    }
+
+    /**
+     * Runs {@code query} against {@code shard} in a read-only transaction of its own, for work
+     * handed to another thread, which the caller's transaction does not follow.
+     */
+    public <T> T onShardReadOnly(int shard, Supplier<T> query) {
+        return onShard(shard, () -> readOnlyTransaction.execute(status -> query.get()));
+    }
+
+    public void runOnShard(int shard, Runnable action) {
+        onShard(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /** Splits {@code ids} by the shard holding them, in shard order. */
+    public Map<Integer, List<Long>> groupByShard(Collection<Long> ids) {
+        if (!isSharded()) {
+            return Map.of(0, List.copyOf(ids));
+        }
+        Map<Integer, List<Long>> output = new TreeMap<>();
+        for (Long id : ids) {
+            output.computeIfAbsent(shardOf(id), shard -> new ArrayList<>()).add(id);
+        }
+        return output;
+    }
+
+    /**
+     * Runs {@code action} with the ids of each shard holding some of {@code ids}, and returns
+     * its results in shard order. When they all live on one shard it runs in the caller's
+     * transaction, as {@link #onShard} does; otherwise each shard gets a transaction of its
+     * own, so the change is only atomic per shard.
+     */
+    public <T> List<T> onShardsOf(Collection<Long> ids, Function<List<Long>, T> action) {
+        Map<Integer, List<Long>> groups = groupByShard(ids);
+        if (groups.size() == 1) {
+            Map.Entry<Integer, List<Long>> group = groups.entrySet().iterator().next();
+            return Collections.singletonList(onShard(group.getKey(), () -> action.apply(group.getValue())));
+        }
+        List<T> output = new ArrayList<>(groups.size());
+        groups.forEach((shard, shardIds) ->
+                output.add(dataSource.onShard(shard, () -> shardTransaction.execute(status -> action.apply(shardIds)))));
+        return output;
+    }
+
+    /**
+     * Runs {@code query} on every shard in parallel, each in its own read-only transaction, and
+     * returns the rows of all shards sorted by {@code order}. The query maps its rows itself, so
+     * lazy associations are read while its transaction is open.
+     */
+    public <T> List<T> onAllShards(Supplier<List<T>> query, Comparator<? super T> order) {
+        if (!isSharded()) {
+            return query.get();
+        }
+        List<CompletableFuture<List<T>>> results = new ArrayList<>(shardCount());
+        for (int shard = 0; shard < shardCount(); shard++) {
+            int current = shard;
+            results.add(CompletableFuture.supplyAsync(() -> onShardReadOnly(current, query), shardQueryExecutor));
+        }
+        List<T> output = new ArrayList<>();
+        results.forEach(result -> output.addAll(result.join()));
+        if (order != null) {
+            output.sort(order);
+        }
+        return output;
+    }
+
+    private void interleaveIds(JdbcTemplate jdbcTemplate, String table, int shard) {
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        long next = max + 1 + Math.floorMod(shard - (max + 1), (long) shardCount());
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id SET INCREMENT BY " + shardCount());
+    }
+}
@@ -1,16 +1,44 @@
 package com.api.bookmanagement.config;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 public class WebSecurityConfig {
 
     private final ApiKeyFilter apiKeyFilter;
 
+    private final FlightRecorderFilter flightRecorderFilter;
+
+    private final RequestLatencyFilter requestLatencyFilter;
+
+    // Outermost, so the latency covers the other filters as well
+    @Bean
+    public FilterRegistrationBean<RequestLatencyFilter> requestLatencyFilterRegistration() {
+        FilterRegistrationBean<RequestLatencyFilter> registration = new FilterRegistrationBean<>();
+        registration.setFilter(requestLatencyFilter);
+        registration.addUrlPatterns("/*");
+        registration.setName("requestLatencyFilter");
+        registration.setOrder(-1);
+        return registration;
+    }
+
+    // Ahead of the API key check, so rejected requests show up in recordings too
+    @Bean
+    public FilterRegistrationBean<FlightRecorderFilter> flightRecorderFilterRegistration() {
+        FilterRegistrationBean<FlightRecorderFilter> registration = new FilterRegistrationBean<>();
+        registration.setFilter(flightRecorderFilter);
+        registration.addUrlPatterns("/*");
+        registration.setName("flightRecorderFilter");
+        registration.setOrder(0);
+        return registration;
+    }
+
     @Bean
     public FilterRegistrationBean<ApiKeyFilter> apiKeyFilterRegistration() {
         FilterRegistrationBean<ApiKeyFilter> registration = new FilterRegistrationBean<>();
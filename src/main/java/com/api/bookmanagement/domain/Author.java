@@ -3,12 +3,21 @@ package com.api.bookmanagement.domain;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(indexes = @Index(name = "idx_author_updated_at", columnList = "updated_at, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -23,5 +32,11 @@ public class Author {
     private int followersNumber;
     
     @OneToMany(mappedBy = "author", cascade = CascadeType.ALL)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Set<Book> books = new HashSet<>();
+
+    @UpdateTimestamp
+    private Instant updatedAt;
 }
\ No newline at end of file
@@ -4,10 +4,22 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(indexes = {
+        @Index(name = "idx_book_title", columnList = "title"),
+        @Index(name = "idx_book_updated_at", columnList = "updated_at, id"),
+        @Index(name = "idx_book_type_publication_date", columnList = "type, publication_date, id"),
+        @Index(name = "idx_book_author_publication_date", columnList = "author_id, publication_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -18,6 +30,9 @@ public class Book {
     private Long id;
     
     private String title;
+
+    @Column(unique = true)
+    private String isbn;
     
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "author_id", nullable = false)
@@ -25,4 +40,7 @@ public class Book {
     
     private LocalDate publicationDate;
     private String type;
+
+    @UpdateTimestamp
+    private Instant updatedAt;
 }
\ No newline at end of file
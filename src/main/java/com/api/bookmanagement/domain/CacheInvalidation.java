@@ -0,0 +1,36 @@
+package com.api.bookmanagement.domain;
+
+import com.api.bookmanagement.event.EntityChangedEvent.EntityType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Record of a book or author written by one node, read by the others to evict their local
+ * copies. The version is the time of the change in epoch microseconds: the entity's
+ * {@code updatedAt} for creations and updates, the deletion time for deletions. A record
+ * without entity type and id stands for the whole catalog.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_cache_invalidation_version", columnList = "version"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 36)
+    private String node;
+
+    @Enumerated(EnumType.STRING)
+    private EntityType entityType;
+
+    private Long entityId;
+
+    @Column(nullable = false)
+    private long version;
+}
@@ -0,0 +1,29 @@
+package com.api.bookmanagement.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * OpenLibrary record of an ISBN, stored as the JSON returned upstream so ISBN lookups are
+ * answered locally once the record has been fetched.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IsbnMetadata {
+
+    @Id
+    private String isbn;
+
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    @Column(nullable = false)
+    private Instant fetchedAt;
+}
@@ -0,0 +1,38 @@
+package com.api.bookmanagement.domain;
+
+import com.api.bookmanagement.event.EntityChangedEvent.EntityType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Marker left behind by a deleted book or author, so delta sync clients learn about deletions.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_tombstone_deleted_at", columnList = "entity_type, deleted_at, entity_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Tombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EntityType entityType;
+
+    @Column(nullable = false)
+    private Long entityId;
+
+    @Column(nullable = false)
+    private Instant deletedAt;
+
+    public static Tombstone of(EntityType entityType, Long entityId) {
+        return new Tombstone(null, entityType, entityId, Instant.now());
+    }
+}
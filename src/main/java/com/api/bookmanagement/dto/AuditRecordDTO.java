@@ -0,0 +1,24 @@
+package com.api.bookmanagement.dto;
+
+import com.api.bookmanagement.event.EntityChangedEvent.ChangeType;
+import com.api.bookmanagement.event.EntityChangedEvent.EntityType;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditRecordDTO {
+    private Instant timestamp;
+    private EntityType entityType;
+    private ChangeType changeType;
+    private Long entityId;
+    // Keyed hash of the API key of the request, null for background work
+    private String caller;
+    @JsonRawValue
+    private String payload;
+}
@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -12,4 +14,5 @@ public class AuthorDTO {
     private String name;
     private int age;
     private int followersNumber;
+    private Instant updatedAt;
 }
\ No newline at end of file
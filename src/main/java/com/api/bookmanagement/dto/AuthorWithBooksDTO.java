@@ -0,0 +1,19 @@
+package com.api.bookmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthorWithBooksDTO {
+    private Long id;
+    private String name;
+    private int age;
+    private int followersNumber;
+    private List<BookDTO> books = new ArrayList<>();
+}
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Data
@@ -12,8 +13,10 @@ import java.time.LocalDate;
 public class BookDTO {
     private Long id;
     private String title;
+    private String isbn;
     private Long authorId;
     private String authorName;
     private LocalDate publicationDate;
     private String type;
+    private Instant updatedAt;
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.api.bookmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * One page of a filtered book listing. Pass {@code nextAfterDate} and {@code nextAfterId} back
+ * as {@code afterDate} and {@code afterId}, with the same filters, to get the next page while
+ * {@code hasMore} is true.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookPageDTO {
+    private List<BookDTO> books;
+    private LocalDate nextAfterDate;
+    private Long nextAfterId;
+    private boolean hasMore;
+}
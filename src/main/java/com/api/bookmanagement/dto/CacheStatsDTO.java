@@ -0,0 +1,28 @@
+package com.api.bookmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDTO {
+    private long secondLevelCacheHits;
+    private long secondLevelCacheMisses;
+    private long queryCacheHits;
+    private long queryCacheMisses;
+    private Map<String, RegionStatsDTO> regions;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RegionStatsDTO {
+        private long hits;
+        private long misses;
+        private long puts;
+        private long elementsInMemory;
+    }
+}
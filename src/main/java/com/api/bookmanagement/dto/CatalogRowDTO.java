@@ -0,0 +1,25 @@
+package com.api.bookmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One line of a catalog export or import: a book together with its author.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogRowDTO {
+    private Long bookId;
+    private String title;
+    private String isbn;
+    private LocalDate publicationDate;
+    private String type;
+    private Long authorId;
+    private String authorName;
+    private Integer authorAge;
+    private Integer authorFollowersNumber;
+}
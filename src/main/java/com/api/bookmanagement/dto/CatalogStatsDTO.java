@@ -0,0 +1,19 @@
+package com.api.bookmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogStatsDTO {
+    private long totalBooks;
+    private Map<String, Long> booksByType;
+    private Map<Long, Long> booksByAuthor;
+    private Map<Integer, Long> booksByPublicationYear;
+    // Key n counts the books rated in [n, n + 1); a perfect 10 falls in bucket 9
+    private Map<Integer, Long> ratingDistribution;
+}
@@ -0,0 +1,18 @@
+package com.api.bookmanagement.dto;
+
+import com.api.bookmanagement.event.EntityChangedEvent.ChangeType;
+import com.api.bookmanagement.event.EntityChangedEvent.EntityType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeEventDTO {
+    private long sequence;
+    private EntityType entityType;
+    private ChangeType changeType;
+    private Long entityId;
+    private Object payload;
+}
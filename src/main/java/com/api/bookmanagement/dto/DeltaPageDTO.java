@@ -0,0 +1,23 @@
+package com.api.bookmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One page of a delta sync. Pass {@code nextModifiedSince} and {@code nextAfterId} back as
+ * {@code modifiedSince} and {@code afterId} to get the next page while {@code hasMore} is true.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeltaPageDTO<T> {
+    private List<T> changed;
+    private List<Long> deleted;
+    private Instant nextModifiedSince;
+    private Long nextAfterId;
+    private boolean hasMore;
+}
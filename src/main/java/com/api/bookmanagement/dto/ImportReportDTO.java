@@ -0,0 +1,26 @@
+package com.api.bookmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReportDTO {
+    private long imported;
+    private long failed;
+    // Capped at import.max-reported-errors, failed keeps counting past it
+    private List<ImportErrorDTO> errors = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ImportErrorDTO {
+        private long line;
+        private String message;
+    }
+}
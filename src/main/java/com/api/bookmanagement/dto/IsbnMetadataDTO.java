@@ -0,0 +1,23 @@
+package com.api.bookmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The fields of an OpenLibrary record the API exposes; everything else stays in the raw payload.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IsbnMetadataDTO {
+    private String isbn;
+    private String title;
+    private List<String> authors;
+    private String publishDate;
+    /** Identifier type (isbn_10, isbn_13, openlibrary, ...) to its values. */
+    private Map<String, List<String>> identifiers;
+}
@@ -0,0 +1,21 @@
+package com.api.bookmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordingDTO {
+    private long id;
+    private String name;
+    private String state;
+    private Instant startTime;
+    private Long durationMs;
+    private long maxAgeMs;
+    private long maxSizeBytes;
+    private long sizeBytes;
+}
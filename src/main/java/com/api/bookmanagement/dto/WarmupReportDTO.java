@@ -0,0 +1,23 @@
+package com.api.bookmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WarmupReportDTO {
+    private String readiness;
+    private long warmupDurationMs;
+    private int warmupIterations;
+    private int warmupRequests;
+    private int warmupErrors;
+    private Instant readySince;
+    private boolean firstMinuteComplete;
+    private int firstMinuteRequests;
+    private double firstMinuteP50Ms;
+    private double firstMinuteP99Ms;
+}
@@ -0,0 +1,43 @@
+package com.api.bookmanagement.event;
+
+import com.api.bookmanagement.domain.Author;
+import com.api.bookmanagement.domain.Book;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Published by the services inside the transaction that adds or removes books, for the catalog
+ * statistics to count them once it commits. The rows are copied when the event is built, so an
+ * update can remove the book as it was and add it as it is now.
+ */
+@Getter
+@RequiredArgsConstructor
+@ToString
+public class BookCountsChangedEvent {
+
+    public record Row(String type, Long authorId, LocalDate publicationDate, Integer authorFollowers, int delta) {
+
+        public static Row of(Book book, int delta) {
+            Author author = book.getAuthor();
+            return new Row(book.getType(), author == null ? null : author.getId(), book.getPublicationDate(),
+                    author == null ? null : author.getFollowersNumber(), delta);
+        }
+    }
+
+    private final List<Row> rows;
+
+    public static BookCountsChangedEvent added(Book book) {
+        return new BookCountsChangedEvent(List.of(Row.of(book, 1)));
+    }
+
+    /** Rows of {@code BookRepository.findStatsRows*}, read before a bulk delete. */
+    public static BookCountsChangedEvent removed(List<Object[]> rows) {
+        return new BookCountsChangedEvent(rows.stream()
+                .map(row -> new Row((String) row[1], (Long) row[2], (LocalDate) row[3], (Integer) row[4], -1))
+                .toList());
+    }
+}
@@ -0,0 +1,24 @@
+package com.api.bookmanagement.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Published by the services after a book or an author has been created, updated or deleted.
+ * The payload is the DTO of the entity after the change, {@code null} for deletions.
+ */
+@Getter
+@RequiredArgsConstructor
+@ToString
+public class EntityChangedEvent {
+
+    public enum EntityType {BOOK, AUTHOR}
+
+    public enum ChangeType {CREATED, UPDATED, DELETED}
+
+    private final EntityType entityType;
+    private final ChangeType changeType;
+    private final Long entityId;
+    private final Object payload;
+}
@@ -0,0 +1,26 @@
+package com.api.bookmanagement.event.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.api.bookmanagement.HttpRequest")
+@Label("HTTP Request")
+@Category({"Book Management", "Web"})
+@Description("Request handled by the servlet stack, API key check included")
+@StackTrace(false)
+public class HttpRequestEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Path")
+    @Description("Route pattern of the matched handler, or the request URI when none matched")
+    public String path;
+
+    @Label("Status")
+    public int status;
+}
@@ -0,0 +1,27 @@
+package com.api.bookmanagement.event.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.api.bookmanagement.OpenLibraryCall")
+@Label("OpenLibrary Call")
+@Category({"Book Management", "Upstream"})
+@Description("One HTTP request to the OpenLibrary books API; hedged and retried requests are separate events")
+@StackTrace(false)
+public class OpenLibraryCallEvent extends Event {
+
+    @Label("ISBN Count")
+    public int isbnCount;
+
+    @Label("Response Size")
+    @DataAmount
+    public long responseBytes;
+
+    @Label("Failed")
+    public boolean failed;
+}
@@ -0,0 +1,26 @@
+package com.api.bookmanagement.event.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.api.bookmanagement.RatingCalculation")
+@Label("Rating Calculation")
+@Category({"Book Management", "Service"})
+@Description("Book rating computed by BookRatingCalculator")
+@StackTrace(false)
+public class RatingCalculationEvent extends Event {
+
+    @Label("Book Id")
+    @Description("0 when rated from aggregated columns")
+    public long bookId;
+
+    @Label("Author Followers")
+    public int authorFollowers;
+
+    @Label("Rating")
+    public double rating;
+}
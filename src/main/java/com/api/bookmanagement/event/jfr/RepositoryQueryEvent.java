@@ -0,0 +1,25 @@
+package com.api.bookmanagement.event.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.api.bookmanagement.RepositoryQuery")
+@Label("Repository Query")
+@Category({"Book Management", "Repository"})
+@Description("Spring Data repository method, including the statements it runs")
+@StackTrace(false)
+public class RepositoryQueryEvent extends Event {
+
+    @Label("Repository")
+    public String repository;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Failed")
+    public boolean failed;
+}
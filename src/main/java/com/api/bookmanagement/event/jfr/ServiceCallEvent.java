@@ -0,0 +1,29 @@
+package com.api.bookmanagement.event.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.api.bookmanagement.ServiceCall")
+@Label("Service Call")
+@Category({"Book Management", "Service"})
+@Description("Public method of a service bean")
+@StackTrace(false)
+public class ServiceCallEvent extends Event {
+
+    @Label("Service")
+    public String service;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Entity Id")
+    @Description("First id argument of the method, 0 when it takes none")
+    public long entityId;
+
+    @Label("Failed")
+    public boolean failed;
+}
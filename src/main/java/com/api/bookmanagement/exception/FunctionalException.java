@@ -5,4 +5,8 @@ public class FunctionalException extends RuntimeException{
     public FunctionalException(String message) {
         super(message);
     }
+
+    protected FunctionalException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
 }
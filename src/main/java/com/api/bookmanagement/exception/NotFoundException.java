@@ -0,0 +1,12 @@
+package com.api.bookmanagement.exception;
+
+/**
+ * A lookup by id, title or isbn that matched nothing. Misses are an expected outcome, often
+ * driven by clients probing random ids, so no stack trace is captured.
+ */
+public class NotFoundException extends FunctionalException {
+
+    public NotFoundException(String message) {
+        super(message, false);
+    }
+}
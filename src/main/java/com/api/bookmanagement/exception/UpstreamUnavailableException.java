@@ -0,0 +1,12 @@
+package com.api.bookmanagement.exception;
+
+/**
+ * An upstream service failed, timed out or is short-circuited by its circuit breaker.
+ */
+public class UpstreamUnavailableException extends TechnicalException {
+
+	public UpstreamUnavailableException(String message) {
+		super(message);
+	}
+
+}
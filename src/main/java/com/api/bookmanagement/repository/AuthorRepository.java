@@ -1,12 +1,44 @@
 package com.api.bookmanagement.repository;
 
 import com.api.bookmanagement.domain.Author;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AuthorRepository extends JpaRepository<Author, Long> {
     Optional<Author> findByName(String name);
-}
\ No newline at end of file
+
+    @EntityGraph(attributePaths = "books")
+    Optional<Author> findWithBooksById(Long id);
+
+    @EntityGraph(attributePaths = "books")
+    @Query("SELECT a FROM Author a")
+    List<Author> findAllWithBooks();
+
+    @Query("SELECT a FROM Author a "
+            + "WHERE (a.updatedAt > :since OR (a.updatedAt = :since AND a.id > :afterId)) AND a.updatedAt < :until "
+            + "ORDER BY a.updatedAt, a.id")
+    List<Author> findModifiedSince(Instant since, long afterId, Instant until, Limit limit);
+
+    @Query("SELECT a.id FROM Author a WHERE a.id IN :authorIds")
+    List<Long> findIdsByIdIn(Collection<Long> authorIds);
+
+    @Modifying
+    @Query("DELETE FROM Author a WHERE a.id IN :authorIds")
+    int deleteByIdIn(Collection<Long> authorIds);
+
+    /** Relative, so concurrent writers do not overwrite each other; clamped at zero. */
+    @Modifying
+    @Query("UPDATE Author a SET a.followersNumber = CASE WHEN a.followersNumber + :delta < 0 THEN 0 "
+            + "ELSE a.followersNumber + :delta END, a.updatedAt = :updatedAt WHERE a.id = :id")
+    int addFollowers(Long id, int delta, Instant updatedAt);
+}
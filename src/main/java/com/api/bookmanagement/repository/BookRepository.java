@@ -1,17 +1,71 @@
 package com.api.bookmanagement.repository;
 
 import com.api.bookmanagement.domain.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
-    Optional<Book> findByTitle(String title);
-    
+public interface BookRepository extends JpaRepository<Book, Long>, BookRepositoryCustom {
+
+    // The EAGER author would otherwise be loaded with one select per distinct author
+    @Override
+    @EntityGraph(attributePaths = "author")
+    List<Book> findAll();
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT DISTINCT b.author FROM Book b WHERE b.id IN :bookIds")
-    List<com.api.bookmanagement.domain.Author> findAuthorsByBookIds(List<Long> bookIds);
-}
\ No newline at end of file
+    List<com.api.bookmanagement.domain.Author> findAuthorsByBookIds(Collection<Long> bookIds);
+
+    @Query("SELECT b FROM Book b JOIN FETCH b.author WHERE b.id IN :bookIds")
+    List<Book> findWithAuthorByIdIn(Collection<Long> bookIds);
+
+    @Query("SELECT b.id FROM Book b WHERE b.isbn = :isbn")
+    Optional<Long> findIdByIsbn(String isbn);
+
+    @Query("SELECT b.type, COUNT(b) FROM Book b GROUP BY b.type")
+    List<Object[]> countByType();
+
+    @Query("SELECT b.author.id, COUNT(b) FROM Book b GROUP BY b.author.id")
+    List<Object[]> countByAuthor();
+
+    @Query("SELECT YEAR(b.publicationDate), COUNT(b) FROM Book b GROUP BY YEAR(b.publicationDate)")
+    List<Object[]> countByPublicationYear();
+
+    @Query("SELECT b.publicationDate, a.followersNumber, COUNT(b) FROM Book b JOIN b.author a "
+            + "GROUP BY b.publicationDate, a.followersNumber")
+    List<Object[]> countByPublicationDateAndAuthorFollowers();
+
+    @Query("SELECT b FROM Book b JOIN FETCH b.author "
+            + "WHERE (b.updatedAt > :since OR (b.updatedAt = :since AND b.id > :afterId)) AND b.updatedAt < :until "
+            + "ORDER BY b.updatedAt, b.id")
+    List<Book> findModifiedSince(Instant since, long afterId, Instant until, Limit limit);
+
+    /** Rows of id, type, author id, publication date and author followers, as the statistics count them. */
+    @Query("SELECT b.id, b.type, a.id, b.publicationDate, a.followersNumber FROM Book b JOIN b.author a "
+            + "WHERE b.id IN :bookIds")
+    List<Object[]> findStatsRowsByIdIn(Collection<Long> bookIds);
+
+    @Query("SELECT b.id, b.type, a.id, b.publicationDate, a.followersNumber FROM Book b JOIN b.author a "
+            + "WHERE a.id IN :authorIds")
+    List<Object[]> findStatsRowsByAuthorIdIn(Collection<Long> authorIds);
+
+    @Modifying
+    @Query("DELETE FROM Book b WHERE b.id IN :bookIds")
+    int deleteByIdIn(Collection<Long> bookIds);
+
+    @Modifying
+    @Query("DELETE FROM Book b WHERE b.author.id IN :authorIds")
+    int deleteByAuthorIdIn(Collection<Long> authorIds);
+}
@@ -0,0 +1,25 @@
+package com.api.bookmanagement.repository;
+
+import com.api.bookmanagement.domain.Book;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface BookRepositoryCustom {
+
+    /**
+     * The book with the lowest id among those with the given title. Titles are not unique: the
+     * lookup is a cacheable query, its result served from the query cache until a book changes.
+     */
+    Optional<Book> findByTitle(String title);
+
+    /**
+     * Books with a publication date, filtered by the non-null criteria and read in
+     * {@code (publication date, id)} order from after the given keyset position, author fetched.
+     * Only the predicates of the criteria given are written, so the type or author index serves
+     * the equality and the publication date range.
+     */
+    List<Book> findPublished(String type, Long authorId, LocalDate publishedFrom, LocalDate publishedTo,
+                             LocalDate afterDate, long afterId, int limit);
+}
@@ -0,0 +1,73 @@
+package com.api.bookmanagement.repository;
+
+import com.api.bookmanagement.config.ShardRouter;
+import com.api.bookmanagement.domain.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Transactional(readOnly = true)
+public class BookRepositoryCustomImpl implements BookRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Override
+    public Optional<Book> findByTitle(String title) {
+        // The shards share the query cache: the residue of the shard's ids keeps their results apart
+        return entityManager.createQuery("SELECT b FROM Book b JOIN FETCH b.author"
+                        + " WHERE b.title = :title AND MOD(b.id, :shards) = :shard ORDER BY b.id", Book.class)
+                .setParameter("title", title)
+                .setParameter("shards", (long) shardRouter.shardCount())
+                .setParameter("shard", (long) shardRouter.currentShard())
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .setMaxResults(1)
+                .getResultList().stream().findFirst();
+    }
+
+    @Override
+    public List<Book> findPublished(String type, Long authorId, LocalDate publishedFrom, LocalDate publishedTo,
+                                    LocalDate afterDate, long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder("SELECT b FROM Book b JOIN FETCH b.author WHERE b.publicationDate IS NOT NULL");
+        Map<String, Object> parameters = new HashMap<>();
+        if (type != null) {
+            jpql.append(" AND b.type = :type");
+            parameters.put("type", type);
+        }
+        if (authorId != null) {
+            jpql.append(" AND b.author.id = :authorId");
+            parameters.put("authorId", authorId);
+        }
+        // One lower bound only: the cursor when it is past publishedFrom, publishedFrom otherwise.
+        // The redundant >= keeps the keyset OR from hiding the range from the index.
+        if (afterDate != null && (publishedFrom == null || !afterDate.isBefore(publishedFrom))) {
+            jpql.append(" AND b.publicationDate >= :afterDate AND (b.publicationDate > :afterDate OR b.id > :afterId)");
+            parameters.put("afterDate", afterDate);
+            parameters.put("afterId", afterId);
+        } else if (publishedFrom != null) {
+            jpql.append(" AND b.publicationDate >= :publishedFrom");
+            parameters.put("publishedFrom", publishedFrom);
+        }
+        if (publishedTo != null) {
+            jpql.append(" AND b.publicationDate <= :publishedTo");
+            parameters.put("publishedTo", publishedTo);
+        }
+        // The type is fixed: ordering by it too lets the type index deliver the rows sorted, the scan stops at the limit
+        jpql.append(type != null && authorId == null ? " ORDER BY b.type, b.publicationDate, b.id" : " ORDER BY b.publicationDate, b.id");
+        TypedQuery<Book> query = entityManager.createQuery(jpql.toString(), Book.class).setMaxResults(limit);
+        parameters.forEach(query::setParameter);
+        return query.getResultList();
+    }
+}
@@ -0,0 +1,43 @@
+package com.api.bookmanagement.repository;
+
+import com.api.bookmanagement.domain.CacheInvalidation;
+import com.api.bookmanagement.event.EntityChangedEvent.EntityType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidation, Long> {
+
+    @Query("SELECT c FROM CacheInvalidation c WHERE c.id > :afterId ORDER BY c.id")
+    List<CacheInvalidation> findAfter(long afterId, Limit limit);
+
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM CacheInvalidation c WHERE c.version < :version")
+    long findMaxIdBefore(long version);
+
+    @Modifying
+    @Query("DELETE FROM CacheInvalidation c WHERE c.version < :version")
+    int deleteByVersionBefore(long version);
+
+    // Set-based inserts for bulk changes, run before the rows go: only existing ids get a record
+
+    @Modifying
+    @Query("INSERT INTO CacheInvalidation (node, entityType, entityId, version) "
+            + "SELECT :node, :entityType, b.id, :version FROM Book b WHERE b.id IN :bookIds")
+    int insertForBooks(String node, EntityType entityType, Collection<Long> bookIds, long version);
+
+    @Modifying
+    @Query("INSERT INTO CacheInvalidation (node, entityType, entityId, version) "
+            + "SELECT :node, :entityType, b.id, :version FROM Book b WHERE b.author.id IN :authorIds")
+    int insertForBooksOfAuthors(String node, EntityType entityType, Collection<Long> authorIds, long version);
+
+    @Modifying
+    @Query("INSERT INTO CacheInvalidation (node, entityType, entityId, version) "
+            + "SELECT :node, :entityType, a.id, :version FROM Author a WHERE a.id IN :authorIds")
+    int insertForAuthors(String node, EntityType entityType, Collection<Long> authorIds, long version);
+}
@@ -0,0 +1,17 @@
+package com.api.bookmanagement.repository;
+
+import com.api.bookmanagement.domain.IsbnMetadata;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface IsbnMetadataRepository extends JpaRepository<IsbnMetadata, String> {
+
+    @Query("SELECT m.isbn FROM IsbnMetadata m WHERE m.isbn IN :isbns AND m.fetchedAt > :since")
+    List<String> findIsbnsFetchedSince(Collection<String> isbns, Instant since);
+}
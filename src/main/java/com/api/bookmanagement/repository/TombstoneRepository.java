@@ -0,0 +1,43 @@
+package com.api.bookmanagement.repository;
+
+import com.api.bookmanagement.domain.Tombstone;
+import com.api.bookmanagement.event.EntityChangedEvent.EntityType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TombstoneRepository extends JpaRepository<Tombstone, Long> {
+
+    @Query("SELECT t FROM Tombstone t WHERE t.entityType = :entityType "
+            + "AND (t.deletedAt > :since OR (t.deletedAt = :since AND t.entityId > :afterId)) AND t.deletedAt < :until "
+            + "ORDER BY t.deletedAt, t.entityId")
+    List<Tombstone> findDeletedSince(EntityType entityType, Instant since, long afterId, Instant until, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM Tombstone t WHERE t.deletedAt < :before")
+    int deleteByDeletedAtBefore(Instant before);
+
+    // Set-based inserts for bulk deletes, run before the rows go: only existing ids get a tombstone
+
+    @Modifying
+    @Query("INSERT INTO Tombstone (entityType, entityId, deletedAt) "
+            + "SELECT :entityType, b.id, :deletedAt FROM Book b WHERE b.id IN :bookIds")
+    int insertForBooks(EntityType entityType, Collection<Long> bookIds, Instant deletedAt);
+
+    @Modifying
+    @Query("INSERT INTO Tombstone (entityType, entityId, deletedAt) "
+            + "SELECT :entityType, b.id, :deletedAt FROM Book b WHERE b.author.id IN :authorIds")
+    int insertForBooksOfAuthors(EntityType entityType, Collection<Long> authorIds, Instant deletedAt);
+
+    @Modifying
+    @Query("INSERT INTO Tombstone (entityType, entityId, deletedAt) "
+            + "SELECT :entityType, a.id, :deletedAt FROM Author a WHERE a.id IN :authorIds")
+    int insertForAuthors(EntityType entityType, Collection<Long> authorIds, Instant deletedAt);
+}
@@ -0,0 +1,54 @@
+package com.api.bookmanagement.resource;
+
+import com.api.bookmanagement.dto.AuditRecordDTO;
+import com.api.bookmanagement.service.AuditService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/audit")
+@RequiredArgsConstructor
+@Slf4j
+public class AuditController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final AuditService auditService;
+
+    @Operation(summary = "Read the audit trail", description = "Stream as ndjson, in append order, every book and "
+            + "author change recorded from the from instant (inclusive) to the to instant (exclusive, now by default)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "successful operation",
+                    content = @Content(mediaType = NDJSON, schema = @Schema(implementation = AuditRecordDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Empty range or audit disabled", content = @Content)
+    })
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> readAudit(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        Instant end = to != null ? to : Instant.now();
+        log.info("Start resource: Read audit records from {} to {}", from, end);
+        auditService.checkRange(from, end);
+        StreamingResponseBody body = out -> auditService.readAudit(from, end, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
+}
@@ -1,6 +1,8 @@
 package com.api.bookmanagement.resource;
 
 import com.api.bookmanagement.dto.AuthorDTO;
+import com.api.bookmanagement.dto.DeltaPageDTO;
+import com.api.bookmanagement.dto.AuthorWithBooksDTO;
 import com.api.bookmanagement.service.AuthorService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -10,13 +12,17 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
 import java.util.List;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/authors")
 @RequiredArgsConstructor
 @Slf4j
@@ -35,6 +41,35 @@ public class AuthorController {
         return output;
     }
 
+    @Operation(summary = "Authors modified since", description = "Delta sync: authors changed and deleted since a point in time, "
+            + "in (modification time, id) order, up to a few seconds before now")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "successful operation"),
+            @ApiResponse(responseCode = "400", description = "Deletions since modifiedSince no longer kept: sync again from the epoch",
+                    content = @Content)
+    })
+    @GetMapping(params = "modifiedSince")
+    public ResponseEntity<DeltaPageDTO<AuthorDTO>> getAuthorsModifiedSince(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant modifiedSince,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "500") int limit) {
+        log.info("Start resource: Retrieve authors modified since: {}, after id: {}", modifiedSince, afterId);
+        var output = ResponseEntity.ok(authorService.getAuthorsModifiedSince(modifiedSince, afterId, limit));
+        log.info("End resource: Retrieve authors modified since: {}, after id: {}", modifiedSince, afterId);
+        return output;
+    }
+
+    @Operation(summary = "All Authors with their books", description = "Load All Authors together with their books")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "successful operation",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = AuthorWithBooksDTO.class))))})
+    @GetMapping(params = "include=books")
+    public ResponseEntity<List<AuthorWithBooksDTO>> getAllAuthorsWithBooks() {
+        log.info("Start resource: find all authors with books");
+        var output = ResponseEntity.ok(authorService.getAllAuthorsWithBooks());
+        log.info("End resource: find all authors with books");
+        return output;
+    }
+
     @Operation(summary = "Find author by ID", description = "Returns a single author")
     @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "successful operation",
             content = @Content(schema = @Schema(implementation = AuthorDTO.class)))})
@@ -46,6 +81,20 @@ public class AuthorController {
         return output;
     }
 
+    @Operation(summary = "Find author books", description = "Returns a single author together with their books")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "successful operation",
+                    content = @Content(schema = @Schema(implementation = AuthorWithBooksDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Author not found", content = @Content)
+    })
+    @GetMapping("/{id}/books")
+    public ResponseEntity<AuthorWithBooksDTO> getAuthorWithBooks(@PathVariable Long id) {
+        log.info("Start resource: find author with books by ID: {}", id);
+        var output = ResponseEntity.ok(authorService.getAuthorWithBooks(id));
+        log.info("End resource: find author with books by ID: {}", id);
+        return output;
+    }
+
     @Operation(summary = "Create a new author", description = "Creates a new author")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Author created successfully",
@@ -75,6 +124,31 @@ public class AuthorController {
         return output;
     }
 
+    @Operation(summary = "Follow an author", description = "Adds a follower; the count is written to the database "
+            + "in the background and reads include it right away")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Author followed successfully"),
+            @ApiResponse(responseCode = "404", description = "Author not found", content = @Content)
+    })
+    @PostMapping("/{id}/follow")
+    public ResponseEntity<Void> followAuthor(@PathVariable Long id) {
+        log.info("Start resource: follow author with ID: {}", id);
+        authorService.follow(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Unfollow an author", description = "Removes a follower; the count never goes below zero")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Author unfollowed successfully"),
+            @ApiResponse(responseCode = "404", description = "Author not found", content = @Content)
+    })
+    @PostMapping("/{id}/unfollow")
+    public ResponseEntity<Void> unfollowAuthor(@PathVariable Long id) {
+        log.info("Start resource: unfollow author with ID: {}", id);
+        authorService.unfollow(id);
+        return ResponseEntity.noContent().build();
+    }
+
     @Operation(summary = "Delete an author", description = "Deletes an author by ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Author deleted successfully"),
@@ -86,4 +160,17 @@ public class AuthorController {
         authorService.deleteAuthor(id);
         return ResponseEntity.noContent().build();
     }
+
+    @Operation(summary = "Delete authors", description = "Deletes several authors and their books at once; "
+            + "nothing is deleted when one of them does not exist")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Authors deleted successfully"),
+            @ApiResponse(responseCode = "404", description = "Author not found", content = @Content)
+    })
+    @DeleteMapping(params = "ids")
+    public ResponseEntity<Void> deleteAuthors(@RequestParam List<Long> ids) {
+        log.info("Start resource: delete authors with IDs: {}", ids);
+        authorService.deleteAuthors(ids);
+        return ResponseEntity.noContent().build();
+    }
 }
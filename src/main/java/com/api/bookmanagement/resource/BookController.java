@@ -3,6 +3,9 @@ package com.api.bookmanagement.resource;
 import com.api.bookmanagement.config.Messages;
 import com.api.bookmanagement.dto.AuthorDTO;
 import com.api.bookmanagement.dto.BookDTO;
+import com.api.bookmanagement.dto.BookPageDTO;
+import com.api.bookmanagement.dto.DeltaPageDTO;
+import com.api.bookmanagement.dto.IsbnMetadataDTO;
 import com.api.bookmanagement.service.BookService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -12,14 +15,20 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/books")
 @RequiredArgsConstructor
 @Slf4j
@@ -31,7 +40,7 @@ public class BookController {
     @Operation(summary = "Retrieve all books", description = "Fetch a list of all books in the system")
     @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "successful operation",
             content = @Content(array = @ArraySchema(schema = @Schema(implementation = BookDTO.class))))})
-    @GetMapping
+    @GetMapping(params = {"!modifiedSince", "!type", "!authorId", "!publishedFrom", "!publishedTo", "!afterDate", "!limit"})
     public ResponseEntity<List<BookDTO>> getAllBooks() {
         log.info("Start resource: Retrieve all books");
         var output = ResponseEntity.ok(bookService.getAllBooks());
@@ -39,6 +48,45 @@ public class BookController {
         return output;
     }
 
+    @Operation(summary = "Books modified since", description = "Delta sync: books changed and deleted since a point in time, "
+            + "in (modification time, id) order, up to a few seconds before now")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "successful operation"),
+            @ApiResponse(responseCode = "400", description = "Deletions since modifiedSince no longer kept: sync again from the epoch",
+                    content = @Content)
+    })
+    @GetMapping(params = "modifiedSince")
+    public ResponseEntity<DeltaPageDTO<BookDTO>> getBooksModifiedSince(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant modifiedSince,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "500") int limit) {
+        log.info("Start resource: Retrieve books modified since: {}, after id: {}", modifiedSince, afterId);
+        var output = ResponseEntity.ok(bookService.getBooksModifiedSince(modifiedSince, afterId, limit));
+        log.info("End resource: Retrieve books modified since: {}, after id: {}", modifiedSince, afterId);
+        return output;
+    }
+
+    @Operation(summary = "Find books", description = "Books with a publication date, filtered by type, author and "
+            + "publication date range (ISO dates, both ends included), in (publication date, id) order, one page at a time")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "successful operation",
+            content = @Content(schema = @Schema(implementation = BookPageDTO.class)))})
+    @GetMapping(params = "!modifiedSince")
+    public ResponseEntity<BookPageDTO> findBooks(
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Long authorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate publishedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate publishedTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate afterDate,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "100") int limit) {
+        log.info("Start resource: Find books of type: {}, author: {}, published from: {} to: {}",
+                type, authorId, publishedFrom, publishedTo);
+        var output = ResponseEntity.ok(bookService.findBooks(type, authorId, publishedFrom, publishedTo, afterDate, afterId, limit));
+        log.info("End resource: Find books of type: {}, author: {}, published from: {} to: {}",
+                type, authorId, publishedFrom, publishedTo);
+        return output;
+    }
+
     @Operation(summary = "Get book by ID", description = "Fetch a single book by its ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "successful operation",
@@ -109,6 +157,19 @@ public class BookController {
         return ResponseEntity.noContent().build();
     }
 
+    @Operation(summary = "Delete books", description = "Remove several books at once; nothing is deleted when one of them does not exist")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Books deleted successfully"),
+            @ApiResponse(responseCode = "404", description = "Book not found", content = @Content)
+    })
+    @DeleteMapping(params = "ids")
+    public ResponseEntity<Void> deleteBooks(@RequestParam List<Long> ids) {
+        log.info("Start resource: Delete books with ids: {}", ids);
+        bookService.deleteBooks(ids);
+        log.info("End resource: Delete books with ids: {}", ids);
+        return ResponseEntity.noContent().build();
+    }
+
     @Operation(summary = "Get book ratings", description = "Fetch the average rating for a specific book")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "successful operation",
@@ -137,11 +198,46 @@ public class BookController {
         return output;
     }
 
+    @Operation(summary = "Get authors keyed by book ID", description = "Fetch the author of each book in a list of book IDs")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "successful operation"),
+            @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content)
+    })
+    @PostMapping(value = "/authors", params = "keyed=true")
+    public ResponseEntity<Map<Long, AuthorDTO>> getAuthorsKeyedByBookIds(@RequestBody List<Long> bookIds) {
+        log.info("Start resource: Get authors keyed by {} book IDs", bookIds.size());
+        var output = ResponseEntity.ok(bookService.getAuthorsKeyedByBookIds(bookIds));
+        log.info("End resource: Get authors keyed by {} book IDs", bookIds.size());
+        return output;
+    }
+
+    @Operation(summary = "Find book by ISBN", description = "Look up OpenLibrary metadata for an ISBN")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "successful operation",
+                    content = @Content(schema = @Schema(implementation = IsbnMetadataDTO.class))),
+            @ApiResponse(responseCode = "404", description = "ISBN not found", content = @Content),
+            @ApiResponse(responseCode = "503", description = "OpenLibrary unavailable", content = @Content)
+    })
     @GetMapping("/isbn/{isbn}")
-    public ResponseEntity<Map<String, Object>> lookupBookByIsbn(@PathVariable String isbn) {
+    public ResponseEntity<IsbnMetadataDTO> lookupBookByIsbn(@PathVariable String isbn) {
         log.info("Received request to lookup book with ISBN: {}", isbn);
         var output = ResponseEntity.ok(bookService.findBookByIsbn(isbn));
         log.info("Completed lookup for book with ISBN: {}", isbn);
         return output;
     }
+
+    @Operation(summary = "Find raw OpenLibrary record by ISBN", description = "Return the stored OpenLibrary record as is")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "successful operation"),
+            @ApiResponse(responseCode = "404", description = "ISBN not found", content = @Content),
+            @ApiResponse(responseCode = "503", description = "OpenLibrary unavailable", content = @Content)
+    })
+    @GetMapping(value = "/isbn/{isbn}", params = "raw=true", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> lookupRawBookByIsbn(@PathVariable String isbn) {
+        log.info("Received request to lookup raw book with ISBN: {}", isbn);
+        // Written by the String converter: the stored text goes out without a JSON round trip
+        var output = ResponseEntity.ok(bookService.findRawBookByIsbn(isbn));
+        log.info("Completed raw lookup for book with ISBN: {}", isbn);
+        return output;
+    }
 }
@@ -0,0 +1,66 @@
+package com.api.bookmanagement.resource;
+
+import com.api.bookmanagement.dto.ImportReportDTO;
+import com.api.bookmanagement.service.CatalogTransferService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api")
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogTransferController {
+
+    private final CatalogTransferService catalogTransferService;
+
+    @Operation(summary = "Export the catalog", description = "Stream every book joined with its author as csv or ndjson")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "successful operation"),
+            @ApiResponse(responseCode = "400", description = "Unsupported format", content = @Content)
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCatalog(@RequestParam(defaultValue = "csv") String format) {
+        log.info("Start resource: Export catalog as {}", format);
+        var catalogFormat = catalogTransferService.format(format);
+        StreamingResponseBody body = out -> catalogTransferService.exportCatalog(catalogFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(catalogFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=catalog." + catalogFormat.extension())
+                .body(body);
+    }
+
+    @Operation(summary = "Import a catalog", description = "Create books, and their authors when unknown, "
+            + "from a csv or ndjson upload in the export layout")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "successful operation",
+                    content = @Content(schema = @Schema(implementation = ImportReportDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Unsupported format", content = @Content)
+    })
+    @PostMapping("/import")
+    public ResponseEntity<ImportReportDTO> importCatalog(@RequestParam(defaultValue = "csv") String format,
+                                                         InputStream body) throws IOException {
+        log.info("Start resource: Import catalog as {}", format);
+        var output = ResponseEntity.ok(catalogTransferService.importCatalog(catalogTransferService.format(format), body));
+        log.info("End resource: Import catalog as {}", format);
+        return output;
+    }
+}
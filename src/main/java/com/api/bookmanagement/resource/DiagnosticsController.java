@@ -0,0 +1,119 @@
+package com.api.bookmanagement.resource;
+
+import com.api.bookmanagement.dto.RecordingDTO;
+import com.api.bookmanagement.dto.WarmupReportDTO;
+import com.api.bookmanagement.service.FlightRecorderService;
+import com.api.bookmanagement.service.WarmupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/diagnostics")
+@RequiredArgsConstructor
+@Slf4j
+public class DiagnosticsController {
+
+    private final FlightRecorderService flightRecorderService;
+
+    private final WarmupService warmupService;
+
+    @Operation(summary = "Warm-up report", description = "Duration and request count of the JIT warm-up run before "
+            + "readiness, and latency percentiles of the requests of the first minute after it")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "successful operation",
+            content = @Content(schema = @Schema(implementation = WarmupReportDTO.class)))})
+    @GetMapping("/warmup")
+    public ResponseEntity<WarmupReportDTO> getWarmupReport() {
+        log.info("Start resource: Get warm-up report");
+        var output = ResponseEntity.ok(warmupService.getReport());
+        log.info("End resource: Get warm-up report");
+        return output;
+    }
+
+    @Operation(summary = "Start a flight recording", description = "Start a JFR recording bounded by the configured "
+            + "maximum age, size and duration; duration is an ISO-8601 duration such as PT5M")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "successful operation",
+                    content = @Content(schema = @Schema(implementation = RecordingDTO.class))),
+            @ApiResponse(responseCode = "400", description = "A recording is already running", content = @Content)
+    })
+    @PostMapping("/recording")
+    public ResponseEntity<RecordingDTO> startRecording(@RequestParam(required = false) Duration duration) {
+        log.info("Start resource: Start flight recording for: {}", duration);
+        var output = new ResponseEntity<>(flightRecorderService.startRecording(duration), HttpStatus.CREATED);
+        log.info("End resource: Start flight recording for: {}", duration);
+        return output;
+    }
+
+    @Operation(summary = "Flight recording status", description = "State, bounds and current size of the recording")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "successful operation",
+                    content = @Content(schema = @Schema(implementation = RecordingDTO.class))),
+            @ApiResponse(responseCode = "404", description = "No recording has been started", content = @Content)
+    })
+    @GetMapping("/recording")
+    public ResponseEntity<RecordingDTO> getRecording() {
+        log.info("Start resource: Get flight recording");
+        var output = ResponseEntity.ok(flightRecorderService.getRecording());
+        log.info("End resource: Get flight recording");
+        return output;
+    }
+
+    @Operation(summary = "Stop the flight recording", description = "Stop the running recording, keeping its data for a dump")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "successful operation",
+                    content = @Content(schema = @Schema(implementation = RecordingDTO.class))),
+            @ApiResponse(responseCode = "400", description = "The recording is not running", content = @Content),
+            @ApiResponse(responseCode = "404", description = "No recording has been started", content = @Content)
+    })
+    @PostMapping("/recording/stop")
+    public ResponseEntity<RecordingDTO> stopRecording() {
+        log.info("Start resource: Stop flight recording");
+        var output = ResponseEntity.ok(flightRecorderService.stopRecording());
+        log.info("End resource: Stop flight recording");
+        return output;
+    }
+
+    @Operation(summary = "Dump the flight recording", description = "Download the recorded data as a .jfr file, "
+            + "while the recording runs or after it stopped")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "successful operation"),
+            @ApiResponse(responseCode = "404", description = "No recording has been started", content = @Content)
+    })
+    @GetMapping("/recording/dump")
+    public ResponseEntity<StreamingResponseBody> dumpRecording() {
+        log.info("Start resource: Dump flight recording");
+        Path file = flightRecorderService.dumpRecording();
+        StreamingResponseBody body = out -> {
+            try {
+                Files.copy(file, out);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=bookmanagement.jfr")
+                .body(body);
+    }
+}
@@ -0,0 +1,93 @@
+package com.api.bookmanagement.resource;
+
+import com.api.bookmanagement.dto.AuthorDTO;
+import com.api.bookmanagement.service.ReactiveAuthorService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link AuthorController} on the reactive stack.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/authors")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveAuthorController {
+
+    private final ReactiveAuthorService authorService;
+
+    @Operation(summary = "All Authors", description = "Stream All Authors")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "successful operation",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = AuthorDTO.class))))})
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<AuthorDTO> getAllAuthors() {
+        log.info("Start resource: find all authors");
+        return authorService.getAllAuthors()
+                .doOnComplete(() -> log.info("End resource: find all authors"));
+    }
+
+    @Operation(summary = "Find author by ID", description = "Returns a single author")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "successful operation",
+            content = @Content(schema = @Schema(implementation = AuthorDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Author not found", content = @Content)})
+    @GetMapping("/{id}")
+    public Mono<AuthorDTO> getAuthorById(@PathVariable Long id) {
+        log.info("Start resource: find author by ID: {}", id);
+        return authorService.getAuthorById(id)
+                .doOnSuccess(author -> log.info("End resource: find author by ID: {}", id));
+    }
+
+    @Operation(summary = "Create a new author", description = "Creates a new author")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Author created successfully",
+                    content = @Content(schema = @Schema(implementation = AuthorDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content)
+    })
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<AuthorDTO> createAuthor(@RequestBody AuthorDTO authorDTO) {
+        log.info("Start resource: create author: {}", authorDTO);
+        return authorService.createAuthor(authorDTO)
+                .doOnSuccess(author -> log.info("End resource: create author: {}", authorDTO));
+    }
+
+    @Operation(summary = "Update an existing author", description = "Updates an existing author by ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Author updated successfully",
+                    content = @Content(schema = @Schema(implementation = AuthorDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Author not found", content = @Content)
+    })
+    @PutMapping("/{id}")
+    public Mono<AuthorDTO> updateAuthor(@PathVariable Long id, @RequestBody AuthorDTO authorDTO) {
+        log.info("Start resource: update author with ID: {}", id);
+        return authorService.updateAuthor(id, authorDTO)
+                .doOnSuccess(author -> log.info("End resource: update author with ID: {}", id));
+    }
+
+    @Operation(summary = "Delete an author", description = "Deletes an author by ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Author deleted successfully"),
+            @ApiResponse(responseCode = "404", description = "Author not found", content = @Content)
+    })
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteAuthor(@PathVariable Long id) {
+        log.info("Start resource: delete author with ID: {}", id);
+        return authorService.deleteAuthor(id)
+                .doOnSuccess(done -> log.info("End resource: delete author with ID: {}", id));
+    }
+}
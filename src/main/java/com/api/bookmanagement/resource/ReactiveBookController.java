@@ -0,0 +1,164 @@
+package com.api.bookmanagement.resource;
+
+import com.api.bookmanagement.dto.AuthorDTO;
+import com.api.bookmanagement.dto.BookDTO;
+import com.api.bookmanagement.dto.IsbnMetadataDTO;
+import com.api.bookmanagement.service.ReactiveBookService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * {@link BookController} on the reactive stack. Lists are streamed: ask for
+ * {@code application/x-ndjson} to receive one book per line as rows arrive.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/books")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveBookController {
+
+    private final ReactiveBookService bookService;
+
+    @Operation(summary = "Retrieve all books", description = "Stream all books in the system")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "successful operation",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = BookDTO.class))))})
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<BookDTO> getAllBooks() {
+        log.info("Start resource: Retrieve all books");
+        return bookService.getAllBooks()
+                .doOnComplete(() -> log.info("End resource: Retrieve all books"));
+    }
+
+    @Operation(summary = "Get book by ID", description = "Fetch a single book by its ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "successful operation",
+                    content = @Content(schema = @Schema(implementation = BookDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Book not found", content = @Content)
+    })
+    @GetMapping("/{id}")
+    public Mono<BookDTO> getBookById(@PathVariable Long id) {
+        log.info("Start resource: Retrieve book by ID: {}", id);
+        return bookService.getBookById(id)
+                .doOnSuccess(book -> log.info("End resource: Retrieve book by ID: {}", id));
+    }
+
+    @Operation(summary = "Get book by title", description = "Fetch a single book by its title")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "successful operation",
+                    content = @Content(schema = @Schema(implementation = BookDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Book not found", content = @Content)
+    })
+    @GetMapping("/title/{title}")
+    public Mono<BookDTO> getBookByTitle(@PathVariable String title) {
+        log.info("Start resource: Retrieve book by title: {}", title);
+        return bookService.getBookByTitle(title)
+                .doOnSuccess(book -> log.info("End resource: Retrieve book by title: {}", title));
+    }
+
+    @Operation(summary = "Create a new book", description = "Add a new book to the system")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Book created successfully",
+                    content = @Content(schema = @Schema(implementation = BookDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content)
+    })
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<BookDTO> createBook(@RequestBody BookDTO bookDTO) {
+        log.info("Start resource: Create book: {}", bookDTO);
+        return bookService.createBook(bookDTO)
+                .doOnSuccess(book -> log.info("End resource: Create book: {}", bookDTO));
+    }
+
+    @Operation(summary = "Update an existing book", description = "Modify details of an existing book")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Book updated successfully",
+                    content = @Content(schema = @Schema(implementation = BookDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Book not found", content = @Content)
+    })
+    @PutMapping("/{id}")
+    public Mono<BookDTO> updateBook(@PathVariable Long id, @RequestBody BookDTO bookDTO) {
+        log.info("Start resource: Update book with id: {}", id);
+        return bookService.updateBook(id, bookDTO)
+                .doOnSuccess(book -> log.info("End resource: Update book with id: {}", id));
+    }
+
+    @Operation(summary = "Delete a book", description = "Remove a book from the system by its ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Book deleted successfully"),
+            @ApiResponse(responseCode = "404", description = "Book not found", content = @Content)
+    })
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteBook(@PathVariable Long id) {
+        log.info("Start resource: Delete book with id: {}", id);
+        return bookService.deleteBook(id)
+                .doOnSuccess(done -> log.info("End resource: Delete book with id: {}", id));
+    }
+
+    @Operation(summary = "Get book ratings", description = "Fetch the average rating for a specific book")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "successful operation",
+                    content = @Content(schema = @Schema(implementation = Double.class))),
+            @ApiResponse(responseCode = "404", description = "Book not found", content = @Content)
+    })
+    @GetMapping("/{id}/rating")
+    public Mono<Double> getBookRating(@PathVariable Long id) {
+        log.info("Start resource: Get book rating: {}", id);
+        return bookService.getRatingForBook(id)
+                .doOnSuccess(rating -> log.info("End resource: Get book rating: {}", id));
+    }
+
+    @Operation(summary = "Get authors by book IDs", description = "Fetch authors for a list of book IDs")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "successful operation",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = AuthorDTO.class)))),
+            @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content)
+    })
+    @PostMapping("/authors")
+    public Flux<AuthorDTO> getAuthorsByBookIds(@RequestBody List<Long> bookIds) {
+        log.info("Start resource: Get authors by book IDs: {}", bookIds);
+        return bookService.getAuthorsByBookIds(bookIds)
+                .doOnComplete(() -> log.info("End resource: Get authors by book IDs: {}", bookIds));
+    }
+
+    @Operation(summary = "Find book by ISBN", description = "Look up OpenLibrary metadata for an ISBN")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "successful operation",
+                    content = @Content(schema = @Schema(implementation = IsbnMetadataDTO.class))),
+            @ApiResponse(responseCode = "404", description = "ISBN not found", content = @Content)
+    })
+    @GetMapping("/isbn/{isbn}")
+    public Mono<IsbnMetadataDTO> lookupBookByIsbn(@PathVariable String isbn) {
+        log.info("Received request to lookup book with ISBN: {}", isbn);
+        return bookService.findBookByIsbn(isbn)
+                .doOnSuccess(book -> log.info("Completed lookup for book with ISBN: {}", isbn));
+    }
+
+    @Operation(summary = "Find raw OpenLibrary record by ISBN", description = "Return the stored OpenLibrary record as is")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "successful operation"),
+            @ApiResponse(responseCode = "404", description = "ISBN not found", content = @Content)
+    })
+    @GetMapping(value = "/isbn/{isbn}", params = "raw=true", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<String> lookupRawBookByIsbn(@PathVariable String isbn) {
+        log.info("Received request to lookup raw book with ISBN: {}", isbn);
+        return bookService.findRawBookByIsbn(isbn)
+                .doOnSuccess(book -> log.info("Completed raw lookup for book with ISBN: {}", isbn));
+    }
+}
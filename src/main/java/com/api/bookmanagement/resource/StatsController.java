@@ -0,0 +1,65 @@
+package com.api.bookmanagement.resource;
+
+import com.api.bookmanagement.dto.CacheStatsDTO;
+import com.api.bookmanagement.dto.CatalogStatsDTO;
+import com.api.bookmanagement.service.CacheStatsService;
+import com.api.bookmanagement.service.CatalogStatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/stats")
+@RequiredArgsConstructor
+@Slf4j
+public class StatsController {
+
+    private final CatalogStatsService catalogStatsService;
+
+    private final CacheStatsService cacheStatsService;
+
+    @Operation(summary = "Catalog statistics", description = "Book counts per type, author and publication year, and the rating distribution")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "successful operation",
+            content = @Content(schema = @Schema(implementation = CatalogStatsDTO.class)))})
+    @GetMapping
+    public ResponseEntity<CatalogStatsDTO> getStats() {
+        log.info("Start resource: Get catalog statistics");
+        var output = ResponseEntity.ok(catalogStatsService.getStats());
+        log.info("End resource: Get catalog statistics");
+        return output;
+    }
+
+    @Operation(summary = "Reconcile catalog statistics", description = "Rebuild the statistics from the database")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "successful operation",
+            content = @Content(schema = @Schema(implementation = CatalogStatsDTO.class)))})
+    @PostMapping("/reconcile")
+    public ResponseEntity<CatalogStatsDTO> reconcile() {
+        log.info("Start resource: Reconcile catalog statistics");
+        catalogStatsService.reconcile();
+        var output = ResponseEntity.ok(catalogStatsService.getStats());
+        log.info("End resource: Reconcile catalog statistics");
+        return output;
+    }
+
+    @Operation(summary = "Cache statistics", description = "Second-level, natural-id and query cache hits and misses, with per-region counts")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "successful operation",
+            content = @Content(schema = @Schema(implementation = CacheStatsDTO.class)))})
+    @GetMapping("/cache")
+    public ResponseEntity<CacheStatsDTO> getCacheStats() {
+        log.info("Start resource: Get cache statistics");
+        var output = ResponseEntity.ok(cacheStatsService.getStats());
+        log.info("End resource: Get cache statistics");
+        return output;
+    }
+}
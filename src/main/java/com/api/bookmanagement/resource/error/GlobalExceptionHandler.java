@@ -3,7 +3,9 @@ package com.api.bookmanagement.resource.error;
 import com.api.bookmanagement.config.Messages;
 import com.api.bookmanagement.dto.error.ResponseError;
 import com.api.bookmanagement.exception.FunctionalException;
+import com.api.bookmanagement.exception.NotFoundException;
 import com.api.bookmanagement.exception.TechnicalException;
+import com.api.bookmanagement.exception.UpstreamUnavailableException;
 import com.api.bookmanagement.util.GlobalConstants;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -17,6 +19,10 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 @RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
+    private static final String NOT_FOUND_TITLE = NotFoundException.class.getSimpleName();
+
+    private static final String NOT_FOUND_STATUS = String.valueOf(HttpStatus.NOT_FOUND.value());
+
     private final Messages messages;
 
     @ExceptionHandler({TechnicalException.class, RuntimeException.class})
@@ -28,6 +34,22 @@ public class GlobalExceptionHandler {
                 HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    @ExceptionHandler(UpstreamUnavailableException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ResponseError handleUpstreamUnavailableException(UpstreamUnavailableException e) {
+        return buildResponseError(e.getClass().getSimpleName(),
+                e.getMessage(),
+                GlobalConstants.URI_UPSTREAM_UNAVAILABLE_EXCEPTION,
+                HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(NotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ResponseError handleNotFoundException(NotFoundException e) {
+        // Only the detail varies, the other fields are shared constants
+        return new ResponseError(GlobalConstants.URI_NOT_FOUND_EXCEPTION, NOT_FOUND_TITLE, e.getMessage(), NOT_FOUND_STATUS, null);
+    }
+
     @ExceptionHandler(FunctionalException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ResponseError handleFunctionalException(FunctionalException e) {
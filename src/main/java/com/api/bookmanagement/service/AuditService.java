@@ -0,0 +1,228 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.config.Messages;
+import com.api.bookmanagement.dto.AuditRecordDTO;
+import com.api.bookmanagement.event.EntityChangedEvent;
+import com.api.bookmanagement.event.EntityChangedEvent.ChangeType;
+import com.api.bookmanagement.event.EntityChangedEvent.EntityType;
+import com.api.bookmanagement.exception.FunctionalException;
+import com.api.bookmanagement.exception.TechnicalException;
+import com.api.bookmanagement.util.AuditJournal;
+import com.api.bookmanagement.util.GlobalConstants;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Audit trail of every book and author created, updated or deleted, kept out of the database in
+ * an {@link AuditJournal} under {@code audit.directory}. Each change is appended once committed,
+ * with the caller: the API key of the request that made it, or none for background work such as
+ * the follower flushes. The key is recorded as the first 8 bytes of its HMAC-SHA256 under
+ * {@code audit.caller-secret}, so the trail names the key without letting anyone holding it
+ * test guesses of the key against it.
+ * <p>
+ * Record body: entity type and change type ordinals (one byte each), entity id, caller
+ * (length-prefixed UTF-8), then the JSON of the entity after the change, empty for deletions.
+ * The journal is forced to disk every {@code audit.fsync-interval-ms}, so a crash of the host
+ * loses at most that much of the trail.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuditService {
+
+    private static final String API_KEY_HEADER = "api-key";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private static final EntityType[] ENTITY_TYPES = EntityType.values();
+
+    private static final ChangeType[] CHANGE_TYPES = ChangeType.values();
+
+    private final ObjectMapper objectMapper;
+
+    private final Messages messages;
+
+    @Value("${audit.enabled}")
+    private boolean enabled;
+
+    @Value("${audit.directory}")
+    private Path directory;
+
+    @Value("${audit.segment-size}")
+    private DataSize segmentSize;
+
+    // Zero keeps the trail forever
+    @Value("${audit.retention}")
+    private Duration retention;
+
+    @Value("${audit.caller-secret}")
+    private String callerSecret;
+
+    private final Map<String, String> callers = new ConcurrentHashMap<>();
+
+    private volatile AuditJournal journal;
+
+    @PostConstruct
+    void open() throws IOException {
+        if (enabled) {
+            journal = AuditJournal.open(directory, Math.toIntExact(segmentSize.toBytes()));
+            log.info("Audit journal opened in {} with {} segments", directory, journal.segmentCount());
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        AuditJournal closing = journal;
+        journal = null;
+        if (closing != null) {
+            closing.close();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        AuditJournal current = journal;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.append(micros(Instant.now()), encode(event, currentApiKey()));
+        } catch (RuntimeException | JsonProcessingException e) {
+            // The change is committed already; failing the request would not undo it
+            log.error("Cannot audit {}", event, e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${audit.fsync-interval-ms}")
+    public void sync() {
+        AuditJournal current = journal;
+        if (current != null) {
+            current.sync();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${audit.compaction-interval-ms}", fixedDelayString = "${audit.compaction-interval-ms}")
+    public void compact() {
+        AuditJournal current = journal;
+        if (current == null) {
+            return;
+        }
+        long retainAfter = retention.isZero() ? Long.MIN_VALUE : micros(Instant.now().minus(retention));
+        try {
+            int removed = current.compact(retainAfter);
+            if (removed > 0) {
+                log.info("Compacted the audit journal: {} segment files removed, {} left", removed, current.segmentCount());
+            }
+        } catch (IOException e) {
+            log.warn("Cannot compact the audit journal, retrying on the next run", e);
+        }
+    }
+
+    /** Writes the records of {@code [from, to)} to {@code out} as ndjson, in append order. */
+    public void readAudit(Instant from, Instant to, OutputStream out) throws IOException {
+        log.info("Start service: Reading audit records from {} to {}", from, to);
+        AuditJournal current = checkRange(from, to);
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setRootValueSeparator(null);
+        long[] count = {0};
+        current.read(micros(from), micros(to), (timestamp, body) -> {
+            writer.writeValue(generator, decode(timestamp, body));
+            generator.writeRaw('\n');
+            count[0]++;
+        });
+        generator.close();
+        log.info("End service: Read {} audit records from {} to {}", count[0], from, to);
+    }
+
+    /** Called before streaming too, so errors are reported while the response can still carry them. */
+    public AuditJournal checkRange(Instant from, Instant to) {
+        AuditJournal current = journal;
+        if (current == null) {
+            throw new FunctionalException(messages.get(GlobalConstants.ERROR_AUDIT_DISABLED));
+        }
+        if (!from.isBefore(to)) {
+            throw new FunctionalException(messages.get(GlobalConstants.ERROR_AUDIT_INVALID_RANGE, from, to));
+        }
+        return current;
+    }
+
+    private byte[] encode(EntityChangedEvent event, String apiKey) throws JsonProcessingException {
+        byte[] caller = apiKey != null ? caller(apiKey).getBytes(StandardCharsets.UTF_8) : new byte[0];
+        byte[] payload = event.getPayload() != null ? objectMapper.writeValueAsBytes(event.getPayload()) : new byte[0];
+        return ByteBuffer.allocate(1 + 1 + Long.BYTES + Short.BYTES + caller.length + payload.length)
+                .put((byte) event.getEntityType().ordinal())
+                .put((byte) event.getChangeType().ordinal())
+                .putLong(event.getEntityId() != null ? event.getEntityId() : 0)
+                .putShort((short) caller.length)
+                .put(caller)
+                .put(payload)
+                .array();
+    }
+
+    private static AuditRecordDTO decode(long timestampMicros, ByteBuffer body) {
+        EntityType entityType = ENTITY_TYPES[body.get()];
+        ChangeType changeType = CHANGE_TYPES[body.get()];
+        long entityId = body.getLong();
+        byte[] caller = new byte[body.getShort()];
+        body.get(caller);
+        byte[] payload = new byte[body.remaining()];
+        body.get(payload);
+        return new AuditRecordDTO(Instant.EPOCH.plus(timestampMicros, ChronoUnit.MICROS), entityType, changeType, entityId,
+                caller.length > 0 ? new String(caller, StandardCharsets.UTF_8) : null,
+                payload.length > 0 ? new String(payload, StandardCharsets.UTF_8) : null);
+    }
+
+    private String caller(String apiKey) {
+        // Only keys accepted by the filter get here, so the map stays as small as the set of keys
+        return callers.computeIfAbsent(apiKey, key -> {
+            try {
+                Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+                mac.init(new SecretKeySpec(callerSecret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+                return HexFormat.of().formatHex(mac.doFinal(key.getBytes(StandardCharsets.UTF_8)), 0, 8);
+            } catch (GeneralSecurityException e) {
+                throw new TechnicalException("Cannot compute the audit caller: " + e.getMessage());
+            }
+        });
+    }
+
+    private static String currentApiKey() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes.getRequest().getHeader(API_KEY_HEADER) : null;
+    }
+
+    private static long micros(Instant instant) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+    }
+}
@@ -1,70 +1,208 @@
 package com.api.bookmanagement.service;
 
 import com.api.bookmanagement.config.Messages;
+import com.api.bookmanagement.config.ShardRouter;
 import com.api.bookmanagement.domain.Author;
+import com.api.bookmanagement.domain.Tombstone;
 import com.api.bookmanagement.dto.AuthorDTO;
-import com.api.bookmanagement.exception.FunctionalException;
+import com.api.bookmanagement.dto.AuthorWithBooksDTO;
+import com.api.bookmanagement.dto.DeltaPageDTO;
+import com.api.bookmanagement.event.BookCountsChangedEvent;
+import com.api.bookmanagement.event.EntityChangedEvent;
+import com.api.bookmanagement.event.EntityChangedEvent.ChangeType;
+import com.api.bookmanagement.event.EntityChangedEvent.EntityType;
+import com.api.bookmanagement.exception.NotFoundException;
 import com.api.bookmanagement.mapper.AuthorMapper;
 import com.api.bookmanagement.repository.AuthorRepository;
+import com.api.bookmanagement.repository.BookRepository;
+import com.api.bookmanagement.repository.TombstoneRepository;
+import com.api.bookmanagement.util.DeltaPages;
 import com.api.bookmanagement.util.GlobalConstants;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 @Service
+@Transactional(readOnly = true)
 @RequiredArgsConstructor
 @Slf4j
 public class AuthorService {
 
     private final AuthorRepository authorRepository;
+    private final BookRepository bookRepository;
+    private final TombstoneRepository tombstoneRepository;
+    private final DeltaSyncService deltaSyncService;
     private final AuthorMapper authorMapper;
     private final Messages messages;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ShardRouter shardRouter;
+    private final FollowerCounterService followerCounterService;
+
+    private final CacheInvalidationService cacheInvalidationService;
 
     public List<AuthorDTO> getAllAuthors() {
         log.info("Start service: Getting all authors");
-        return authorRepository.findAll().stream()
-                .map(authorMapper::toAuthorDTO)
-                .toList();
+        return shardRouter.onAllShards(() -> authorRepository.findAll().stream()
+                .map(this::toAuthorDTO)
+                .toList(), Comparator.comparing(AuthorDTO::getId));
     }
 
     public AuthorDTO getAuthorById(Long id) {
         log.info("Start service: Getting author by id: {}", id);
-        Author author = authorRepository.findById(id)
-                .orElseThrow(() -> new FunctionalException(messages.get(GlobalConstants.ERROR_AUTHOR_NOT_FOUND_ID, id)));
-        var output = authorMapper.toAuthorDTO(author);
+        var output = shardRouter.onShard(shardRouter.shardOf(id), () -> {
+            Author author = authorRepository.findById(id)
+                    .orElseThrow(() -> new NotFoundException(messages.get(GlobalConstants.ERROR_AUTHOR_NOT_FOUND_ID, id)));
+            return toAuthorDTO(author);
+        });
         log.info("End service: Getting author by id: {}", id);
         return output;
     }
 
+    public DeltaPageDTO<AuthorDTO> getAuthorsModifiedSince(Instant since, long afterId, int limit) {
+        log.info("Start service: Getting authors modified since: {}, after id: {}", since, afterId);
+        int pageSize = DeltaPages.pageSize(limit);
+        Instant until = deltaSyncService.until(since);
+        List<Author> changed = shardRouter.onAllShards(() ->
+                        authorRepository.findModifiedSince(since, afterId, until, Limit.of(pageSize)),
+                DeltaPages.keysetOrder(Author::getUpdatedAt, Author::getId));
+        List<Tombstone> deleted = shardRouter.onAllShards(() ->
+                        tombstoneRepository.findDeletedSince(EntityType.AUTHOR, since, afterId, until, Limit.of(pageSize)),
+                DeltaPages.keysetOrder(Tombstone::getDeletedAt, Tombstone::getEntityId));
+        var output = DeltaPages.merge(since, afterId, changed, Author::getUpdatedAt, Author::getId, this::toAuthorDTO,
+                deleted, pageSize);
+        log.info("End service: Getting authors modified since: {}, after id: {}", since, afterId);
+        return output;
+    }
+
+    public List<AuthorWithBooksDTO> getAllAuthorsWithBooks() {
+        log.info("Start service: Getting all authors with books");
+        var output = shardRouter.onAllShards(() -> authorRepository.findAllWithBooks().stream()
+                .map(this::toAuthorWithBooksDTO)
+                .toList(), Comparator.comparing(AuthorWithBooksDTO::getId));
+        log.info("End service: Getting all authors with books");
+        return output;
+    }
+
+    public AuthorWithBooksDTO getAuthorWithBooks(Long id) {
+        log.info("Start service: Getting author with books by id: {}", id);
+        var output = shardRouter.onShard(shardRouter.shardOf(id), () -> {
+            Author author = authorRepository.findWithBooksById(id)
+                    .orElseThrow(() -> new NotFoundException(messages.get(GlobalConstants.ERROR_AUTHOR_NOT_FOUND_ID, id)));
+            return toAuthorWithBooksDTO(author);
+        });
+        log.info("End service: Getting author with books by id: {}", id);
+        return output;
+    }
+
+    @Transactional
     public AuthorDTO createAuthor(AuthorDTO authorDTO) {
         log.info("Start service: Creating author: {}", authorDTO);
-        Author author = authorMapper.toAuthor(authorDTO);
-        Author savedAuthor = authorRepository.save(author);
-        var output = authorMapper.toAuthorDTO(savedAuthor);
+        var output = shardRouter.onShard(shardRouter.nextShard(), () -> {
+            Author author = authorMapper.toAuthor(authorDTO);
+            Author savedAuthor = authorRepository.save(author);
+            cacheInvalidationService.recordChange(EntityType.AUTHOR, savedAuthor.getId(), savedAuthor.getUpdatedAt());
+            return authorMapper.toAuthorDTO(savedAuthor);
+        });
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityType.AUTHOR, ChangeType.CREATED, output.getId(), output));
         log.info("End service: Created author: {}", authorDTO);
         return output;
     }
 
+    @Transactional
     public AuthorDTO updateAuthor(Long id, AuthorDTO authorDTO) {
         log.info("Start service: Updating author with id: {}", id);
-        Author author = authorRepository.findById(id)
-                .orElseThrow(() -> new FunctionalException(messages.get(GlobalConstants.ERROR_AUTHOR_NOT_FOUND_ID, id)));
+        var output = shardRouter.onShard(shardRouter.shardOf(id), () -> {
+            Author author = authorRepository.findById(id)
+                    .orElseThrow(() -> new NotFoundException(messages.get(GlobalConstants.ERROR_AUTHOR_NOT_FOUND_ID, id)));
 
-        authorMapper.updateEntity(author, authorDTO);
-        Author updatedAuthor = authorRepository.save(author);
-        var output = authorMapper.toAuthorDTO(updatedAuthor);
+            authorMapper.updateEntity(author, authorDTO);
+            Author updatedAuthor = authorRepository.saveAndFlush(author);
+            cacheInvalidationService.recordChange(EntityType.AUTHOR, id, updatedAuthor.getUpdatedAt());
+            return authorMapper.toAuthorDTO(updatedAuthor);
+        });
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityType.AUTHOR, ChangeType.UPDATED, id, output));
         log.info("End service: Updated author with id: {}", id);
         return output;
     }
 
+    @Transactional
     public void deleteAuthor(Long id) {
         log.info("Start service: Deleting author with id: {}", id);
-        if (!authorRepository.existsById(id)) {
-            throw new FunctionalException(messages.get(GlobalConstants.ERROR_AUTHOR_NOT_FOUND_ID, id));
-        }
-        authorRepository.deleteById(id);
+        removeAuthors(List.of(id));
         log.info("End service: Deleted author with id: {}", id);
     }
+
+    /** Deletes all the authors and their books, or nothing when one is missing (per shard when they span several). */
+    @Transactional
+    public void deleteAuthors(List<Long> ids) {
+        log.info("Start service: Deleting authors with ids: {}", ids);
+        removeAuthors(ids);
+        log.info("End service: Deleted authors with ids: {}", ids);
+    }
+
+    public void follow(Long id) {
+        log.info("Start service: Following author with id: {}", id);
+        followerCounterService.follow(id);
+        log.info("End service: Followed author with id: {}", id);
+    }
+
+    public void unfollow(Long id) {
+        log.info("Start service: Unfollowing author with id: {}", id);
+        followerCounterService.unfollow(id);
+        log.info("End service: Unfollowed author with id: {}", id);
+    }
+
+    // Reads include the follows not flushed to the database yet
+    private AuthorDTO toAuthorDTO(Author author) {
+        AuthorDTO output = authorMapper.toAuthorDTO(author);
+        output.setFollowersNumber(followerCounterService.followers(author.getId(), author.getFollowersNumber()));
+        return output;
+    }
+
+    private AuthorWithBooksDTO toAuthorWithBooksDTO(Author author) {
+        AuthorWithBooksDTO output = authorMapper.toAuthorWithBooksDTO(author);
+        output.setFollowersNumber(followerCounterService.followers(author.getId(), author.getFollowersNumber()));
+        return output;
+    }
+
+    /**
+     * Set-based, without loading the authors or their books: seven statements whatever the
+     * number of books. The author tombstones go first, their count telling whether an author
+     * is missing before anything is deleted.
+     */
+    private void removeAuthors(List<Long> ids) {
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        List<Long> bookIds = new ArrayList<>();
+        shardRouter.onShardsOf(distinct, shardIds -> {
+            Instant now = Instant.now();
+            if (tombstoneRepository.insertForAuthors(EntityType.AUTHOR, shardIds, now) != shardIds.size()) {
+                Set<Long> missing = new LinkedHashSet<>(shardIds);
+                authorRepository.findIdsByIdIn(shardIds).forEach(missing::remove);
+                throw missing.size() == 1
+                        ? new NotFoundException(messages.get(GlobalConstants.ERROR_AUTHOR_NOT_FOUND_ID, missing.iterator().next()))
+                        : new NotFoundException(messages.get(GlobalConstants.ERROR_AUTHOR_NOT_FOUND_IDS, missing.toString()));
+            }
+            List<Object[]> books = bookRepository.findStatsRowsByAuthorIdIn(shardIds);
+            tombstoneRepository.insertForBooksOfAuthors(EntityType.BOOK, shardIds, now);
+            cacheInvalidationService.recordBooksOfAuthors(shardIds, now);
+            cacheInvalidationService.recordAuthors(shardIds, now);
+            bookRepository.deleteByAuthorIdIn(shardIds);
+            authorRepository.deleteByIdIn(shardIds);
+            eventPublisher.publishEvent(BookCountsChangedEvent.removed(books));
+            books.forEach(row -> bookIds.add((Long) row[0]));
+            return null;
+        });
+        bookIds.forEach(bookId -> eventPublisher.publishEvent(new EntityChangedEvent(EntityType.BOOK, ChangeType.DELETED, bookId, null)));
+        distinct.forEach(id -> eventPublisher.publishEvent(new EntityChangedEvent(EntityType.AUTHOR, ChangeType.DELETED, id, null)));
+    }
 }
\ No newline at end of file
@@ -1,27 +1,58 @@
 package com.api.bookmanagement.service;
 
 import com.api.bookmanagement.config.Messages;
+import com.api.bookmanagement.config.ShardRouter;
 import com.api.bookmanagement.domain.Author;
 import com.api.bookmanagement.domain.Book;
+import com.api.bookmanagement.domain.Tombstone;
 import com.api.bookmanagement.dto.AuthorDTO;
 import com.api.bookmanagement.dto.BookDTO;
+import com.api.bookmanagement.dto.BookPageDTO;
+import com.api.bookmanagement.dto.DeltaPageDTO;
+import com.api.bookmanagement.dto.IsbnMetadataDTO;
+import com.api.bookmanagement.event.BookCountsChangedEvent;
+import com.api.bookmanagement.event.EntityChangedEvent;
+import com.api.bookmanagement.event.EntityChangedEvent.ChangeType;
+import com.api.bookmanagement.event.EntityChangedEvent.EntityType;
 import com.api.bookmanagement.exception.FunctionalException;
+import com.api.bookmanagement.exception.NotFoundException;
 import com.api.bookmanagement.mapper.AuthorMapper;
 import com.api.bookmanagement.mapper.BookMapper;
 import com.api.bookmanagement.util.GlobalConstants;
 import com.api.bookmanagement.repository.AuthorRepository;
 import com.api.bookmanagement.repository.BookRepository;
+import com.api.bookmanagement.repository.TombstoneRepository;
 import com.api.bookmanagement.util.BookRatingCalculator;
+import com.api.bookmanagement.util.DeltaPages;
+import com.api.bookmanagement.util.Isbns;
+import com.api.bookmanagement.util.OpenLibraryParser;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Service
+@Transactional(readOnly = true)
 @RequiredArgsConstructor
 @Slf4j
 public class BookService {
@@ -30,6 +61,10 @@ public class BookService {
 
     private final AuthorRepository authorRepository;
 
+    private final TombstoneRepository tombstoneRepository;
+
+    private final DeltaSyncService deltaSyncService;
+
     private final BookMapper bookMapper;
 
     private final AuthorMapper authorMapper;
@@ -38,98 +73,287 @@ public class BookService {
 
     private final Messages messages;
 
-    private final RestTemplate restTemplate;
+    @Qualifier("bookLookupExecutor")
+    private final Executor bookLookupExecutor;
+
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    private final CatalogReadModel catalogReadModel;
+
+    private final IsbnEnrichmentService isbnEnrichmentService;
 
-    @Value("${openlibrary.api.url}")
-    private String openLibraryApiUrl;
+    private final ShardRouter shardRouter;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final CacheInvalidationService cacheInvalidationService;
+
+    @Value("${books.lookup.chunk-size}")
+    private int lookupChunkSize;
 
     public List<BookDTO> getAllBooks() {
         log.info("Start service: Getting all books");
-        var books = bookRepository.findAll().stream().map(bookMapper::toBookDTO).toList();
+        var books = catalogReadModel.findAllBooks().orElseGet(() -> shardRouter.onAllShards(() ->
+                bookRepository.findAll().stream().map(bookMapper::toBookDTO).toList(), Comparator.comparing(BookDTO::getId)));
         log.info("End service: Getting all books");
         return books;
     }
 
+    public DeltaPageDTO<BookDTO> getBooksModifiedSince(Instant since, long afterId, int limit) {
+        log.info("Start service: Getting books modified since: {}, after id: {}", since, afterId);
+        int pageSize = DeltaPages.pageSize(limit);
+        Instant until = deltaSyncService.until(since);
+        // Every shard returns its own first page; merged, the first pageSize rows are the global page
+        List<Book> changed = shardRouter.onAllShards(() ->
+                        bookRepository.findModifiedSince(since, afterId, until, Limit.of(pageSize)),
+                DeltaPages.keysetOrder(Book::getUpdatedAt, Book::getId));
+        List<Tombstone> deleted = shardRouter.onAllShards(() ->
+                        tombstoneRepository.findDeletedSince(EntityType.BOOK, since, afterId, until, Limit.of(pageSize)),
+                DeltaPages.keysetOrder(Tombstone::getDeletedAt, Tombstone::getEntityId));
+        var output = DeltaPages.merge(since, afterId, changed, Book::getUpdatedAt, Book::getId, bookMapper::toBookDTO,
+                deleted, pageSize);
+        log.info("End service: Getting books modified since: {}, after id: {}", since, afterId);
+        return output;
+    }
+
+    public BookPageDTO findBooks(String type, Long authorId, LocalDate publishedFrom, LocalDate publishedTo,
+                                 LocalDate afterDate, long afterId, int limit) {
+        log.info("Start service: Finding books of type: {}, author: {}, published from: {} to: {}, after: {}/{}",
+                type, authorId, publishedFrom, publishedTo, afterDate, afterId);
+        int pageSize = DeltaPages.pageSize(limit);
+        // One row past the page tells whether there is a next one
+        Supplier<List<Book>> query = () -> bookRepository.findPublished(type, authorId, publishedFrom, publishedTo,
+                afterDate, afterId, pageSize + 1);
+        // An author's books live on the author's shard; otherwise every shard returns its own first page
+        List<Book> books = authorId != null ? shardRouter.onShard(shardRouter.shardOf(authorId), query)
+                : shardRouter.onAllShards(query, Comparator.comparing(Book::getPublicationDate).thenComparing(Book::getId));
+        boolean hasMore = books.size() > pageSize;
+        List<Book> page = hasMore ? books.subList(0, pageSize) : books;
+        Book last = page.isEmpty() ? null : page.get(page.size() - 1);
+        var output = new BookPageDTO(page.stream().map(bookMapper::toBookDTO).toList(),
+                last != null ? last.getPublicationDate() : null, last != null ? last.getId() : null, hasMore);
+        log.info("End service: Finding books of type: {}, author: {}, published from: {} to: {}, after: {}/{}",
+                type, authorId, publishedFrom, publishedTo, afterDate, afterId);
+        return output;
+    }
+
     public BookDTO getBookById(Long id) {
         log.info("Start service: Getting book by id: {} ", id);
-        Book book = bookRepository.findById(id).orElseThrow(() -> 
-            new FunctionalException(messages.get(GlobalConstants.ERROR_BOOK_NOT_FOUND_ID, id)));
-        var output = bookMapper.toBookDTO(book);
+        var output = catalogReadModel.findBook(id)
+                .or(() -> catalogSnapshotService.findBook(id))
+                .orElseGet(() -> shardRouter.onShard(shardRouter.shardOf(id), () -> {
+                    Book book = bookRepository.findById(id).orElseThrow(() ->
+                        new NotFoundException(messages.get(GlobalConstants.ERROR_BOOK_NOT_FOUND_ID, id)));
+                    return bookMapper.toBookDTO(book);
+                }));
         log.info("End service: Getting book by id: {}", id);
         return output;
     }
 
     public BookDTO getBookByTitle(String title) {
         log.info("Start service: Getting book by title: {} ", title);
-        Book book = bookRepository.findByTitle(title).orElseThrow(() -> 
-            new FunctionalException(messages.get(GlobalConstants.ERROR_BOOK_NOT_FOUND_TITLE, title)));
-        var output = bookMapper.toBookDTO(book);
+        // Titles are only unique within a shard: the lowest id wins when several shards have one
+        var output = shardRouter.onAllShards(() -> bookRepository.findByTitle(title).map(bookMapper::toBookDTO).stream().toList(),
+                        Comparator.comparing(BookDTO::getId))
+                .stream().findFirst().orElseThrow(() ->
+                    new NotFoundException(messages.get(GlobalConstants.ERROR_BOOK_NOT_FOUND_TITLE, title)));
         log.info("End service: Getting book by title: {}", title);
         return output;
     }
 
+    @Transactional
     public BookDTO createBook(BookDTO bookDTO) {
         log.info("Start service: Creating book with data: {}", bookDTO);
-        if (!authorRepository.existsById(bookDTO.getAuthorId())) {
-            throw new FunctionalException(messages.get(GlobalConstants.ERROR_AUTHOR_NOT_FOUND_ID, bookDTO.getAuthorId()));
-        }
-        var savedBook = bookRepository.save(bookMapper.toBookEntity(bookDTO));
-        var output = bookMapper.toBookDTO(savedBook);
+        var output = shardRouter.onShard(shardRouter.shardOf(bookDTO.getAuthorId()), () -> {
+            Author author = authorRepository.findById(bookDTO.getAuthorId()).orElseThrow(() ->
+                new FunctionalException(messages.get(GlobalConstants.ERROR_AUTHOR_NOT_FOUND_ID, bookDTO.getAuthorId())));
+            Book book = bookMapper.toBookEntity(bookDTO);
+            book.setIsbn(requireUniqueIsbn(book.getIsbn(), null));
+            book.setAuthor(author);
+            var savedBook = bookRepository.save(book);
+            cacheInvalidationService.recordChange(EntityType.BOOK, savedBook.getId(), savedBook.getUpdatedAt());
+            eventPublisher.publishEvent(BookCountsChangedEvent.added(savedBook));
+            return bookMapper.toBookDTO(savedBook);
+        });
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityType.BOOK, ChangeType.CREATED, output.getId(), output));
         log.info("End service: Creating book with data: {}", bookDTO);
         return output;
     }
 
+    @Transactional
     public BookDTO updateBook(Long id, BookDTO bookDTO) {
         log.info("Start service: Updating book with id: {} ", id);
-        Book book = bookRepository.findById(id).orElseThrow(() -> 
-            new FunctionalException(messages.get(GlobalConstants.ERROR_BOOK_NOT_FOUND_ID, id)));
+        int shard = shardRouter.shardOf(id);
+        var output = shardRouter.onShard(shard, () -> {
+            Book book = bookRepository.findById(id).orElseThrow(() ->
+                new NotFoundException(messages.get(GlobalConstants.ERROR_BOOK_NOT_FOUND_ID, id)));
 
-        if (!authorRepository.existsById(bookDTO.getAuthorId())) {
-            throw new FunctionalException(messages.get(GlobalConstants.ERROR_AUTHOR_NOT_FOUND_ID, bookDTO.getAuthorId()));
-        }
+            // Moving a book to another shard would change its id
+            if (shardRouter.shardOf(bookDTO.getAuthorId()) != shard) {
+                throw new FunctionalException(messages.get(GlobalConstants.ERROR_BOOK_AUTHOR_OTHER_SHARD, bookDTO.getAuthorId()));
+            }
+            if (!authorRepository.existsById(bookDTO.getAuthorId())) {
+                throw new FunctionalException(messages.get(GlobalConstants.ERROR_AUTHOR_NOT_FOUND_ID, bookDTO.getAuthorId()));
+            }
+
+            String isbn = bookDTO.getIsbn() == null ? book.getIsbn() : requireUniqueIsbn(bookDTO.getIsbn(), id);
 
-        bookMapper.updateEntity(book, bookDTO);
+            BookCountsChangedEvent.Row before = BookCountsChangedEvent.Row.of(book, -1);
+            bookMapper.updateEntity(book, bookDTO);
+            book.setIsbn(isbn);
 
-        Book updatedBook = bookRepository.save(book);
-        var output = bookMapper.toBookDTO(updatedBook);
+            Book updatedBook = bookRepository.saveAndFlush(book);
+            cacheInvalidationService.recordChange(EntityType.BOOK, id, updatedBook.getUpdatedAt());
+            eventPublisher.publishEvent(new BookCountsChangedEvent(List.of(before, BookCountsChangedEvent.Row.of(updatedBook, 1))));
+            return bookMapper.toBookDTO(updatedBook);
+        });
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityType.BOOK, ChangeType.UPDATED, id, output));
         log.info("End service: Updating book with id: {} ", id);
         return output;
     }
 
+    @Transactional
     public void deleteBook(Long id) {
         log.info("Start service: Deleting book with id: {} ", id);
-        if (!bookRepository.existsById(id)) {
-            throw new FunctionalException(messages.get(GlobalConstants.ERROR_BOOK_NOT_FOUND_ID, id));
-        }
-        bookRepository.deleteById(id);
+        removeBooks(List.of(id));
         log.info("End service: Deleting book with id: {} ", id);
     }
 
+    /** Deletes all the books or none of them, when one is missing (per shard when they span several). */
+    @Transactional
+    public void deleteBooks(List<Long> ids) {
+        log.info("Start service: Deleting books with ids: {} ", ids);
+        removeBooks(ids);
+        log.info("End service: Deleting books with ids: {} ", ids);
+    }
+
+    /**
+     * Set-based: the statistics rows, the tombstones, the cache invalidations and the delete are
+     * one statement each, whatever the number of books; the books are missing when fewer rows are
+     * deleted than asked.
+     */
+    private void removeBooks(List<Long> ids) {
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        shardRouter.onShardsOf(distinct, shardIds -> {
+            List<Object[]> rows = bookRepository.findStatsRowsByIdIn(shardIds);
+            Instant now = Instant.now();
+            tombstoneRepository.insertForBooks(EntityType.BOOK, shardIds, now);
+            cacheInvalidationService.recordBooks(shardIds, now);
+            if (bookRepository.deleteByIdIn(shardIds) != shardIds.size()) {
+                Set<Long> missing = new LinkedHashSet<>(shardIds);
+                rows.forEach(row -> missing.remove((Long) row[0]));
+                throw missing.size() == 1
+                        ? new NotFoundException(messages.get(GlobalConstants.ERROR_BOOK_NOT_FOUND_ID, missing.iterator().next()))
+                        : new NotFoundException(messages.get(GlobalConstants.ERROR_BOOK_NOT_FOUND_IDS, missing.toString()));
+            }
+            eventPublisher.publishEvent(BookCountsChangedEvent.removed(rows));
+            return null;
+        });
+        distinct.forEach(id -> eventPublisher.publishEvent(new EntityChangedEvent(EntityType.BOOK, ChangeType.DELETED, id, null)));
+    }
+
     public double getRatingForBook(Long id) {
         log.info("Start service: Getting rating for id: {} ", id);
-        Book book = bookRepository.findById(id).orElseThrow(() -> 
-            new FunctionalException(messages.get(GlobalConstants.ERROR_BOOK_NOT_FOUND_ID, id)));
-        var output = bookRatingCalculator.calculateRating(book);
+        double output = catalogReadModel.findRating(id)
+                .or(() -> catalogSnapshotService.findRating(id))
+                .orElseGet(() -> shardRouter.onShard(shardRouter.shardOf(id), () -> {
+                    Book book = bookRepository.findById(id).orElseThrow(() ->
+                        new NotFoundException(messages.get(GlobalConstants.ERROR_BOOK_NOT_FOUND_ID, id)));
+                    return bookRatingCalculator.calculateRating(book);
+                }));
         log.info("End service: Getting rating for id: {} ", id);
         return output;
     }
 
     public List<AuthorDTO> getAuthorsByBookIds(List<Long> bookIds) {
         log.info("Start service: Getting authors by ids: {}", bookIds);
-        List<Author> authors = bookRepository.findAuthorsByBookIds(bookIds);
-        var authorsWithBooks = authors.stream().map(authorMapper::toAuthorDTO).toList();
+        var authorsWithBooks = catalogReadModel.findAuthorsByBookIds(bookIds).orElseGet(() -> {
+            Map<Long, Author> authors = new LinkedHashMap<>();
+            inChunks(bookIds, bookRepository::findAuthorsByBookIds)
+                    .forEach(author -> authors.putIfAbsent(author.getId(), author));
+            return authors.values().stream().map(authorMapper::toAuthorDTO).toList();
+        });
         log.info("End service: Getting authors by ids: {}", bookIds);
         return authorsWithBooks;
     }
 
-    public Map<String, Object> findBookByIsbn(String isbn) {
-        String url = openLibraryApiUrl + "?bibkeys=ISBN:" + isbn + "&format=json";
-        Map<String, Object> response = restTemplate.getForObject(url, Map.class);
+    public Map<Long, AuthorDTO> getAuthorsKeyedByBookIds(List<Long> bookIds) {
+        log.info("Start service: Getting authors keyed by {} book ids", bookIds.size());
+        Map<Long, AuthorDTO> authors = new HashMap<>();
+        Map<Long, AuthorDTO> output = new LinkedHashMap<>();
+        for (Book book : inChunks(bookIds, bookRepository::findWithAuthorByIdIn)) {
+            Author author = book.getAuthor();
+            output.put(book.getId(), authors.computeIfAbsent(author.getId(), id -> authorMapper.toAuthorDTO(author)));
+        }
+        log.info("End service: Getting authors keyed by {} book ids", bookIds.size());
+        return output;
+    }
+
+    /**
+     * Answers from the locally stored OpenLibrary record, filled in the background for our own
+     * books; unknown ISBNs are fetched upstream once and stored. Only the fields we expose are
+     * read out of the record.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public IsbnMetadataDTO findBookByIsbn(String isbn) {
+        log.info("Start service: Getting book by isbn: {}", isbn);
+        String normalized = Isbns.normalize(isbn);
+        var output = OpenLibraryParser.parseRecord(normalized, findIsbnRecord(isbn, normalized));
+        log.info("End service: Getting book by isbn: {}", isbn);
+        return output;
+    }
+
+    /** Same lookup as {@link #findBookByIsbn}, returning the stored OpenLibrary record untouched. */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public String findRawBookByIsbn(String isbn) {
+        log.info("Start service: Getting raw book by isbn: {}", isbn);
+        var output = findIsbnRecord(isbn, Isbns.normalize(isbn));
+        log.info("End service: Getting raw book by isbn: {}", isbn);
+        return output;
+    }
 
-        if (response == null || response.isEmpty()) {
-            throw new FunctionalException(messages.get(GlobalConstants.ERROR_BOOK_NOT_FOUND_ISBN, isbn));
+    private String findIsbnRecord(String isbn, String normalized) {
+        if (normalized == null) {
+            throw new NotFoundException(messages.get(GlobalConstants.ERROR_BOOK_NOT_FOUND_ISBN, isbn));
         }
+        return isbnEnrichmentService.findLocal(normalized)
+                .or(() -> isbnEnrichmentService.fetch(normalized))
+                .orElseThrow(() -> new NotFoundException(messages.get(GlobalConstants.ERROR_BOOK_NOT_FOUND_ISBN, isbn)));
+    }
 
-        return response;
+    private String requireUniqueIsbn(String isbn, Long id) {
+        String normalized = Isbns.normalize(isbn);
+        if (normalized != null && shardRouter.onAllShards(() -> bookRepository.findIdByIsbn(normalized).stream().toList(), null)
+                .stream().anyMatch(existing -> !existing.equals(id))) {
+            throw new FunctionalException(messages.get(GlobalConstants.ERROR_BOOK_DUPLICATE_ISBN, normalized));
+        }
+        return normalized;
+    }
+
+    /**
+     * Runs an IN-list query over distinct ids, grouped by shard and split into chunks of
+     * {@code books.lookup.chunk-size}. Chunks run in parallel on the lookup executor, each in a
+     * read-only transaction of its own so they are routed like the caller's reads; Hibernate
+     * pads each IN-list to a power of two so the number of distinct statement shapes stays small.
+     */
+    private <T> List<T> inChunks(List<Long> ids, Function<List<Long>, List<T>> query) {
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        if (distinctIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, List<Long>> byShard = shardRouter.groupByShard(distinctIds);
+        if (byShard.size() == 1 && distinctIds.size() <= lookupChunkSize) {
+            int shard = byShard.keySet().iterator().next();
+            return shardRouter.onShard(shard, () -> query.apply(distinctIds));
+        }
+        List<CompletableFuture<List<T>>> chunks = new ArrayList<>();
+        byShard.forEach((shard, shardIds) -> {
+            for (int from = 0; from < shardIds.size(); from += lookupChunkSize) {
+                List<Long> chunk = shardIds.subList(from, Math.min(from + lookupChunkSize, shardIds.size()));
+                chunks.add(CompletableFuture.supplyAsync(() -> shardRouter.onShardReadOnly(shard, () -> query.apply(chunk)),
+                        bookLookupExecutor));
+            }
+        });
+        return chunks.stream().map(CompletableFuture::join).flatMap(List::stream).toList();
     }
 }
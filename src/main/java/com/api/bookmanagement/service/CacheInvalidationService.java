@@ -0,0 +1,293 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.config.ShardRouter;
+import com.api.bookmanagement.domain.Author;
+import com.api.bookmanagement.domain.Book;
+import com.api.bookmanagement.domain.CacheInvalidation;
+import com.api.bookmanagement.event.EntityChangedEvent.EntityType;
+import com.api.bookmanagement.repository.CacheInvalidationRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps the local caches of several nodes sharing one database coherent, with the database as
+ * the only channel. The writes of {@link BookService} and {@link AuthorService} append
+ * {@code (entity, id, version)} records, tagged with the writing node, to the
+ * {@code cache_invalidation} table in their own transaction. Each node polls the table of every
+ * shard past its high-water mark and, for the records of other nodes, evicts the second-level
+ * cache entries, refreshes the read model and invalidates the snapshot view. Other nodes see a
+ * write about a poll interval after its commit. The statistics are rebuilt from GROUP BY queries
+ * over the whole catalog, so remote changes only mark them stale and a poll rebuilds them at
+ * most once per {@code cache.invalidation.stats-rebuild-interval}; evicting everything rebuilds
+ * them at once.
+ * <p>
+ * Identity values are taken at insert but become visible at commit, so a record can show up
+ * after higher ones. The ids skipped over are kept as gaps and looked up again on the next
+ * polls, until found or older than {@code cache.invalidation.gap-timeout}, which also covers
+ * rolled back transactions. Records older than {@code cache.invalidation.retention} are pruned;
+ * a node that has not polled for that long evicts everything instead.
+ */
+@Service
+@Slf4j
+public class CacheInvalidationService {
+
+    private static final String AUTHOR_BOOKS = Author.class.getName() + ".books";
+
+    // Beyond that many ids skipped at once, the missing records are given up on
+    private static final int MAX_GAPS = 10_000;
+
+    private final String node = UUID.randomUUID().toString();
+
+    private final CacheInvalidationRepository cacheInvalidationRepository;
+
+    private final ShardRouter shardRouter;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final CatalogReadModel catalogReadModel;
+
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    private final CatalogStatsService catalogStatsService;
+
+    private final TransactionTemplate transaction;
+
+    private final Map<Integer, Cursor> cursors = new HashMap<>();
+
+    // Set when other nodes changed books since the statistics were last rebuilt
+    private boolean statsStale;
+
+    private long statsRebuiltAt = System.nanoTime();
+
+    @Value("${cache.invalidation.enabled}")
+    private boolean enabled;
+
+    @Value("${cache.invalidation.batch-size}")
+    private int batchSize;
+
+    @Value("${cache.invalidation.gap-timeout}")
+    private Duration gapTimeout;
+
+    @Value("${cache.invalidation.retention}")
+    private Duration retention;
+
+    @Value("${cache.invalidation.stats-rebuild-interval}")
+    private Duration statsRebuildInterval;
+
+    public CacheInvalidationService(CacheInvalidationRepository cacheInvalidationRepository, ShardRouter shardRouter,
+                                    EntityManagerFactory entityManagerFactory, CatalogReadModel catalogReadModel,
+                                    CatalogSnapshotService catalogSnapshotService, CatalogStatsService catalogStatsService,
+                                    PlatformTransactionManager transactionManager) {
+        this.cacheInvalidationRepository = cacheInvalidationRepository;
+        this.shardRouter = shardRouter;
+        this.entityManagerFactory = entityManagerFactory;
+        this.catalogReadModel = catalogReadModel;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.catalogStatsService = catalogStatsService;
+        // Polls read the primary: a lagging replica would turn fresh records into gaps
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /** Identifies this node's records, which it skips when polling. */
+    public String getNode() {
+        return node;
+    }
+
+    /** Records a created or updated book or author, in the caller's transaction. */
+    public void recordChange(EntityType entityType, Long id, Instant updatedAt) {
+        if (enabled) {
+            cacheInvalidationRepository.save(new CacheInvalidation(null, node, entityType, id,
+                    micros(updatedAt != null ? updatedAt : Instant.now())));
+        }
+    }
+
+    // Set-based, one statement whatever the number of rows; run before the rows are deleted
+
+    public void recordBooks(Collection<Long> bookIds, Instant changedAt) {
+        if (enabled) {
+            cacheInvalidationRepository.insertForBooks(node, EntityType.BOOK, bookIds, micros(changedAt));
+        }
+    }
+
+    public void recordBooksOfAuthors(Collection<Long> authorIds, Instant changedAt) {
+        if (enabled) {
+            cacheInvalidationRepository.insertForBooksOfAuthors(node, EntityType.BOOK, authorIds, micros(changedAt));
+        }
+    }
+
+    public void recordAuthors(Collection<Long> authorIds, Instant changedAt) {
+        if (enabled) {
+            cacheInvalidationRepository.insertForAuthors(node, EntityType.AUTHOR, authorIds, micros(changedAt));
+        }
+    }
+
+    /** Records a change of the whole catalog, such as an import going around the services. */
+    public void recordCatalogChange() {
+        if (enabled) {
+            cacheInvalidationRepository.save(new CacheInvalidation(null, node, null, null, micros(Instant.now())));
+        }
+    }
+
+    @Scheduled(initialDelayString = "${cache.invalidation.poll-interval-ms}",
+            fixedDelayString = "${cache.invalidation.poll-interval-ms}")
+    public synchronized void poll() {
+        if (!enabled) {
+            return;
+        }
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            try {
+                pollShard(shard);
+            } catch (RuntimeException e) {
+                log.warn("Cannot poll the cache invalidations of shard {}, retrying on the next run", shard, e);
+            }
+        }
+        if (statsStale && System.nanoTime() - statsRebuiltAt >= statsRebuildInterval.toNanos()) {
+            rebuildStats();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${cache.invalidation.prune-interval-ms}",
+            fixedDelayString = "${cache.invalidation.prune-interval-ms}")
+    public void prune() {
+        if (!enabled) {
+            return;
+        }
+        long before = micros(Instant.now().minus(retention));
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            Integer pruned = shardRouter.onShard(shard, () ->
+                    transaction.execute(status -> cacheInvalidationRepository.deleteByVersionBefore(before)));
+            if (pruned != null && pruned > 0) {
+                log.info("Pruned {} cache invalidation records of shard {}", pruned, shard);
+            }
+        }
+    }
+
+    private void pollShard(int shard) {
+        Cursor cursor = cursors.computeIfAbsent(shard, key -> new Cursor());
+        long now = System.nanoTime();
+        boolean lagging = cursor.started && now - cursor.lastPoll > retention.toNanos();
+        List<CacheInvalidation> remote = new ArrayList<>();
+        int read;
+        do {
+            List<CacheInvalidation> records = shardRouter.onShard(shard, () -> transaction.execute(status -> {
+                if (!cursor.started) {
+                    // Starts far enough back to catch the transactions in flight: their records may sit below the latest id
+                    cursor.highWaterMark = cacheInvalidationRepository.findMaxIdBefore(micros(Instant.now().minus(gapTimeout)));
+                    cursor.started = true;
+                }
+                List<CacheInvalidation> found = new ArrayList<>(
+                        cacheInvalidationRepository.findAfter(cursor.highWaterMark, Limit.of(batchSize)));
+                if (!cursor.gaps.isEmpty()) {
+                    found.addAll(cacheInvalidationRepository.findAllById(List.copyOf(cursor.gaps.keySet())));
+                }
+                return found;
+            }));
+            long highWaterMark = cursor.highWaterMark;
+            read = (int) records.stream().filter(record -> record.getId() > highWaterMark).count();
+            cursor.advance(records, now, gapTimeout.toNanos());
+            records.stream().filter(record -> !node.equals(record.getNode())).forEach(remote::add);
+        } while (read == batchSize);
+        cursor.lastPoll = now;
+        if (lagging) {
+            log.warn("Cache invalidations of shard {} not polled for over {}, some may be pruned: evicting everything",
+                    shard, retention);
+            evictAll();
+        } else if (!remote.isEmpty()) {
+            evict(remote);
+        }
+    }
+
+    private void evict(List<CacheInvalidation> records) {
+        if (records.stream().anyMatch(record -> record.getEntityId() == null)) {
+            evictAll();
+            return;
+        }
+        Set<Long> bookIds = new LinkedHashSet<>();
+        Set<Long> authorIds = new LinkedHashSet<>();
+        records.forEach(record -> (record.getEntityType() == EntityType.BOOK ? bookIds : authorIds).add(record.getEntityId()));
+        log.debug("Evicting {} books and {} authors changed by other nodes", bookIds.size(), authorIds.size());
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        bookIds.forEach(id -> cache.evictEntityData(Book.class, id));
+        authorIds.forEach(id -> {
+            cache.evictEntityData(Author.class, id);
+            cache.evictCollectionData(AUTHOR_BOOKS, id);
+        });
+        if (!bookIds.isEmpty()) {
+            // The author collections a book joins or leaves are not keyed by the book id
+            cache.evictCollectionData(AUTHOR_BOOKS);
+        }
+        // The update timestamps are local: cached query results would not see the other node's write
+        cache.evictQueryRegions();
+        catalogReadModel.refresh(EntityType.BOOK, bookIds);
+        catalogReadModel.refresh(EntityType.AUTHOR, authorIds);
+        bookIds.forEach(id -> catalogSnapshotService.invalidate(EntityType.BOOK, id));
+        authorIds.forEach(id -> catalogSnapshotService.invalidate(EntityType.AUTHOR, id));
+        statsStale = true;
+    }
+
+    private void evictAll() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        catalogReadModel.reload();
+        catalogSnapshotService.invalidate(null, null);
+        rebuildStats();
+    }
+
+    private void rebuildStats() {
+        statsStale = false;
+        statsRebuiltAt = System.nanoTime();
+        catalogStatsService.reconcile();
+    }
+
+    private static long micros(Instant instant) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+    }
+
+    /** Position of this node in the records of one shard. */
+    private static final class Cursor {
+
+        boolean started;
+
+        long highWaterMark;
+
+        long lastPoll;
+
+        // Ids skipped over, with the time they were first missed
+        final Map<Long, Long> gaps = new HashMap<>();
+
+        /** Takes records past the high-water mark, in id order, then records found in gaps. */
+        void advance(List<CacheInvalidation> records, long now, long gapTimeoutNanos) {
+            for (CacheInvalidation record : records) {
+                long id = record.getId();
+                if (id > highWaterMark) {
+                    for (long missing = highWaterMark + 1; missing < id && gaps.size() < MAX_GAPS; missing++) {
+                        gaps.put(missing, now);
+                    }
+                    highWaterMark = id;
+                } else {
+                    gaps.remove(id);
+                }
+            }
+            gaps.values().removeIf(since -> now - since > gapTimeoutNanos);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.dto.CacheStatsDTO;
+import com.api.bookmanagement.dto.CacheStatsDTO.RegionStatsDTO;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Hit and miss counts of the Hibernate second-level cache, since startup or the last
+ * {@link #clear()}. The counts come from Hibernate statistics, which cost every session some
+ * bookkeeping: they are only collected when {@code cache.statistics.enabled} is set, and are all
+ * zero otherwise.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CacheStatsService {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public CacheStatsDTO getStats() {
+        log.info("Start service: Getting cache statistics");
+        Statistics statistics = statistics();
+        Map<String, RegionStatsDTO> regions = new TreeMap<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics counts = statistics.getCacheRegionStatistics(region);
+            if (counts == null) {
+                continue;
+            }
+            regions.put(region, new RegionStatsDTO(counts.getHitCount(), counts.getMissCount(),
+                    counts.getPutCount(), counts.getElementCountInMemory()));
+        }
+        var output = new CacheStatsDTO(statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(),
+                statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(),
+                regions);
+        log.info("End service: Getting cache statistics");
+        return output;
+    }
+
+    public void clear() {
+        statistics().clear();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,471 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.dto.AuthorDTO;
+import com.api.bookmanagement.dto.BookDTO;
+import com.api.bookmanagement.event.EntityChangedEvent;
+import com.api.bookmanagement.event.EntityChangedEvent.ChangeType;
+import com.api.bookmanagement.event.EntityChangedEvent.EntityType;
+import com.api.bookmanagement.util.BookRatingCalculator;
+import com.api.bookmanagement.util.LongIntHashMap;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Optional in-memory read model of the whole catalog, serving book reads, author lookups by
+ * book ids and ratings without Hibernate or the database. Enabled with {@code readmodel.enabled}.
+ * <p>
+ * Books and authors are stored column by column in primitive arrays, found through a
+ * {@link LongIntHashMap} from id to row. Publication dates are epoch days, timestamps are epoch
+ * microseconds and book types are interned, so a book costs its columns plus its title.
+ * Estimated heap per million books, with compressed oops and 20-character titles:
+ * <pre>
+ *   read model:   id map ~24 MB, columns ~40 MB, titles ~60 MB          ~ 125 MB
+ *   entity graph: Book + boxed id, LocalDate, Instant ~120 MB, titles and
+ *                 uninterned types ~90 MB, persistence context entries and
+ *                 loaded-state snapshots ~200 MB                         ~ 410 MB
+ * </pre>
+ * The model is loaded with one JDBC pass at startup and kept current from the committed
+ * {@link EntityChangedEvent}s of {@link BookService} and {@link AuthorService}, on the writing
+ * thread. Writes that bypass the services (catalog import) call {@link #reload()}; writes of
+ * other nodes come through {@link CacheInvalidationService} as {@link #refresh}. Lookups that
+ * miss fall through to the database.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogReadModel {
+
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int REFRESH_CHUNK_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final BookRatingCalculator bookRatingCalculator;
+
+    @Value("${readmodel.enabled}")
+    private boolean enabled;
+
+    private final StampedLock lock = new StampedLock();
+
+    private volatile boolean loaded;
+
+    private final Books books = new Books(INITIAL_CAPACITY);
+
+    private final Authors authors = new Authors(INITIAL_CAPACITY);
+
+    @PostConstruct
+    void init() {
+        if (enabled) {
+            reload();
+        }
+    }
+
+    public void reload() {
+        if (!enabled) {
+            return;
+        }
+        log.info("Start service: Loading catalog read model");
+        long stamp = lock.writeLock();
+        try {
+            loaded = false;
+            authors.clear();
+            books.clear();
+            stream("SELECT id, name, age, followers_number, updated_at FROM author", rs ->
+                    authors.put(rs.getLong(1), rs.getString(2), rs.getInt(3), rs.getInt(4),
+                            micros(rs.getObject(5, OffsetDateTime.class))));
+            stream("SELECT id, title, isbn, author_id, publication_date, type, updated_at FROM book", rs ->
+                    books.put(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getLong(4),
+                            epochDay(rs.getObject(5, LocalDate.class)), rs.getString(6),
+                            micros(rs.getObject(7, OffsetDateTime.class))));
+            loaded = true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        log.info("End service: Loading catalog read model, {} authors and {} books", authors.index.size(),
+                books.index.size());
+    }
+
+    public Optional<BookDTO> findBook(Long id) {
+        if (!loaded) {
+            return Optional.empty();
+        }
+        long stamp = lock.readLock();
+        try {
+            int row = books.index.get(id);
+            return row == LongIntHashMap.MISSING ? Optional.empty() : Optional.of(toBookDTO(row));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public Optional<List<BookDTO>> findAllBooks() {
+        if (!loaded) {
+            return Optional.empty();
+        }
+        long stamp = lock.readLock();
+        try {
+            List<BookDTO> output = new ArrayList<>(books.index.size());
+            for (int row = 0; row < books.rows; row++) {
+                if (books.live[row]) {
+                    output.add(toBookDTO(row));
+                }
+            }
+            output.sort(Comparator.comparing(BookDTO::getId));
+            return Optional.of(output);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /** Distinct authors of the given books, in order of first appearance; unknown ids are skipped. */
+    public Optional<List<AuthorDTO>> findAuthorsByBookIds(List<Long> bookIds) {
+        if (!loaded) {
+            return Optional.empty();
+        }
+        long stamp = lock.readLock();
+        try {
+            Map<Long, AuthorDTO> output = new LinkedHashMap<>();
+            for (Long bookId : bookIds) {
+                int book = books.index.get(bookId);
+                if (book == LongIntHashMap.MISSING) {
+                    continue;
+                }
+                long authorId = books.authorIds[book];
+                int author = authors.index.get(authorId);
+                if (author != LongIntHashMap.MISSING && !output.containsKey(authorId)) {
+                    output.put(authorId, toAuthorDTO(author));
+                }
+            }
+            return Optional.of(new ArrayList<>(output.values()));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public Optional<Double> findRating(Long id) {
+        if (!loaded) {
+            return Optional.empty();
+        }
+        long stamp = lock.readLock();
+        try {
+            int book = books.index.get(id);
+            if (book == LongIntHashMap.MISSING || books.epochDays[book] == NO_DATE) {
+                return Optional.empty();
+            }
+            int author = authors.index.get(books.authorIds[book]);
+            if (author == LongIntHashMap.MISSING) {
+                return Optional.empty();
+            }
+            return Optional.of(bookRatingCalculator.calculateRating(LocalDate.ofEpochDay(books.epochDays[book]),
+                    authors.followers[author]));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (!loaded) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            if (event.getEntityType() == EntityType.BOOK) {
+                if (event.getChangeType() == ChangeType.DELETED) {
+                    books.remove(event.getEntityId());
+                } else if (event.getPayload() instanceof BookDTO book && isNewer(books.index, books.updatedAt, book.getId(),
+                        book.getUpdatedAt())) {
+                    books.put(book.getId(), book.getTitle(), book.getIsbn(), book.getAuthorId(), epochDay(book.getPublicationDate()),
+                            book.getType(), micros(book.getUpdatedAt()));
+                }
+            } else if (event.getChangeType() == ChangeType.DELETED) {
+                authors.remove(event.getEntityId());
+            } else if (event.getPayload() instanceof AuthorDTO author && isNewer(authors.index, authors.updatedAt,
+                    author.getId(), author.getUpdatedAt())) {
+                authors.put(author.getId(), author.getName(), author.getAge(), author.getFollowersNumber(),
+                        micros(author.getUpdatedAt()));
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Re-reads books or authors another node changed: rows still in the database replace older
+     * local ones, rows gone from it are removed. The rows are read before the lock is taken.
+     */
+    public void refresh(EntityType entityType, Collection<Long> ids) {
+        if (!loaded || ids.isEmpty()) {
+            return;
+        }
+        List<Runnable> updates = new ArrayList<>();
+        Set<Long> missing = new HashSet<>(ids);
+        List<Long> all = List.copyOf(missing);
+        for (int from = 0; from < all.size(); from += REFRESH_CHUNK_SIZE) {
+            List<Long> chunk = all.subList(from, Math.min(all.size(), from + REFRESH_CHUNK_SIZE));
+            String in = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            if (entityType == EntityType.BOOK) {
+                jdbcTemplate.query("SELECT id, title, isbn, author_id, publication_date, type, updated_at FROM book WHERE id IN ("
+                        + in + ")", (RowCallbackHandler) rs -> {
+                    long id = rs.getLong(1);
+                    String title = rs.getString(2);
+                    String isbn = rs.getString(3);
+                    long authorId = rs.getLong(4);
+                    int epochDay = epochDay(rs.getObject(5, LocalDate.class));
+                    String type = rs.getString(6);
+                    long updatedMicros = micros(rs.getObject(7, OffsetDateTime.class));
+                    missing.remove(id);
+                    updates.add(() -> {
+                        if (isNewer(books.index, books.updatedAt, id, updatedMicros)) {
+                            books.put(id, title, isbn, authorId, epochDay, type, updatedMicros);
+                        }
+                    });
+                }, chunk.toArray());
+            } else {
+                jdbcTemplate.query("SELECT id, name, age, followers_number, updated_at FROM author WHERE id IN (" + in + ")",
+                        (RowCallbackHandler) rs -> {
+                    long id = rs.getLong(1);
+                    String name = rs.getString(2);
+                    int age = rs.getInt(3);
+                    int followersNumber = rs.getInt(4);
+                    long updatedMicros = micros(rs.getObject(5, OffsetDateTime.class));
+                    missing.remove(id);
+                    updates.add(() -> {
+                        if (isNewer(authors.index, authors.updatedAt, id, updatedMicros)) {
+                            authors.put(id, name, age, followersNumber, updatedMicros);
+                        }
+                    });
+                }, chunk.toArray());
+            }
+        }
+        Table table = entityType == EntityType.BOOK ? books : authors;
+        long stamp = lock.writeLock();
+        try {
+            updates.forEach(Runnable::run);
+            missing.forEach(table::remove);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Commit order and event order can differ between concurrent writers; never go back in time
+    private static boolean isNewer(LongIntHashMap index, long[] updatedAt, long id, Instant candidate) {
+        return isNewer(index, updatedAt, id, micros(candidate));
+    }
+
+    private static boolean isNewer(LongIntHashMap index, long[] updatedAt, long id, long candidateMicros) {
+        int row = index.get(id);
+        return row == LongIntHashMap.MISSING || candidateMicros >= updatedAt[row];
+    }
+
+    private BookDTO toBookDTO(int row) {
+        long authorId = books.authorIds[row];
+        int author = authors.index.get(authorId);
+        int epochDay = books.epochDays[row];
+        return new BookDTO(books.ids[row], books.titles[row], books.isbns[row], authorId,
+                author == LongIntHashMap.MISSING ? null : authors.names[author],
+                epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay),
+                books.types[row], instant(books.updatedAt[row]));
+    }
+
+    private AuthorDTO toAuthorDTO(int row) {
+        return new AuthorDTO(authors.ids[row], authors.names[row], authors.ages[row], authors.followers[row],
+                instant(authors.updatedAt[row]));
+    }
+
+    private void stream(String query, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(query,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(1000);
+            return statement;
+        }, handler);
+    }
+
+    private static int epochDay(LocalDate date) {
+        return date == null ? NO_DATE : (int) date.toEpochDay();
+    }
+
+    private static long micros(OffsetDateTime timestamp) {
+        return timestamp == null ? NO_TIMESTAMP : micros(timestamp.toInstant());
+    }
+
+    private static long micros(Instant instant) {
+        return instant == null ? NO_TIMESTAMP : ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+    }
+
+    private static Instant instant(long micros) {
+        return micros == NO_TIMESTAMP ? null : Instant.EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+
+    /**
+     * Rows of a column store. Removed rows are recycled through a free list, so the arrays
+     * only grow with the peak number of live rows.
+     */
+    private abstract static class Table {
+
+        final LongIntHashMap index;
+        long[] ids;
+        long[] updatedAt;
+        boolean[] live;
+        int[] free;
+        int freeCount;
+        int rows;
+
+        Table(int capacity) {
+            index = new LongIntHashMap(capacity);
+            resize(capacity);
+        }
+
+        int rowFor(long id) {
+            int row = index.get(id);
+            if (row != LongIntHashMap.MISSING) {
+                return row;
+            }
+            if (freeCount > 0) {
+                row = free[--freeCount];
+            } else {
+                if (rows == ids.length) {
+                    resize(ids.length * 2);
+                }
+                row = rows++;
+            }
+            index.put(id, row);
+            ids[row] = id;
+            live[row] = true;
+            return row;
+        }
+
+        void remove(long id) {
+            int row = index.remove(id);
+            if (row != LongIntHashMap.MISSING) {
+                live[row] = false;
+                clearRow(row);
+                if (freeCount == free.length) {
+                    free = Arrays.copyOf(free, Math.max(16, free.length * 2));
+                }
+                free[freeCount++] = row;
+            }
+        }
+
+        void clear() {
+            for (int row = 0; row < rows; row++) {
+                if (live[row]) {
+                    remove(ids[row]);
+                }
+            }
+            freeCount = 0;
+            rows = 0;
+        }
+
+        void resize(int capacity) {
+            ids = ids == null ? new long[capacity] : Arrays.copyOf(ids, capacity);
+            updatedAt = updatedAt == null ? new long[capacity] : Arrays.copyOf(updatedAt, capacity);
+            live = live == null ? new boolean[capacity] : Arrays.copyOf(live, capacity);
+            free = free == null ? new int[16] : free;
+        }
+
+        abstract void clearRow(int row);
+    }
+
+    private static final class Books extends Table {
+
+        private final Map<String, String> internedTypes = new HashMap<>();
+        long[] authorIds;
+        String[] titles;
+        String[] isbns;
+        String[] types;
+        int[] epochDays;
+
+        Books(int capacity) {
+            super(capacity);
+        }
+
+        void put(long id, String title, String isbn, long authorId, int epochDay, String type, long updatedMicros) {
+            int row = rowFor(id);
+            titles[row] = title;
+            isbns[row] = isbn;
+            authorIds[row] = authorId;
+            epochDays[row] = epochDay;
+            types[row] = type == null ? null : internedTypes.computeIfAbsent(type, key -> key);
+            updatedAt[row] = updatedMicros;
+        }
+
+        @Override
+        void resize(int capacity) {
+            super.resize(capacity);
+            authorIds = authorIds == null ? new long[capacity] : Arrays.copyOf(authorIds, capacity);
+            titles = titles == null ? new String[capacity] : Arrays.copyOf(titles, capacity);
+            isbns = isbns == null ? new String[capacity] : Arrays.copyOf(isbns, capacity);
+            types = types == null ? new String[capacity] : Arrays.copyOf(types, capacity);
+            epochDays = epochDays == null ? new int[capacity] : Arrays.copyOf(epochDays, capacity);
+        }
+
+        @Override
+        void clearRow(int row) {
+            titles[row] = null;
+            isbns[row] = null;
+            types[row] = null;
+        }
+    }
+
+    private static final class Authors extends Table {
+
+        String[] names;
+        int[] ages;
+        int[] followers;
+
+        Authors(int capacity) {
+            super(capacity);
+        }
+
+        void put(long id, String name, int age, int followersNumber, long updatedMicros) {
+            int row = rowFor(id);
+            names[row] = name;
+            ages[row] = age;
+            followers[row] = followersNumber;
+            updatedAt[row] = updatedMicros;
+        }
+
+        @Override
+        void resize(int capacity) {
+            super.resize(capacity);
+            names = names == null ? new String[capacity] : Arrays.copyOf(names, capacity);
+            ages = ages == null ? new int[capacity] : Arrays.copyOf(ages, capacity);
+            followers = followers == null ? new int[capacity] : Arrays.copyOf(followers, capacity);
+        }
+
+        @Override
+        void clearRow(int row) {
+            names[row] = null;
+        }
+    }
+}
@@ -0,0 +1,454 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.dto.BookDTO;
+import com.api.bookmanagement.event.EntityChangedEvent;
+import com.api.bookmanagement.event.EntityChangedEvent.EntityType;
+import com.api.bookmanagement.util.BookRatingCalculator;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary snapshot of the catalog, written periodically and memory-mapped back at startup so the
+ * first requests after a restart are served without touching the database.
+ * <p>
+ * Layout: a fixed header, author records sorted by id, book records sorted by id, then a pool of
+ * length-prefixed UTF-8 strings referenced by offset. The header carries a CRC32C of everything
+ * after it and a version stamp of the database (row counts, latest modification times and latest
+ * tombstone). A snapshot whose checksum or stamp does not match is ignored.
+ * <p>
+ * Once loaded, every book or author written afterwards is served from the database again; past
+ * {@code catalog.snapshot.max-invalidations} writes the mapped view is dropped altogether.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogSnapshotService {
+
+    private static final int MAGIC = 0x424b534e;
+    private static final int FORMAT_VERSION = 2;
+    private static final int STAMP_OFFSET = 16;
+    private static final int STAMP_LENGTH = 5;
+    private static final int COUNTS_OFFSET = STAMP_OFFSET + STAMP_LENGTH * Long.BYTES;
+    private static final int CHECKSUM_OFFSET = COUNTS_OFFSET + 2 * Integer.BYTES;
+    private static final int HEADER_SIZE = CHECKSUM_OFFSET + Long.BYTES;
+    // id, name, age, followers, updatedAt
+    private static final int AUTHOR_RECORD_SIZE = 8 + 4 + 4 + 4 + 8;
+    // id, authorId, title, type, publicationDate, updatedAt, isbn
+    private static final int BOOK_RECORD_SIZE = 8 + 8 + 4 + 4 + 4 + 8 + 4;
+    private static final int NO_STRING = -1;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private static final String STAMP_QUERY = "SELECT (SELECT COUNT(*) FROM book), (SELECT COUNT(*) FROM author), "
+            + "(SELECT MAX(updated_at) FROM book), (SELECT MAX(updated_at) FROM author), (SELECT MAX(id) FROM tombstone)";
+
+    private static final String AUTHORS_QUERY = "SELECT id, name, age, followers_number, updated_at FROM author ORDER BY id";
+
+    private static final String BOOKS_QUERY =
+            "SELECT id, author_id, title, type, publication_date, updated_at, isbn FROM book ORDER BY id";
+
+    @FunctionalInterface
+    public interface BookRecordConsumer {
+        void accept(String type, long authorId, LocalDate publicationDate, int authorFollowers);
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final BookRatingCalculator bookRatingCalculator;
+
+    @Value("${catalog.snapshot.enabled}")
+    private boolean enabled;
+
+    @Value("${catalog.snapshot.path}")
+    private Path path;
+
+    @Value("${catalog.snapshot.max-invalidations}")
+    private int maxInvalidations;
+
+    private final Set<Long> changedBooks = ConcurrentHashMap.newKeySet();
+
+    private final Set<Long> changedAuthors = ConcurrentHashMap.newKeySet();
+
+    private volatile Snapshot snapshot;
+
+    @PostConstruct
+    void load() {
+        snapshot = null;
+        changedBooks.clear();
+        changedAuthors.clear();
+        if (!enabled || !Files.isRegularFile(path)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+                log.warn("Ignoring catalog snapshot {}: unknown format", path);
+                return;
+            }
+            CRC32C checksum = new CRC32C();
+            checksum.update(buffer.slice(HEADER_SIZE, buffer.limit() - HEADER_SIZE));
+            if (checksum.getValue() != buffer.getLong(CHECKSUM_OFFSET)) {
+                log.warn("Ignoring catalog snapshot {}: checksum mismatch", path);
+                return;
+            }
+            long[] stamp = new long[STAMP_LENGTH];
+            for (int i = 0; i < STAMP_LENGTH; i++) {
+                stamp[i] = buffer.getLong(STAMP_OFFSET + i * Long.BYTES);
+            }
+            if (!Arrays.equals(stamp, readStamp())) {
+                log.info("Ignoring catalog snapshot {}: database changed since it was written", path);
+                return;
+            }
+            snapshot = new Snapshot(buffer, buffer.getInt(COUNTS_OFFSET), buffer.getInt(COUNTS_OFFSET + Integer.BYTES));
+            log.info("Loaded catalog snapshot {} with {} books in {} ms", path, snapshot.bookCount,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring catalog snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    public boolean isLoaded() {
+        return snapshot != null;
+    }
+
+    public Optional<BookDTO> findBook(Long id) {
+        Snapshot current = snapshot;
+        if (current == null || changedBooks.contains(id)) {
+            return Optional.empty();
+        }
+        int book = current.findBook(id);
+        if (book < 0 || changedAuthors.contains(current.bookAuthorId(book))) {
+            return Optional.empty();
+        }
+        return Optional.of(current.toBookDTO(book));
+    }
+
+    public Optional<Double> findRating(Long id) {
+        Snapshot current = snapshot;
+        if (current == null || changedBooks.contains(id)) {
+            return Optional.empty();
+        }
+        int book = current.findBook(id);
+        if (book < 0 || changedAuthors.contains(current.bookAuthorId(book))) {
+            return Optional.empty();
+        }
+        LocalDate publicationDate = current.bookPublicationDate(book);
+        int author = current.findAuthor(current.bookAuthorId(book));
+        if (publicationDate == null || author < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(bookRatingCalculator.calculateRating(publicationDate, current.authorFollowers(author)));
+    }
+
+    /** Walks every book of the loaded snapshot; only meaningful before the first write. */
+    public void forEachBook(BookRecordConsumer consumer) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        for (int book = 0; book < current.bookCount; book++) {
+            long authorId = current.bookAuthorId(book);
+            int author = current.findAuthor(authorId);
+            consumer.accept(current.bookType(book), authorId, current.bookPublicationDate(book),
+                    author < 0 ? 0 : current.authorFollowers(author));
+        }
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        invalidate(event.getEntityType(), event.getEntityId());
+    }
+
+    /** Serves the book or author from the database from now on; without an id, drops the mapped view. */
+    public void invalidate(EntityType entityType, Long id) {
+        if (snapshot == null) {
+            return;
+        }
+        if (id == null) {
+            log.info("Dropping catalog snapshot view after a catalog-wide change");
+            snapshot = null;
+            return;
+        }
+        (entityType == EntityType.BOOK ? changedBooks : changedAuthors).add(id);
+        if (changedBooks.size() + changedAuthors.size() > maxInvalidations) {
+            log.info("Dropping catalog snapshot view after {} writes", maxInvalidations);
+            snapshot = null;
+        }
+    }
+
+    @Scheduled(initialDelayString = "${catalog.snapshot.interval-ms}", fixedDelayString = "${catalog.snapshot.interval-ms}")
+    public void scheduledWrite() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            writeSnapshot();
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to write catalog snapshot {}", path, e);
+        }
+    }
+
+    public synchronized void writeSnapshot() throws IOException {
+        long start = System.nanoTime();
+        // Taken before reading rows: any write racing with the dump changes the database stamp
+        long[] stamp = readStamp();
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        StringPool strings = new StringPool();
+        CRC32C checksum = new CRC32C();
+        int[] counts = new int[2];
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            RecordWriter records = new RecordWriter(channel, checksum);
+            channel.position(HEADER_SIZE);
+            stream(AUTHORS_QUERY, rs -> {
+                records.reserve(AUTHOR_RECORD_SIZE)
+                        .putLong(rs.getLong(1))
+                        .putInt(strings.offset(rs.getString(2)))
+                        .putInt(rs.getInt(3))
+                        .putInt(rs.getInt(4))
+                        .putLong(micros(rs.getObject(5, OffsetDateTime.class)));
+                counts[0]++;
+            });
+            stream(BOOKS_QUERY, rs -> {
+                LocalDate publicationDate = rs.getObject(5, LocalDate.class);
+                records.reserve(BOOK_RECORD_SIZE)
+                        .putLong(rs.getLong(1))
+                        .putLong(rs.getLong(2))
+                        .putInt(strings.offset(rs.getString(3)))
+                        .putInt(strings.offset(rs.getString(4)))
+                        .putInt(publicationDate == null ? NO_DATE : (int) publicationDate.toEpochDay())
+                        .putLong(micros(rs.getObject(6, OffsetDateTime.class)))
+                        .putInt(strings.offset(rs.getString(7)));
+                counts[1]++;
+            });
+            records.write(strings.bytes());
+            records.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(System.currentTimeMillis());
+            for (long value : stamp) {
+                header.putLong(value);
+            }
+            header.putInt(counts[0]).putInt(counts[1]).putLong(checksum.getValue()).flip();
+            channel.write(header, 0);
+            channel.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Wrote catalog snapshot {} with {} authors and {} books in {} ms", path, counts[0], counts[1],
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private long[] readStamp() {
+        return jdbcTemplate.queryForObject(STAMP_QUERY, (rs, row) -> new long[]{
+                rs.getLong(1),
+                rs.getLong(2),
+                micros(rs.getObject(3, OffsetDateTime.class)),
+                micros(rs.getObject(4, OffsetDateTime.class)),
+                rs.getLong(5)});
+    }
+
+    private void stream(String query, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(query,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(1000);
+            return statement;
+        }, handler);
+    }
+
+    private static long micros(OffsetDateTime timestamp) {
+        return timestamp == null ? NO_TIMESTAMP : ChronoUnit.MICROS.between(Instant.EPOCH, timestamp.toInstant());
+    }
+
+    private static Instant instant(long micros) {
+        return micros == NO_TIMESTAMP ? null : Instant.EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+
+    /**
+     * Read-only view over a mapped snapshot. Records are fixed width, so lookups are a binary
+     * search on the id column and nothing is decoded until a match is found.
+     */
+    private static final class Snapshot {
+
+        private final ByteBuffer buffer;
+        private final int authorCount;
+        private final int bookCount;
+        private final int booksOffset;
+        private final int stringsOffset;
+
+        private Snapshot(ByteBuffer buffer, int authorCount, int bookCount) {
+            this.buffer = buffer;
+            this.authorCount = authorCount;
+            this.bookCount = bookCount;
+            this.booksOffset = HEADER_SIZE + authorCount * AUTHOR_RECORD_SIZE;
+            this.stringsOffset = booksOffset + bookCount * BOOK_RECORD_SIZE;
+        }
+
+        int findAuthor(long id) {
+            return search(HEADER_SIZE, AUTHOR_RECORD_SIZE, authorCount, id);
+        }
+
+        int findBook(long id) {
+            return search(booksOffset, BOOK_RECORD_SIZE, bookCount, id);
+        }
+
+        int authorFollowers(int author) {
+            return buffer.getInt(HEADER_SIZE + author * AUTHOR_RECORD_SIZE + 16);
+        }
+
+        long bookAuthorId(int book) {
+            return buffer.getLong(booksOffset + book * BOOK_RECORD_SIZE + 8);
+        }
+
+        String bookType(int book) {
+            return string(buffer.getInt(booksOffset + book * BOOK_RECORD_SIZE + 20));
+        }
+
+        LocalDate bookPublicationDate(int book) {
+            int epochDay = buffer.getInt(booksOffset + book * BOOK_RECORD_SIZE + 24);
+            return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+        }
+
+        BookDTO toBookDTO(int book) {
+            int record = booksOffset + book * BOOK_RECORD_SIZE;
+            long authorId = buffer.getLong(record + 8);
+            int author = findAuthor(authorId);
+            String authorName = author < 0 ? null : string(buffer.getInt(HEADER_SIZE + author * AUTHOR_RECORD_SIZE + 8));
+            return new BookDTO(buffer.getLong(record), string(buffer.getInt(record + 16)), string(buffer.getInt(record + 36)),
+                    authorId, authorName, bookPublicationDate(book), bookType(book), instant(buffer.getLong(record + 28)));
+        }
+
+        private int search(int offset, int recordSize, int count, long id) {
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                long candidate = buffer.getLong(offset + middle * recordSize);
+                if (candidate < id) {
+                    low = middle + 1;
+                } else if (candidate > id) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -1;
+        }
+
+        private String string(int offset) {
+            if (offset == NO_STRING) {
+                return null;
+            }
+            int position = stringsOffset + offset;
+            int length = buffer.getInt(position);
+            byte[] bytes = new byte[length];
+            buffer.get(position + Integer.BYTES, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    /** Deduplicated, length-prefixed UTF-8 strings, referenced by their offset in the pool. */
+    private static final class StringPool {
+
+        private final Map<String, Integer> offsets = new HashMap<>();
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        int offset(String value) {
+            if (value == null) {
+                return NO_STRING;
+            }
+            return offsets.computeIfAbsent(value, key -> {
+                int offset = bytes.size();
+                byte[] encoded = key.getBytes(StandardCharsets.UTF_8);
+                bytes.writeBytes(ByteBuffer.allocate(Integer.BYTES).putInt(encoded.length).array());
+                bytes.writeBytes(encoded);
+                return offset;
+            });
+        }
+
+        byte[] bytes() {
+            return bytes.toByteArray();
+        }
+    }
+
+    /** Buffered sequential writer that feeds everything it writes into the checksum. */
+    private static final class RecordWriter {
+
+        private final FileChannel channel;
+        private final CRC32C checksum;
+        private final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+
+        private RecordWriter(FileChannel channel, CRC32C checksum) {
+            this.channel = channel;
+            this.checksum = checksum;
+        }
+
+        ByteBuffer reserve(int size) {
+            if (buffer.remaining() < size) {
+                flush();
+            }
+            return buffer;
+        }
+
+        void write(byte[] bytes) {
+            flush();
+            ByteBuffer data = ByteBuffer.wrap(bytes);
+            checksum.update(data.duplicate());
+            drain(data);
+        }
+
+        void flush() {
+            buffer.flip();
+            checksum.update(buffer.duplicate());
+            drain(buffer);
+            buffer.clear();
+        }
+
+        private void drain(ByteBuffer data) {
+            try {
+                while (data.hasRemaining()) {
+                    channel.write(data);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.config.ShardRouter;
+import com.api.bookmanagement.dto.CatalogStatsDTO;
+import com.api.bookmanagement.event.BookCountsChangedEvent;
+import com.api.bookmanagement.repository.BookRepository;
+import com.api.bookmanagement.util.BookRatingCalculator;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory catalog aggregates. They are loaded with GROUP BY queries at startup, summed over
+ * the shards when the catalog is sharded, and then kept up to date by the
+ * {@link BookCountsChangedEvent}s of every write, once its transaction has committed, so a
+ * rolled back write never shows in the counters. Counters are {@link LongAdder}s in concurrent
+ * maps, so writers only share the read side of a lock, which a rebuild takes exclusively for a
+ * moment at its start and at its end.
+ * <p>
+ * Books without a type or publication date are counted in the total only. Ratings depend on
+ * the author's followers, so rating buckets drift when an author is updated; call
+ * {@link #reconcile()} to rebuild everything from the database. The changes applied while the
+ * rebuild runs its queries are replayed into the rebuilt counters before they replace the
+ * others. When a valid catalog snapshot was loaded at startup the counters are built from it
+ * instead of the GROUP BY queries.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogStatsService {
+
+    private static final int MAX_RATING_BUCKET = 9;
+
+    private final BookRepository bookRepository;
+
+    private final ShardRouter shardRouter;
+
+    private final BookRatingCalculator bookRatingCalculator;
+
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    private volatile Counters counters = new Counters();
+
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    // Changes applied since the running rebuild started, null when none runs
+    private List<BookCountsChangedEvent> duringRebuild;
+
+    @PostConstruct
+    void init() {
+        if (!catalogSnapshotService.isLoaded()) {
+            reconcile();
+            return;
+        }
+        Counters loaded = new Counters();
+        catalogSnapshotService.forEachBook((type, authorId, publicationDate, authorFollowers) ->
+                apply(loaded, type, authorId, publicationDate, authorFollowers, 1));
+        counters = loaded;
+        log.info("Catalog statistics loaded from snapshot, {} books", loaded.total.sum());
+    }
+
+    public synchronized void reconcile() {
+        log.info("Start service: Rebuilding catalog statistics");
+        swapLock.writeLock().lock();
+        try {
+            duringRebuild = new ArrayList<>();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        Counters rebuilt = new Counters();
+        for (Object[] row : shardRouter.onAllShards(bookRepository::countByType, null)) {
+            long count = (Long) row[1];
+            rebuilt.total.add(count);
+            add(rebuilt.byType, (String) row[0], count);
+        }
+        for (Object[] row : shardRouter.onAllShards(bookRepository::countByAuthor, null)) {
+            add(rebuilt.byAuthor, (Long) row[0], (Long) row[1]);
+        }
+        for (Object[] row : shardRouter.onAllShards(bookRepository::countByPublicationYear, null)) {
+            add(rebuilt.byYear, (Integer) row[0], (Long) row[1]);
+        }
+        for (Object[] row : shardRouter.onAllShards(bookRepository::countByPublicationDateAndAuthorFollowers, null)) {
+            LocalDate publicationDate = (LocalDate) row[0];
+            if (publicationDate != null) {
+                add(rebuilt.byRating, ratingBucket(publicationDate, (Integer) row[1]), (Long) row[2]);
+            }
+        }
+        swapLock.writeLock().lock();
+        try {
+            duringRebuild.forEach(event -> apply(rebuilt, event));
+            duringRebuild = null;
+            counters = rebuilt;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        log.info("End service: Rebuilding catalog statistics, {} books", rebuilt.total.sum());
+    }
+
+    public CatalogStatsDTO getStats() {
+        Counters current = counters;
+        return new CatalogStatsDTO(current.total.sum(),
+                snapshot(current.byType),
+                snapshot(current.byAuthor),
+                snapshot(current.byYear),
+                snapshot(current.byRating));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookCountsChanged(BookCountsChangedEvent event) {
+        swapLock.readLock().lock();
+        try {
+            apply(counters, event);
+            if (duringRebuild != null) {
+                synchronized (duringRebuild) {
+                    duringRebuild.add(event);
+                }
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private void apply(Counters target, BookCountsChangedEvent event) {
+        for (BookCountsChangedEvent.Row row : event.getRows()) {
+            apply(target, row.type(), row.authorId(), row.publicationDate(), row.authorFollowers(), row.delta());
+        }
+    }
+
+    private void apply(Counters target, String type, Long authorId, LocalDate publicationDate,
+                       Integer authorFollowers, long delta) {
+        target.total.add(delta);
+        add(target.byType, type, delta);
+        add(target.byAuthor, authorId, delta);
+        if (publicationDate != null) {
+            add(target.byYear, publicationDate.getYear(), delta);
+            if (authorFollowers != null) {
+                add(target.byRating, ratingBucket(publicationDate, authorFollowers), delta);
+            }
+        }
+    }
+
+    private int ratingBucket(LocalDate publicationDate, int authorFollowers) {
+        int bucket = (int) bookRatingCalculator.calculateRating(publicationDate, authorFollowers);
+        return Math.min(bucket, MAX_RATING_BUCKET);
+    }
+
+    private static <K> void add(Map<K, LongAdder> counters, K key, long delta) {
+        if (key != null) {
+            counters.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+        }
+    }
+
+    private static <K> Map<K, Long> snapshot(Map<K, LongAdder> counters) {
+        Map<K, Long> output = new TreeMap<>();
+        counters.forEach((key, counter) -> {
+            long value = counter.sum();
+            if (value > 0) {
+                output.put(key, value);
+            }
+        });
+        return output;
+    }
+
+    private static final class Counters {
+        private final LongAdder total = new LongAdder();
+        private final Map<String, LongAdder> byType = new ConcurrentHashMap<>();
+        private final Map<Long, LongAdder> byAuthor = new ConcurrentHashMap<>();
+        private final Map<Integer, LongAdder> byYear = new ConcurrentHashMap<>();
+        private final Map<Integer, LongAdder> byRating = new ConcurrentHashMap<>();
+    }
+}
@@ -0,0 +1,432 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.config.Messages;
+import com.api.bookmanagement.dto.CatalogRowDTO;
+import com.api.bookmanagement.dto.ImportReportDTO;
+import com.api.bookmanagement.dto.ImportReportDTO.ImportErrorDTO;
+import com.api.bookmanagement.exception.FunctionalException;
+import com.api.bookmanagement.util.CsvSupport;
+import com.api.bookmanagement.util.GlobalConstants;
+import com.api.bookmanagement.util.Isbns;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Streams the catalog out of and into the database without materializing it.
+ * <p>
+ * Export reads a forward-only JDBC cursor and writes each row as soon as it is read. Import parses
+ * the upload one record at a time and inserts books with JDBC batches, one transaction per batch;
+ * a failing batch is rolled back and reported row by row. Imported books get new ids; a row whose
+ * ISBN another book already has is rejected. Authors are matched by id, then by name, and created
+ * when unknown. Statistics and the read model are
+ * rebuilt and the second-level cache is cleared once at the end.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogTransferService {
+
+    public static final List<String> COLUMNS = List.of("book_id", "title", "isbn", "publication_date", "type",
+            "author_id", "author_name", "author_age", "author_followers_number");
+
+    private static final String EXPORT_QUERY = "SELECT b.id, b.title, b.isbn, b.publication_date, b.type, "
+            + "a.id, a.name, a.age, a.followers_number FROM book b JOIN author a ON a.id = b.author_id ORDER BY b.id";
+
+    private static final String INSERT_BOOK =
+            "INSERT INTO book (title, isbn, author_id, publication_date, type, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_AUTHOR =
+            "INSERT INTO author (name, age, followers_number, updated_at) VALUES (?, ?, ?, ?)";
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum Format {
+        CSV("text/csv"),
+        NDJSON("application/x-ndjson");
+
+        private final String mediaType;
+
+        public String extension() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final CatalogStatsService catalogStatsService;
+
+    private final CatalogReadModel catalogReadModel;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final Messages messages;
+
+    private final CacheInvalidationService cacheInvalidationService;
+
+    @Value("${catalog.export.fetch-size}")
+    private int fetchSize;
+
+    @Value("${catalog.import.batch-size}")
+    private int batchSize;
+
+    @Value("${catalog.import.max-reported-errors}")
+    private int maxReportedErrors;
+
+    public Format format(String format) {
+        for (Format candidate : Format.values()) {
+            if (candidate.name().equalsIgnoreCase(format)) {
+                return candidate;
+            }
+        }
+        throw new FunctionalException(messages.get(GlobalConstants.ERROR_TRANSFER_UNSUPPORTED_FORMAT, format));
+    }
+
+    public void exportCatalog(Format format, OutputStream out) throws IOException {
+        log.info("Start service: Exporting catalog as {}", format);
+        if (format == Format.CSV) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            writer.write(String.join(",", COLUMNS));
+            writer.write('\n');
+            StringBuilder line = new StringBuilder(256);
+            streamRows(row -> {
+                line.setLength(0);
+                CsvSupport.appendField(line, row.getBookId());
+                for (Object value : new Object[]{row.getTitle(), row.getIsbn(), row.getPublicationDate(), row.getType(),
+                        row.getAuthorId(), row.getAuthorName(), row.getAuthorAge(), row.getAuthorFollowersNumber()}) {
+                    line.append(',');
+                    CsvSupport.appendField(line, value);
+                }
+                line.append('\n');
+                writer.append(line);
+            });
+            writer.flush();
+        } else {
+            ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .setRootValueSeparator(null);
+            streamRows(row -> {
+                writer.writeValue(generator, row);
+                generator.writeRaw('\n');
+            });
+            generator.close();
+        }
+        log.info("End service: Exporting catalog as {}", format);
+    }
+
+    public ImportReportDTO importCatalog(Format format, InputStream in) throws IOException {
+        log.info("Start service: Importing catalog as {}", format);
+        ImportRun run = new ImportRun();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+        if (format == Format.CSV) {
+            importCsv(new CsvSupport.RecordReader(reader), run);
+        } else {
+            importNdjson(reader, run);
+        }
+        run.flush();
+        if (run.report.getImported() > 0) {
+            // Rows went in through JDBC, which Hibernate cannot see: cached collections and queries are stale
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+            catalogStatsService.reconcile();
+            catalogReadModel.reload();
+            cacheInvalidationService.recordCatalogChange();
+        }
+        log.info("End service: Importing catalog as {}, {} imported, {} failed", format,
+                run.report.getImported(), run.report.getFailed());
+        return run.report;
+    }
+
+    private void streamRows(RowWriter rowWriter) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(EXPORT_QUERY,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            try {
+                rowWriter.write(new CatalogRowDTO(rs.getLong(1), rs.getString(2), rs.getString(3),
+                        rs.getObject(4, LocalDate.class), rs.getString(5), rs.getLong(6), rs.getString(7),
+                        rs.getInt(8), rs.getInt(9)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void importCsv(CsvSupport.RecordReader reader, ImportRun run) throws IOException {
+        List<String> header = reader.next();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        List<String> fields;
+        while ((fields = reader.next()) != null) {
+            long line = reader.getRecordLine();
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+            try {
+                CatalogRowDTO row = new CatalogRowDTO(null,
+                        field(fields, columns, "title"),
+                        field(fields, columns, "isbn"),
+                        parse(field(fields, columns, "publication_date"), LocalDate::parse),
+                        field(fields, columns, "type"),
+                        parse(field(fields, columns, "author_id"), Long::valueOf),
+                        field(fields, columns, "author_name"),
+                        parse(field(fields, columns, "author_age"), Integer::valueOf),
+                        parse(field(fields, columns, "author_followers_number"), Integer::valueOf));
+                run.add(line, row);
+            } catch (RuntimeException e) {
+                run.fail(line, e.getMessage());
+            }
+        }
+    }
+
+    private void importNdjson(BufferedReader reader, ImportRun run) throws IOException {
+        ObjectReader rowReader = objectMapper.readerFor(CatalogRowDTO.class);
+        String text;
+        long line = 0;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            try {
+                run.add(line, rowReader.readValue(text));
+            } catch (IOException e) {
+                run.fail(line, e instanceof JsonProcessingException json ? json.getOriginalMessage() : e.getMessage());
+            }
+        }
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+            return null;
+        }
+        return fields.get(index);
+    }
+
+    private static <T> T parse(String value, Function<String, T> parser) {
+        return value == null ? null : parser.apply(value.trim());
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(CatalogRowDTO row) throws IOException;
+    }
+
+    private record PendingRow(long line, CatalogRowDTO row) {
+    }
+
+    /**
+     * State of one import: the pending batch, the report and the authors resolved so far.
+     */
+    private class ImportRun {
+
+        private final ImportReportDTO report = new ImportReportDTO();
+        private final List<PendingRow> pending = new ArrayList<>();
+        private final Map<Long, Long> authorIds = new HashMap<>();
+        private final Map<String, Long> authorNames = new HashMap<>();
+
+        void add(long line, CatalogRowDTO row) {
+            if (row.getTitle() == null || row.getTitle().isBlank()) {
+                fail(line, "Missing title");
+                return;
+            }
+            if (row.getAuthorId() == null && row.getAuthorName() == null) {
+                fail(line, "Missing author_id and author_name");
+                return;
+            }
+            row.setIsbn(Isbns.normalize(row.getIsbn()));
+            pending.add(new PendingRow(line, row));
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void fail(long line, String message) {
+            report.setFailed(report.getFailed() + 1);
+            if (report.getErrors().size() < maxReportedErrors) {
+                report.getErrors().add(new ImportErrorDTO(line, message));
+            }
+        }
+
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            Map<Long, Long> newAuthorIds = new HashMap<>();
+            Map<String, Long> newAuthorNames = new HashMap<>();
+            List<PendingRow> unresolved = new ArrayList<>();
+            List<PendingRow> duplicates = new ArrayList<>();
+            try {
+                Integer inserted = transactionTemplate.execute(status -> {
+                    OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+                    resolveAuthors(now, newAuthorIds, newAuthorNames);
+                    Set<String> isbns = takenIsbns();
+                    List<Object[]> books = new ArrayList<>(pending.size());
+                    for (PendingRow pendingRow : pending) {
+                        CatalogRowDTO row = pendingRow.row();
+                        if (row.getIsbn() != null && !isbns.add(row.getIsbn())) {
+                            duplicates.add(pendingRow);
+                            continue;
+                        }
+                        Long authorId = authorOf(row, newAuthorIds, newAuthorNames);
+                        if (authorId == null) {
+                            unresolved.add(pendingRow);
+                            continue;
+                        }
+                        books.add(new Object[]{row.getTitle(), row.getIsbn(), authorId, row.getPublicationDate(),
+                                row.getType(), now});
+                    }
+                    jdbcTemplate.batchUpdate(INSERT_BOOK, books);
+                    return books.size();
+                });
+                authorIds.putAll(newAuthorIds);
+                authorNames.putAll(newAuthorNames);
+                report.setImported(report.getImported() + (inserted == null ? 0 : inserted));
+                duplicates.forEach(row -> fail(row.line(), "Duplicate ISBN " + row.row().getIsbn()));
+                unresolved.forEach(row -> fail(row.line(), "Unknown author id " + row.row().getAuthorId()));
+            } catch (DataAccessException e) {
+                log.warn("Import batch rolled back: {}", e.getMostSpecificCause().getMessage());
+                pending.forEach(row -> fail(row.line(), e.getMostSpecificCause().getMessage()));
+            }
+            pending.clear();
+        }
+
+        /**
+         * Set-based: looks up the unknown author ids of the batch in one query, then the names of
+         * the rows still unresolved in another, and inserts the missing authors in one JDBC batch
+         * read back by name, whatever the number of authors.
+         */
+        private void resolveAuthors(OffsetDateTime now, Map<Long, Long> newAuthorIds, Map<String, Long> newAuthorNames) {
+            Set<Long> ids = new HashSet<>();
+            for (PendingRow pendingRow : pending) {
+                Long id = pendingRow.row().getAuthorId();
+                if (id != null && !authorIds.containsKey(id)) {
+                    ids.add(id);
+                }
+            }
+            if (!ids.isEmpty()) {
+                namedParameterJdbcTemplate.queryForList("SELECT id FROM author WHERE id IN (:ids)", Map.of("ids", ids), Long.class)
+                        .forEach(id -> newAuthorIds.put(id, id));
+            }
+            Map<String, CatalogRowDTO> names = new LinkedHashMap<>();
+            for (PendingRow pendingRow : pending) {
+                CatalogRowDTO row = pendingRow.row();
+                Long id = row.getAuthorId();
+                boolean knownId = id != null && (authorIds.containsKey(id) || newAuthorIds.containsKey(id));
+                if (!knownId && row.getAuthorName() != null && !authorNames.containsKey(row.getAuthorName())) {
+                    names.putIfAbsent(row.getAuthorName(), row);
+                }
+            }
+            if (names.isEmpty()) {
+                return;
+            }
+            findAuthorsByName(names.keySet(), newAuthorNames);
+            List<CatalogRowDTO> missing = names.values().stream()
+                    .filter(row -> !newAuthorNames.containsKey(row.getAuthorName()))
+                    .toList();
+            if (!missing.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_AUTHOR, missing.stream()
+                        .map(row -> new Object[]{row.getAuthorName(),
+                                row.getAuthorAge() == null ? 0 : row.getAuthorAge(),
+                                row.getAuthorFollowersNumber() == null ? 0 : row.getAuthorFollowersNumber(), now})
+                        .toList());
+                findAuthorsByName(missing.stream().map(CatalogRowDTO::getAuthorName).toList(), newAuthorNames);
+            }
+        }
+
+        // ISBNs of the batch some book already has, in one query
+        private Set<String> takenIsbns() {
+            Set<String> isbns = new HashSet<>();
+            for (PendingRow pendingRow : pending) {
+                if (pendingRow.row().getIsbn() != null) {
+                    isbns.add(pendingRow.row().getIsbn());
+                }
+            }
+            if (isbns.isEmpty()) {
+                return isbns;
+            }
+            return new HashSet<>(namedParameterJdbcTemplate.queryForList("SELECT isbn FROM book WHERE isbn IN (:isbns)",
+                    Map.of("isbns", isbns), String.class));
+        }
+
+        // Several authors may share a name: the oldest one wins
+        private void findAuthorsByName(Collection<String> names, Map<String, Long> newAuthorNames) {
+            namedParameterJdbcTemplate.query("SELECT id, name FROM author WHERE name IN (:names) ORDER BY id",
+                    Map.of("names", names), (RowCallbackHandler) rs -> newAuthorNames.putIfAbsent(rs.getString(2), rs.getLong(1)));
+        }
+
+        private Long authorOf(CatalogRowDTO row, Map<Long, Long> newAuthorIds, Map<String, Long> newAuthorNames) {
+            Long id = row.getAuthorId();
+            if (id != null) {
+                Long known = authorIds.containsKey(id) ? authorIds.get(id) : newAuthorIds.get(id);
+                if (known != null) {
+                    return known;
+                }
+            }
+            String name = row.getAuthorName();
+            if (name == null) {
+                return null;
+            }
+            Long known = authorNames.containsKey(name) ? authorNames.get(name) : newAuthorNames.get(name);
+            if (id != null && known != null) {
+                newAuthorIds.put(id, known);
+            }
+            return known;
+        }
+    }
+}
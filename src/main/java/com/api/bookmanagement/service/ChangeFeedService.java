@@ -0,0 +1,162 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.dto.ChangeEventDTO;
+import com.api.bookmanagement.event.EntityChangedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Server-sent change feed. Every committed {@link EntityChangedEvent} gets the next sequence
+ * number and is kept in a bounded ring buffer, so reconnecting clients can resume from their
+ * {@code Last-Event-ID}. Sequences start from the startup time in microseconds, so they keep
+ * growing across restarts. A client whose {@code Last-Event-ID} is older than the ring buffer,
+ * or ahead of the current sequence, first gets a {@value #RESYNC} event carrying the current
+ * sequence: the changes it missed are lost, and it must reload what it tracks before applying
+ * the events that follow.
+ * <p>
+ * Writers only enqueue into each subscriber's bounded queue; the sends happen on the change
+ * feed executor. A subscriber whose queue is full is disconnected instead of slowing writers
+ * down, and can reconnect to catch up from the ring buffer.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChangeFeedService {
+
+    public static final String RESYNC = "RESYNC";
+
+    @Qualifier("changeFeedExecutor")
+    private final Executor changeFeedExecutor;
+
+    @Value("${changes.buffer-size}")
+    private int bufferSize;
+
+    @Value("${changes.subscriber-queue-size}")
+    private int subscriberQueueSize;
+
+    @Value("${changes.emitter-timeout-ms}")
+    private long emitterTimeoutMs;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private ChangeEventDTO[] buffer;
+
+    private long firstSequence;
+
+    private long lastSequence;
+
+    @PostConstruct
+    void init() {
+        buffer = new ChangeEventDTO[bufferSize];
+        firstSequence = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+        lastSequence = firstSequence;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        // Offers never block, so fanning out under the monitor is cheap and keeps every queue in sequence order
+        synchronized (this) {
+            ChangeEventDTO change = new ChangeEventDTO(++lastSequence, event.getEntityType(), event.getChangeType(),
+                    event.getEntityId(), event.getPayload());
+            buffer[(int) (change.getSequence() % bufferSize)] = change;
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(change);
+            }
+        }
+    }
+
+    public SseEmitter subscribe(Long lastEventId) {
+        return subscribe(lastEventId, new SseEmitter(emitterTimeoutMs));
+    }
+
+    SseEmitter subscribe(Long lastEventId, SseEmitter emitter) {
+        Subscriber subscriber;
+        synchronized (this) {
+            List<ChangeEventDTO> missed = lastEventId == null ? List.of() : eventsAfter(lastEventId);
+            subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(subscriberQueueSize + missed.size()));
+            missed.forEach(subscriber.queue::add);
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscriber.scheduleDrain();
+        log.info("Change feed subscriber connected, last event id: {}", lastEventId);
+        return emitter;
+    }
+
+    // Caller holds the monitor
+    private List<ChangeEventDTO> eventsAfter(long lastEventId) {
+        long oldest = Math.max(firstSequence + 1, lastSequence - bufferSize + 1);
+        if (lastEventId < oldest - 1 || lastEventId > lastSequence) {
+            log.info("Change feed cannot resume after event {}, kept events are {} to {}", lastEventId, oldest, lastSequence);
+            return List.of(new ChangeEventDTO(lastSequence, null, null, null, null));
+        }
+        List<ChangeEventDTO> output = new ArrayList<>();
+        for (long sequence = lastEventId + 1; sequence <= lastSequence; sequence++) {
+            output.add(buffer[(int) (sequence % bufferSize)]);
+        }
+        return output;
+    }
+
+    @RequiredArgsConstructor
+    private class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Queue<ChangeEventDTO> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        void offer(ChangeEventDTO change) {
+            if (queue.offer(change)) {
+                scheduleDrain();
+            } else if (subscribers.remove(this)) {
+                log.warn("Change feed subscriber too slow, disconnecting at sequence {}", change.getSequence());
+                changeFeedExecutor.execute(emitter::complete);
+            }
+        }
+
+        void scheduleDrain() {
+            if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+                changeFeedExecutor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                ChangeEventDTO change;
+                while ((change = queue.poll()) != null) {
+                    // Only resync events have no entity type
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(change.getSequence()))
+                            .name(change.getEntityType() == null ? RESYNC : change.getEntityType() + "_" + change.getChangeType())
+                            .data(change));
+                }
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            scheduleDrain();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.config.Messages;
+import com.api.bookmanagement.config.ShardRouter;
+import com.api.bookmanagement.exception.FunctionalException;
+import com.api.bookmanagement.repository.TombstoneRepository;
+import com.api.bookmanagement.util.GlobalConstants;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Bounds of the delta sync of {@link BookService} and {@link AuthorService}. The {@code updatedAt}
+ * and {@code deletedAt} timestamps are taken when a change is flushed, not when it commits, so a
+ * change can become visible behind a cursor a client has already paged past. Pages therefore stop
+ * {@code delta.safety-lag} before now, which must exceed the longest write transaction.
+ * <p>
+ * Tombstones older than {@code delta.tombstone-retention} are pruned. A client whose cursor is
+ * older would miss those deletions, so it is refused and has to sync again from the epoch.
+ */
+@Service
+@Slf4j
+public class DeltaSyncService {
+
+    private final TombstoneRepository tombstoneRepository;
+
+    private final ShardRouter shardRouter;
+
+    private final Messages messages;
+
+    private final TransactionTemplate transaction;
+
+    @Value("${delta.safety-lag}")
+    private Duration safetyLag;
+
+    @Value("${delta.tombstone-retention}")
+    private Duration tombstoneRetention;
+
+    public DeltaSyncService(TombstoneRepository tombstoneRepository, ShardRouter shardRouter, Messages messages,
+                            PlatformTransactionManager transactionManager) {
+        this.tombstoneRepository = tombstoneRepository;
+        this.shardRouter = shardRouter;
+        this.messages = messages;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /** Exclusive upper bound of the changes a page starting at {@code since} may return. */
+    public Instant until(Instant since) {
+        Instant now = Instant.now();
+        Instant horizon = now.minus(tombstoneRetention);
+        if (since.isAfter(Instant.EPOCH) && since.isBefore(horizon)) {
+            throw new FunctionalException(messages.get(GlobalConstants.ERROR_DELTA_CURSOR_EXPIRED, horizon));
+        }
+        return now.minus(safetyLag);
+    }
+
+    @Scheduled(initialDelayString = "${delta.prune-interval-ms}", fixedDelayString = "${delta.prune-interval-ms}")
+    public void pruneTombstones() {
+        Instant before = Instant.now().minus(tombstoneRetention);
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            Integer pruned = shardRouter.onShard(shard, () ->
+                    transaction.execute(status -> tombstoneRepository.deleteByDeletedAtBefore(before)));
+            if (pruned != null && pruned > 0) {
+                log.info("Pruned {} tombstones of shard {}", pruned, shard);
+            }
+        }
+    }
+}
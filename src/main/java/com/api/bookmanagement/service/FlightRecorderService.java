@@ -0,0 +1,139 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.config.Messages;
+import com.api.bookmanagement.dto.RecordingDTO;
+import com.api.bookmanagement.exception.FunctionalException;
+import com.api.bookmanagement.exception.NotFoundException;
+import com.api.bookmanagement.exception.TechnicalException;
+import com.api.bookmanagement.util.GlobalConstants;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Drives a single JFR recording of the application, bounded in age, size and duration so it
+ * can be left running on a live instance. The custom events live in {@code event.jfr}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FlightRecorderService {
+
+    private static final String RECORDING_NAME = "bookmanagement";
+
+    /**
+     * Events of the JDK settings that capture environment variables, system properties and JVM
+     * arguments, where credentials such as the API key end up. The dump is served over HTTP.
+     */
+    public static final List<String> DISABLED_EVENTS = List.of(
+            "jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty", "jdk.JVMInformation");
+
+    private final Messages messages;
+
+    @Value("${jfr.recording.settings:profile}")
+    private String settings;
+
+    @Value("${jfr.recording.max-age:15m}")
+    private Duration maxAge;
+
+    @Value("${jfr.recording.max-size:100MB}")
+    private DataSize maxSize;
+
+    @Value("${jfr.recording.max-duration:1h}")
+    private Duration maxDuration;
+
+    private Recording recording;
+
+    public synchronized RecordingDTO startRecording(Duration duration) {
+        log.info("Start service: Starting flight recording for: {}", duration);
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new FunctionalException(messages.get(GlobalConstants.ERROR_RECORDING_RUNNING));
+        }
+        if (recording != null) {
+            recording.close();
+        }
+        try {
+            recording = new Recording(Configuration.getConfiguration(settings));
+        } catch (IOException | ParseException e) {
+            throw new TechnicalException("Cannot load JFR settings " + settings + ": " + e.getMessage());
+        }
+        DISABLED_EVENTS.forEach(recording::disable);
+        recording.setName(RECORDING_NAME);
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(maxSize.toBytes());
+        recording.setDuration(duration == null || duration.compareTo(maxDuration) > 0 ? maxDuration : duration);
+        recording.start();
+        var output = toRecordingDTO(recording);
+        log.info("End service: Started flight recording: {}", output.getId());
+        return output;
+    }
+
+    public synchronized RecordingDTO stopRecording() {
+        log.info("Start service: Stopping flight recording");
+        Recording current = current();
+        if (current.getState() != RecordingState.RUNNING) {
+            throw new FunctionalException(messages.get(GlobalConstants.ERROR_RECORDING_NOT_RUNNING));
+        }
+        current.stop();
+        var output = toRecordingDTO(current);
+        log.info("End service: Stopped flight recording: {}", output.getId());
+        return output;
+    }
+
+    public synchronized RecordingDTO getRecording() {
+        return toRecordingDTO(current());
+    }
+
+    /**
+     * Writes what the recording holds so far to a temporary file, which the caller deletes
+     * once it has been sent. Works on a running recording as well as a stopped one.
+     */
+    public synchronized Path dumpRecording() {
+        log.info("Start service: Dumping flight recording");
+        Recording current = current();
+        try {
+            Path file = Files.createTempFile(RECORDING_NAME + "-", ".jfr");
+            current.dump(file);
+            log.info("End service: Dumped flight recording to: {}", file);
+            return file;
+        } catch (IOException e) {
+            throw new TechnicalException("Cannot dump flight recording: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private Recording current() {
+        if (recording == null || recording.getState() == RecordingState.CLOSED) {
+            throw new NotFoundException(messages.get(GlobalConstants.ERROR_RECORDING_NOT_FOUND));
+        }
+        return recording;
+    }
+
+    private static RecordingDTO toRecordingDTO(Recording recording) {
+        Duration duration = recording.getDuration();
+        return new RecordingDTO(recording.getId(), recording.getName(), recording.getState().name(),
+                recording.getStartTime(), duration == null ? null : duration.toMillis(),
+                recording.getMaxAge().toMillis(), recording.getMaxSize(), recording.getSize());
+    }
+}
@@ -0,0 +1,190 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.config.Messages;
+import com.api.bookmanagement.config.ShardRouter;
+import com.api.bookmanagement.event.EntityChangedEvent;
+import com.api.bookmanagement.event.EntityChangedEvent.ChangeType;
+import com.api.bookmanagement.event.EntityChangedEvent.EntityType;
+import com.api.bookmanagement.exception.NotFoundException;
+import com.api.bookmanagement.mapper.AuthorMapper;
+import com.api.bookmanagement.repository.AuthorRepository;
+import com.api.bookmanagement.util.GlobalConstants;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Follow and unfollow counts, accumulated in memory and written in batches. Each author has a
+ * {@link LongAdder}, whose cells spread concurrent increments so a hot author does not turn
+ * into a contended row or CAS loop. The flush drains every counter and applies the deltas
+ * with one relative {@code UPDATE} per author, so concurrent writers cannot lose increments.
+ * <p>
+ * Reads add the pending delta to the stored count. While a flush is committing, its delta is
+ * in neither place for a moment.
+ * <p>
+ * The author change events of the flushes are coalesced: an author followed without pause is
+ * announced once per {@code followers.publish-interval}, not on every flush. The last deltas are
+ * flushed and announced when the context closes, before the database and caches shut down.
+ */
+@Service
+@Slf4j
+public class FollowerCounterService {
+
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    // Authors flushed since the last change events
+    private final Set<Long> unpublished = ConcurrentHashMap.newKeySet();
+
+    private final AuthorRepository authorRepository;
+
+    private final AuthorMapper authorMapper;
+
+    private final Messages messages;
+
+    private final ShardRouter shardRouter;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final CacheInvalidationService cacheInvalidationService;
+
+    private final TransactionTemplate transaction;
+
+    @Value("${followers.publish-interval}")
+    private Duration publishInterval;
+
+    private volatile Instant lastPublished = Instant.EPOCH;
+
+    public FollowerCounterService(AuthorRepository authorRepository, AuthorMapper authorMapper, Messages messages,
+                                  ShardRouter shardRouter, ApplicationEventPublisher eventPublisher,
+                                  CacheInvalidationService cacheInvalidationService,
+                                  PlatformTransactionManager transactionManager) {
+        this.authorRepository = authorRepository;
+        this.authorMapper = authorMapper;
+        this.messages = messages;
+        this.shardRouter = shardRouter;
+        this.eventPublisher = eventPublisher;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    public void follow(Long authorId) {
+        counter(authorId).increment();
+    }
+
+    public void unfollow(Long authorId) {
+        counter(authorId).decrement();
+    }
+
+    /** Follows and unfollows of the author not written to the database yet. */
+    public long pending(Long authorId) {
+        LongAdder counter = pending.get(authorId);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    /** The stored count plus the pending delta, never below zero. */
+    public int followers(Long authorId, int stored) {
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, stored + pending(authorId)));
+    }
+
+    @Scheduled(fixedDelayString = "${followers.flush-interval-ms}")
+    public void flush() {
+        flushDeltas();
+        publishChanges(false);
+    }
+
+    // Before the lifecycle stop and the bean destruction that close the entity manager factory
+    @EventListener(ContextClosedEvent.class)
+    void flushOnClose() {
+        flushDeltas();
+        publishChanges(true);
+    }
+
+    private void flushDeltas() {
+        Map<Long, Integer> deltas = new LinkedHashMap<>();
+        // Resets cell by cell, so increments racing with the drain stay for the next flush
+        pending.forEach((authorId, counter) -> {
+            long delta = counter.sumThenReset();
+            if (delta != 0) {
+                deltas.put(authorId, Math.toIntExact(delta));
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+        log.info("Start service: Flushing follower deltas of {} authors", deltas.size());
+        // One transaction per shard: only the deltas of a shard that rolled back are kept, the
+        // others are committed and would be counted twice
+        shardRouter.groupByShard(deltas.keySet()).forEach((shard, ids) -> {
+            try {
+                shardRouter.onShard(shard, () -> transaction.execute(status -> {
+                    Instant now = Instant.now();
+                    for (Long authorId : ids) {
+                        if (authorRepository.addFollowers(authorId, deltas.get(authorId), now) == 0) {
+                            // Deleted since it was followed
+                            pending.remove(authorId);
+                        }
+                    }
+                    cacheInvalidationService.recordAuthors(ids, now);
+                    return null;
+                }));
+                unpublished.addAll(ids);
+            } catch (RuntimeException e) {
+                log.warn("Cannot flush the follower deltas of shard {}, keeping them for the next run", shard, e);
+                ids.forEach(authorId -> {
+                    LongAdder counter = pending.get(authorId);
+                    if (counter != null) {
+                        counter.add(deltas.get(authorId));
+                    }
+                });
+            }
+        });
+        log.info("End service: Flushing follower deltas of {} authors", deltas.size());
+    }
+
+    private void publishChanges(boolean now) {
+        if (unpublished.isEmpty() || !now && Instant.now().isBefore(lastPublished.plus(publishInterval))) {
+            return;
+        }
+        lastPublished = Instant.now();
+        List<Long> ids = new ArrayList<>(unpublished);
+        unpublished.removeAll(ids);
+        try {
+            transaction.executeWithoutResult(status -> shardRouter.onShardsOf(ids, shardIds -> {
+                authorRepository.findAllById(shardIds).forEach(author -> eventPublisher.publishEvent(
+                        new EntityChangedEvent(EntityType.AUTHOR, ChangeType.UPDATED, author.getId(), authorMapper.toAuthorDTO(author))));
+                return null;
+            }));
+        } catch (RuntimeException e) {
+            log.warn("Cannot announce follower changes, keeping them for the next run", e);
+            unpublished.addAll(ids);
+        }
+    }
+
+    // The author is looked up once, when its counter is created; later calls stay in memory
+    private LongAdder counter(Long authorId) {
+        LongAdder counter = pending.get(authorId);
+        if (counter != null) {
+            return counter;
+        }
+        if (!shardRouter.onShard(shardRouter.shardOf(authorId), () -> authorRepository.existsById(authorId))) {
+            throw new NotFoundException(messages.get(GlobalConstants.ERROR_AUTHOR_NOT_FOUND_ID, authorId));
+        }
+        return pending.computeIfAbsent(authorId, id -> new LongAdder());
+    }
+}
@@ -0,0 +1,193 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.domain.IsbnMetadata;
+import com.api.bookmanagement.dto.BookDTO;
+import com.api.bookmanagement.event.EntityChangedEvent;
+import com.api.bookmanagement.event.EntityChangedEvent.ChangeType;
+import com.api.bookmanagement.event.EntityChangedEvent.EntityType;
+import com.api.bookmanagement.repository.IsbnMetadataRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local store of OpenLibrary records, filled in the background for books created or updated
+ * with an ISBN.
+ * <p>
+ * Committed book events put their ISBN on a bounded queue; when the queue is full the ISBN is
+ * dropped and fetched on demand at its first lookup instead. Workers take up to
+ * {@code isbn.enrichment.batch-size} ISBNs at a time, waiting up to {@code linger-ms} for a batch
+ * to fill, skip the ones already stored and fetch the rest in one upstream call.
+ * <p>
+ * Stored records older than {@code isbn.enrichment.refresh-after} are still served, and queued
+ * for a refresh in the background (stale-while-revalidate). While OpenLibrary is down the stale
+ * record stays in place.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IsbnEnrichmentService {
+
+    private final OpenLibraryService openLibraryService;
+
+    private final IsbnMetadataRepository isbnMetadataRepository;
+
+    @Qualifier("isbnEnrichmentExecutor")
+    private final ThreadPoolTaskExecutor isbnEnrichmentExecutor;
+
+    @Value("${isbn.enrichment.enabled}")
+    private boolean enabled;
+
+    @Value("${isbn.enrichment.queue-capacity}")
+    private int queueCapacity;
+
+    @Value("${isbn.enrichment.workers}")
+    private int workers;
+
+    @Value("${isbn.enrichment.batch-size}")
+    private int batchSize;
+
+    @Value("${isbn.enrichment.linger-ms}")
+    private long lingerMs;
+
+    @Value("${isbn.enrichment.refresh-after}")
+    private Duration refreshAfter;
+
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+
+    private BlockingQueue<String> queue;
+
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = enabled;
+        for (int i = 0; enabled && i < workers; i++) {
+            isbnEnrichmentExecutor.execute(this::work);
+        }
+    }
+
+    // Before the executor's lifecycle stop, which would otherwise wait for the workers to return
+    @EventListener(ContextClosedEvent.class)
+    void stop() {
+        running = false;
+    }
+
+    /** Returns the stored record, as raw OpenLibrary JSON. */
+    public Optional<String> findLocal(String isbn) {
+        return isbnMetadataRepository.findById(isbn).map(metadata -> {
+            if (metadata.getFetchedAt().isBefore(Instant.now().minus(refreshAfter))) {
+                enqueue(isbn);
+            }
+            return metadata.getPayload();
+        });
+    }
+
+    /** Fetches one ISBN upstream right away and stores it if found. */
+    public Optional<String> fetch(String isbn) {
+        Map<String, String> records = openLibraryService.fetchByIsbns(List.of(isbn));
+        store(records);
+        return Optional.ofNullable(records.get(isbn));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.getEntityType() == EntityType.BOOK && event.getChangeType() != ChangeType.DELETED
+                && event.getPayload() instanceof BookDTO book && book.getIsbn() != null) {
+            enqueue(book.getIsbn());
+        }
+    }
+
+    /** Returns false when the ISBN was already queued, or dropped because the queue is full. */
+    public boolean enqueue(String isbn) {
+        if (!running || !queued.add(isbn)) {
+            return false;
+        }
+        if (!queue.offer(isbn)) {
+            queued.remove(isbn);
+            log.warn("ISBN enrichment queue full, {} will be fetched on first lookup", isbn);
+            return false;
+        }
+        return true;
+    }
+
+    int queueSize() {
+        return queue.size();
+    }
+
+    private void work() {
+        while (running) {
+            List<String> batch = new ArrayList<>(batchSize);
+            try {
+                if (nextBatch(batch, TimeUnit.SECONDS.toNanos(1))) {
+                    enrich(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("ISBN enrichment failed for {}: {}", batch, e.getMessage());
+            } finally {
+                batch.forEach(queued::remove);
+            }
+        }
+    }
+
+    /** Waits up to {@code timeoutNanos} for a first ISBN, then lingers for more to fill the batch. */
+    boolean nextBatch(List<String> batch, long timeoutNanos) throws InterruptedException {
+        String first = queue.poll(timeoutNanos, TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return false;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        while (batch.size() < batchSize) {
+            String next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return true;
+    }
+
+    void enrich(List<String> isbns) {
+        Set<String> missing = new HashSet<>(isbns);
+        isbnMetadataRepository.findIsbnsFetchedSince(isbns, Instant.now().minus(refreshAfter)).forEach(missing::remove);
+        if (missing.isEmpty()) {
+            return;
+        }
+        store(openLibraryService.fetchByIsbns(missing));
+    }
+
+    private void store(Map<String, String> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        List<IsbnMetadata> metadata = new ArrayList<>(records.size());
+        records.forEach((isbn, record) -> metadata.add(new IsbnMetadata(isbn, record, now)));
+        isbnMetadataRepository.saveAll(metadata);
+    }
+}
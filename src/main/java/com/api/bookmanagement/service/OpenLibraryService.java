@@ -0,0 +1,179 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.config.Messages;
+import com.api.bookmanagement.config.OpenLibraryProperties;
+import com.api.bookmanagement.event.jfr.OpenLibraryCallEvent;
+import com.api.bookmanagement.exception.UpstreamUnavailableException;
+import com.api.bookmanagement.util.CircuitBreaker;
+import com.api.bookmanagement.util.GlobalConstants;
+import com.api.bookmanagement.util.LatencyWindow;
+import com.api.bookmanagement.util.OpenLibraryParser;
+import com.api.bookmanagement.util.RetryBudget;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Outbound calls to OpenLibrary, behind a circuit breaker.
+ * <p>
+ * Each call sends one request and, if no answer came within the recent p95 latency, a duplicate
+ * (hedged) request; the first successful answer wins. A request failing before that point is
+ * retried once instead. Hedges and retries share a {@link RetryBudget}, so a struggling upstream
+ * never sees much more than the normal traffic. Any failure surfaces as an
+ * {@link UpstreamUnavailableException}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OpenLibraryService {
+
+    private static final String BIBKEY_PREFIX = "ISBN:";
+    private static final int LATENCY_SAMPLES = 200;
+    private static final int MINIMUM_LATENCY_SAMPLES = 20;
+
+    private final RestTemplate restTemplate;
+
+    private final OpenLibraryProperties properties;
+
+    private final Messages messages;
+
+    @Qualifier("openLibraryExecutor")
+    private final AsyncTaskExecutor openLibraryExecutor;
+
+    @Value("${openlibrary.api.url}")
+    private String openLibraryApiUrl;
+
+    private CircuitBreaker circuitBreaker;
+
+    private RetryBudget retryBudget;
+
+    private final LatencyWindow latencies = new LatencyWindow(LATENCY_SAMPLES);
+
+    @PostConstruct
+    void init() {
+        circuitBreaker = new CircuitBreaker(properties.getWindowSize(), properties.getMinimumCalls(),
+                properties.getFailureRateThreshold(), TimeUnit.MILLISECONDS.toNanos(properties.getOpenDurationMs()),
+                System::nanoTime);
+        retryBudget = new RetryBudget(properties.getRetryBudgetRatio(), properties.getRetryBudgetMax());
+    }
+
+    /**
+     * Fetches several ISBNs in one upstream call; OpenLibrary accepts a comma-separated list of
+     * bibkeys. Returns the raw JSON of the records found, keyed by normalized ISBN.
+     */
+    public Map<String, String> fetchByIsbns(Collection<String> isbns) {
+        log.info("Start service: Fetching {} isbns from OpenLibrary", isbns.size());
+        if (!circuitBreaker.tryAcquire()) {
+            log.warn("OpenLibrary circuit open, rejecting lookup of {} isbns", isbns.size());
+            throw unavailable();
+        }
+        String bibkeys = isbns.stream().map(isbn -> BIBKEY_PREFIX + isbn).collect(Collectors.joining(","));
+        byte[] response;
+        try {
+            response = call(bibkeys);
+            circuitBreaker.onSuccess();
+        } catch (RuntimeException e) {
+            circuitBreaker.onFailure();
+            log.warn("OpenLibrary lookup failed: {}", e.getMessage());
+            throw unavailable();
+        }
+        Map<String, String> output = OpenLibraryParser.splitRecords(response);
+        log.info("End service: Fetching {} isbns from OpenLibrary, {} found", isbns.size(), output.size());
+        return output;
+    }
+
+    public CircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+
+    private byte[] call(String bibkeys) {
+        retryBudget.onRequest();
+        CompletableFuture<byte[]> primary = attempt(bibkeys);
+        try {
+            return primary.get(hedgeDelayNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            if (!retryBudget.tryRetry()) {
+                return primary.join();
+            }
+            log.info("OpenLibrary slower than {} ms, hedging request", TimeUnit.NANOSECONDS.toMillis(hedgeDelayNanos()));
+            return firstSuccessful(primary, attempt(bibkeys)).join();
+        } catch (ExecutionException e) {
+            if (!retryBudget.tryRetry()) {
+                throw new IllegalStateException(e.getCause().getMessage(), e.getCause());
+            }
+            log.info("Retrying OpenLibrary request after: {}", e.getCause().getMessage());
+            return attempt(bibkeys).join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            primary.cancel(true);
+            throw new IllegalStateException("Interrupted while waiting for OpenLibrary", e);
+        }
+    }
+
+    // Read as bytes: records are sliced out by the streaming parser, no JSON tree is built
+    private CompletableFuture<byte[]> attempt(String bibkeys) {
+        return CompletableFuture.supplyAsync(() -> {
+            OpenLibraryCallEvent event = new OpenLibraryCallEvent();
+            event.begin();
+            long start = System.nanoTime();
+            byte[] response = null;
+            try {
+                response = restTemplate.getForObject(openLibraryApiUrl + "?bibkeys={bibkeys}&jscmd=data&format=json",
+                        byte[].class, bibkeys);
+                latencies.record(System.nanoTime() - start);
+                return response;
+            } catch (RuntimeException e) {
+                event.failed = true;
+                throw e;
+            } finally {
+                if (event.shouldCommit()) {
+                    event.isbnCount = bibkeys.split(",").length;
+                    event.responseBytes = response == null ? 0 : response.length;
+                    event.commit();
+                }
+            }
+        }, openLibraryExecutor);
+    }
+
+    private long hedgeDelayNanos() {
+        long min = TimeUnit.MILLISECONDS.toNanos(properties.getHedgeMinDelayMs());
+        long max = TimeUnit.MILLISECONDS.toNanos(properties.getHedgeMaxDelayMs());
+        long percentile = latencies.percentile(properties.getHedgePercentile(), MINIMUM_LATENCY_SAMPLES);
+        return percentile < 0 ? max : Math.clamp(percentile, min, max);
+    }
+
+    private UpstreamUnavailableException unavailable() {
+        return new UpstreamUnavailableException(messages.get(GlobalConstants.ERROR_OPENLIBRARY_UNAVAILABLE));
+    }
+
+    /** Completes with the first attempt that succeeds, or with the last failure once both failed. */
+    private static <T> CompletableFuture<T> firstSuccessful(CompletableFuture<T> first, CompletableFuture<T> second) {
+        CompletableFuture<T> output = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (CompletableFuture<T> attempt : List.of(first, second)) {
+            attempt.whenComplete((value, error) -> {
+                if (error == null) {
+                    output.complete(value);
+                } else if (failures.incrementAndGet() == 2) {
+                    output.completeExceptionally(error);
+                }
+            });
+        }
+        return output;
+    }
+}
@@ -0,0 +1,149 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.config.Messages;
+import com.api.bookmanagement.domain.Author;
+import com.api.bookmanagement.domain.Book;
+import com.api.bookmanagement.dto.AuthorDTO;
+import com.api.bookmanagement.event.BookCountsChangedEvent;
+import com.api.bookmanagement.event.BookCountsChangedEvent.Row;
+import com.api.bookmanagement.event.EntityChangedEvent;
+import com.api.bookmanagement.event.EntityChangedEvent.ChangeType;
+import com.api.bookmanagement.event.EntityChangedEvent.EntityType;
+import com.api.bookmanagement.exception.NotFoundException;
+import com.api.bookmanagement.util.GlobalConstants;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Non-blocking variant of {@link AuthorService} for the reactive profile.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveAuthorService {
+
+    private static final String SELECT_AUTHOR = "SELECT id, name, age, followers_number, updated_at FROM author";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator reactiveTransactionalOperator;
+    private final ReactiveBookService reactiveBookService;
+    private final Messages messages;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public Flux<AuthorDTO> getAllAuthors() {
+        log.info("Start service: Streaming all authors");
+        return databaseClient.sql(SELECT_AUTHOR + " ORDER BY id")
+                .map(ReactiveAuthorService::toAuthorDTO)
+                .all()
+                .doOnComplete(() -> log.info("End service: Streaming all authors"));
+    }
+
+    public Mono<AuthorDTO> getAuthorById(Long id) {
+        log.info("Start service: Getting author by id: {}", id);
+        return findAuthor(id)
+                .doOnSuccess(author -> log.info("End service: Getting author by id: {}", id));
+    }
+
+    public Mono<AuthorDTO> createAuthor(AuthorDTO authorDTO) {
+        log.info("Start service: Creating author: {}", authorDTO);
+        return bindAuthor(databaseClient.sql("INSERT INTO author (name, age, followers_number, updated_at) "
+                        + "VALUES (:name, :age, :followersNumber, :updatedAt)"), authorDTO)
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .flatMap(this::findAuthor)
+                .as(reactiveTransactionalOperator::transactional)
+                .doOnNext(output -> {
+                    eventPublisher.publishEvent(new EntityChangedEvent(EntityType.AUTHOR, ChangeType.CREATED, output.getId(), output));
+                    log.info("End service: Created author: {}", authorDTO);
+                });
+    }
+
+    public Mono<AuthorDTO> updateAuthor(Long id, AuthorDTO authorDTO) {
+        log.info("Start service: Updating author with id: {}", id);
+        return findAuthor(id)
+                .then(bindAuthor(databaseClient.sql("UPDATE author SET name = :name, age = :age, "
+                        + "followers_number = :followersNumber, updated_at = :updatedAt WHERE id = :id"), authorDTO)
+                        .bind("id", id)
+                        .fetch()
+                        .rowsUpdated())
+                .then(findAuthor(id))
+                .as(reactiveTransactionalOperator::transactional)
+                .doOnNext(output -> {
+                    eventPublisher.publishEvent(new EntityChangedEvent(EntityType.AUTHOR, ChangeType.UPDATED, id, output));
+                    log.info("End service: Updated author with id: {}", id);
+                });
+    }
+
+    /**
+     * Deletes the author and, like the JPA cascade, all of their books, leaving a tombstone for each.
+     */
+    public Mono<Void> deleteAuthor(Long id) {
+        log.info("Start service: Deleting author with id: {}", id);
+        return findAuthor(id)
+                .flatMap(author -> databaseClient.sql("SELECT id, publication_date, type FROM book WHERE author_id = :id")
+                        .bind("id", id)
+                        .map(row -> toBook(row, author))
+                        .all()
+                        .collectList()
+                        .flatMap(books -> Flux.fromIterable(books)
+                                .concatMap(book -> reactiveBookService.insertTombstone(EntityType.BOOK, book.getId()))
+                                .then(databaseClient.sql("DELETE FROM book WHERE author_id = :id").bind("id", id).then())
+                                .then(databaseClient.sql("DELETE FROM author WHERE id = :id").bind("id", id).then())
+                                .then(reactiveBookService.insertTombstone(EntityType.AUTHOR, id))
+                                .thenReturn(books)))
+                .as(reactiveTransactionalOperator::transactional)
+                .doOnNext(books -> {
+                    eventPublisher.publishEvent(new BookCountsChangedEvent(books.stream().map(book -> Row.of(book, -1)).toList()));
+                    for (Book book : books) {
+                        eventPublisher.publishEvent(new EntityChangedEvent(EntityType.BOOK, ChangeType.DELETED, book.getId(), null));
+                    }
+                    eventPublisher.publishEvent(new EntityChangedEvent(EntityType.AUTHOR, ChangeType.DELETED, id, null));
+                    log.info("End service: Deleted author with id: {}", id);
+                })
+                .then();
+    }
+
+    static AuthorDTO toAuthorDTO(Readable row) {
+        Integer age = row.get("age", Integer.class);
+        Integer followers = row.get("followers_number", Integer.class);
+        return new AuthorDTO(row.get("id", Long.class), row.get("name", String.class), age == null ? 0 : age,
+                followers == null ? 0 : followers, ReactiveBookService.toInstant(row, "updated_at"));
+    }
+
+    private Mono<AuthorDTO> findAuthor(Long id) {
+        return databaseClient.sql(SELECT_AUTHOR + " WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveAuthorService::toAuthorDTO)
+                .one()
+                .switchIfEmpty(Mono.error(() ->
+                        new NotFoundException(messages.get(GlobalConstants.ERROR_AUTHOR_NOT_FOUND_ID, id))));
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindAuthor(DatabaseClient.GenericExecuteSpec spec, AuthorDTO authorDTO) {
+        spec = authorDTO.getName() == null ? spec.bindNull("name", String.class) : spec.bind("name", authorDTO.getName());
+        return spec.bind("age", authorDTO.getAge())
+                .bind("followersNumber", authorDTO.getFollowersNumber())
+                .bind("updatedAt", ReactiveBookService.now());
+    }
+
+    private static Book toBook(Readable row, AuthorDTO authorDTO) {
+        Author author = new Author();
+        author.setId(authorDTO.getId());
+        author.setName(authorDTO.getName());
+        author.setFollowersNumber(authorDTO.getFollowersNumber());
+        return new Book(row.get("id", Long.class), null, null, author, row.get("publication_date", LocalDate.class),
+                row.get("type", String.class), null);
+    }
+}
@@ -0,0 +1,313 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.config.Messages;
+import com.api.bookmanagement.domain.Author;
+import com.api.bookmanagement.domain.Book;
+import com.api.bookmanagement.dto.AuthorDTO;
+import com.api.bookmanagement.dto.BookDTO;
+import com.api.bookmanagement.dto.IsbnMetadataDTO;
+import com.api.bookmanagement.event.BookCountsChangedEvent;
+import com.api.bookmanagement.event.BookCountsChangedEvent.Row;
+import com.api.bookmanagement.event.EntityChangedEvent;
+import com.api.bookmanagement.event.EntityChangedEvent.ChangeType;
+import com.api.bookmanagement.event.EntityChangedEvent.EntityType;
+import com.api.bookmanagement.exception.FunctionalException;
+import com.api.bookmanagement.exception.NotFoundException;
+import com.api.bookmanagement.util.BookRatingCalculator;
+import com.api.bookmanagement.util.GlobalConstants;
+import com.api.bookmanagement.util.Isbns;
+import com.api.bookmanagement.util.OpenLibraryParser;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Non-blocking variant of {@link BookService} for the reactive profile. Reads stream rows
+ * straight from R2DBC, so a slow client holds back the query instead of buffering the catalog;
+ * writes run in one R2DBC transaction and publish the same events as the JPA path once committed.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveBookService {
+
+    static final String SELECT_BOOK = "SELECT b.id, b.title, b.isbn, b.author_id, a.name AS author_name, "
+            + "a.followers_number, b.publication_date, b.type, b.updated_at "
+            + "FROM book b JOIN author a ON a.id = b.author_id";
+
+    private final DatabaseClient databaseClient;
+
+    private final TransactionalOperator reactiveTransactionalOperator;
+
+    private final WebClient openLibraryWebClient;
+
+    private final BookRatingCalculator bookRatingCalculator;
+
+    private final Messages messages;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${openlibrary.api.url}")
+    private String openLibraryApiUrl;
+
+    @Value("${books.lookup.chunk-size}")
+    private int lookupChunkSize;
+
+    public Flux<BookDTO> getAllBooks() {
+        log.info("Start service: Streaming all books");
+        return databaseClient.sql(SELECT_BOOK + " ORDER BY b.id")
+                .map(BookRow::of)
+                .all()
+                .map(BookRow::toDTO)
+                .doOnComplete(() -> log.info("End service: Streaming all books"));
+    }
+
+    public Mono<BookDTO> getBookById(Long id) {
+        log.info("Start service: Getting book by id: {} ", id);
+        return findRow(id)
+                .map(BookRow::toDTO)
+                .doOnSuccess(book -> log.info("End service: Getting book by id: {}", id));
+    }
+
+    public Mono<BookDTO> getBookByTitle(String title) {
+        log.info("Start service: Getting book by title: {} ", title);
+        return databaseClient.sql(SELECT_BOOK + " WHERE b.title = :title")
+                .bind("title", title)
+                .map(BookRow::of)
+                .first()
+                .switchIfEmpty(Mono.error(() ->
+                        new NotFoundException(messages.get(GlobalConstants.ERROR_BOOK_NOT_FOUND_TITLE, title))))
+                .map(BookRow::toDTO)
+                .doOnSuccess(book -> log.info("End service: Getting book by title: {}", title));
+    }
+
+    public Mono<BookDTO> createBook(BookDTO bookDTO) {
+        log.info("Start service: Creating book with data: {}", bookDTO);
+        return requireAuthor(bookDTO.getAuthorId())
+                .then(requireUniqueIsbn(bookDTO.getIsbn(), null))
+                .then(bindBook(databaseClient.sql("INSERT INTO book (title, isbn, author_id, publication_date, type, updated_at) "
+                        + "VALUES (:title, :isbn, :authorId, :publicationDate, :type, :updatedAt)"), bookDTO)
+                        .filter(statement -> statement.returnGeneratedValues("id"))
+                        .map(row -> row.get("id", Long.class))
+                        .one())
+                .flatMap(this::findRow)
+                .as(reactiveTransactionalOperator::transactional)
+                .map(row -> {
+                    eventPublisher.publishEvent(BookCountsChangedEvent.added(row.toBook()));
+                    var output = row.toDTO();
+                    eventPublisher.publishEvent(new EntityChangedEvent(EntityType.BOOK, ChangeType.CREATED, output.getId(), output));
+                    log.info("End service: Creating book with data: {}", bookDTO);
+                    return output;
+                });
+    }
+
+    public Mono<BookDTO> updateBook(Long id, BookDTO bookDTO) {
+        log.info("Start service: Updating book with id: {} ", id);
+        return findRow(id)
+                .flatMap(previous -> requireAuthor(bookDTO.getAuthorId())
+                        .then(requireUniqueIsbn(bookDTO.getIsbn(), id))
+                        .then(bindBook(databaseClient.sql("UPDATE book SET title = :title, isbn = :isbn, author_id = :authorId, "
+                                + "publication_date = :publicationDate, type = :type, updated_at = :updatedAt WHERE id = :id"), bookDTO)
+                                .bind("id", id)
+                                .fetch()
+                                .rowsUpdated())
+                        .then(findRow(id))
+                        .map(updated -> List.of(previous, updated)))
+                .as(reactiveTransactionalOperator::transactional)
+                .map(rows -> {
+                    eventPublisher.publishEvent(new BookCountsChangedEvent(List.of(
+                            Row.of(rows.get(0).toBook(), -1), Row.of(rows.get(1).toBook(), 1))));
+                    var output = rows.get(1).toDTO();
+                    eventPublisher.publishEvent(new EntityChangedEvent(EntityType.BOOK, ChangeType.UPDATED, id, output));
+                    log.info("End service: Updating book with id: {} ", id);
+                    return output;
+                });
+    }
+
+    public Mono<Void> deleteBook(Long id) {
+        log.info("Start service: Deleting book with id: {} ", id);
+        return findRow(id)
+                .flatMap(row -> databaseClient.sql("DELETE FROM book WHERE id = :id")
+                        .bind("id", id)
+                        .fetch()
+                        .rowsUpdated()
+                        .then(insertTombstone(EntityType.BOOK, id))
+                        .thenReturn(row))
+                .as(reactiveTransactionalOperator::transactional)
+                .doOnNext(row -> {
+                    eventPublisher.publishEvent(new BookCountsChangedEvent(List.of(Row.of(row.toBook(), -1))));
+                    eventPublisher.publishEvent(new EntityChangedEvent(EntityType.BOOK, ChangeType.DELETED, id, null));
+                    log.info("End service: Deleting book with id: {} ", id);
+                })
+                .then();
+    }
+
+    public Mono<Double> getRatingForBook(Long id) {
+        log.info("Start service: Getting rating for id: {} ", id);
+        return findRow(id)
+                .map(row -> bookRatingCalculator.calculateRating(row.publicationDate(), row.authorFollowers()))
+                .doOnSuccess(rating -> log.info("End service: Getting rating for id: {} ", id));
+    }
+
+    /**
+     * Same chunking as {@link BookService#getAuthorsByBookIds}, with the chunks queried one after the
+     * other: the connection pool bounds concurrency here, not a thread pool.
+     */
+    public Flux<AuthorDTO> getAuthorsByBookIds(List<Long> bookIds) {
+        log.info("Start service: Getting authors by ids: {}", bookIds);
+        return Flux.fromStream(bookIds.stream().distinct())
+                .buffer(lookupChunkSize)
+                .concatMap(chunk -> databaseClient.sql("SELECT DISTINCT a.id, a.name, a.age, a.followers_number, a.updated_at "
+                                + "FROM author a JOIN book b ON b.author_id = a.id WHERE b.id IN (:ids)")
+                        .bind("ids", chunk)
+                        .map(ReactiveAuthorService::toAuthorDTO)
+                        .all())
+                .distinct(AuthorDTO::getId)
+                .doOnComplete(() -> log.info("End service: Getting authors by ids: {}", bookIds));
+    }
+
+    /**
+     * Same local-first lookup as {@link BookService#findBookByIsbn}: the stored OpenLibrary record
+     * if there is one, otherwise one upstream call whose result is stored for the next lookup.
+     */
+    public Mono<IsbnMetadataDTO> findBookByIsbn(String isbn) {
+        String normalized = Isbns.normalize(isbn);
+        return findRawBookByIsbn(isbn).map(record -> OpenLibraryParser.parseRecord(normalized, record));
+    }
+
+    public Mono<String> findRawBookByIsbn(String isbn) {
+        String normalized = Isbns.normalize(isbn);
+        if (normalized == null) {
+            return Mono.error(() -> new NotFoundException(messages.get(GlobalConstants.ERROR_BOOK_NOT_FOUND_ISBN, isbn)));
+        }
+        return databaseClient.sql("SELECT CAST(payload AS VARCHAR) AS payload FROM isbn_metadata WHERE isbn = :isbn")
+                .bind("isbn", normalized)
+                .map(row -> row.get("payload", String.class))
+                .one()
+                .switchIfEmpty(Mono.defer(() -> openLibraryWebClient.get()
+                        .uri(openLibraryApiUrl + "?bibkeys={bibkey}&jscmd=data&format=json", "ISBN:" + normalized)
+                        .retrieve()
+                        .bodyToMono(byte[].class)
+                        .mapNotNull(response -> OpenLibraryParser.splitRecords(response).get(normalized))
+                        .flatMap(found -> storeRecord(normalized, found).thenReturn(found))))
+                .switchIfEmpty(Mono.error(() ->
+                        new NotFoundException(messages.get(GlobalConstants.ERROR_BOOK_NOT_FOUND_ISBN, isbn))));
+    }
+
+    private Mono<Void> storeRecord(String isbn, String found) {
+        return databaseClient.sql("INSERT INTO isbn_metadata (isbn, payload, fetched_at) "
+                        + "VALUES (:isbn, :payload, :fetchedAt)")
+                .bind("isbn", isbn)
+                .bind("payload", found)
+                .bind("fetchedAt", now())
+                .then()
+                // Stored meanwhile by the enrichment workers or a concurrent lookup
+                .onErrorResume(DataIntegrityViolationException.class, e -> Mono.empty());
+    }
+
+    Mono<Void> insertTombstone(EntityType entityType, Long entityId) {
+        // H2 rejects a bound VARCHAR for the ENUM column; the constant name is safe to inline
+        return databaseClient.sql("INSERT INTO tombstone (entity_type, entity_id, deleted_at) "
+                        + "VALUES ('" + entityType.name() + "', :entityId, :deletedAt)")
+                .bind("entityId", entityId)
+                .bind("deletedAt", now())
+                .then();
+    }
+
+    private Mono<BookRow> findRow(Long id) {
+        return databaseClient.sql(SELECT_BOOK + " WHERE b.id = :id")
+                .bind("id", id)
+                .map(BookRow::of)
+                .one()
+                .switchIfEmpty(Mono.error(() ->
+                        new NotFoundException(messages.get(GlobalConstants.ERROR_BOOK_NOT_FOUND_ID, id))));
+    }
+
+    private Mono<Long> requireAuthor(Long authorId) {
+        return databaseClient.sql("SELECT id FROM author WHERE id = :id")
+                .bind("id", authorId)
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .switchIfEmpty(Mono.error(() ->
+                        new FunctionalException(messages.get(GlobalConstants.ERROR_AUTHOR_NOT_FOUND_ID, authorId))));
+    }
+
+    private Mono<Void> requireUniqueIsbn(String isbn, Long id) {
+        String normalized = Isbns.normalize(isbn);
+        if (normalized == null) {
+            return Mono.empty();
+        }
+        return databaseClient.sql("SELECT id FROM book WHERE isbn = :isbn")
+                .bind("isbn", normalized)
+                .map(row -> row.get("id", Long.class))
+                .all()
+                .filter(existing -> !existing.equals(id))
+                .next()
+                .flatMap(existing -> Mono.error(() ->
+                        new FunctionalException(messages.get(GlobalConstants.ERROR_BOOK_DUPLICATE_ISBN, normalized))));
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindBook(DatabaseClient.GenericExecuteSpec spec, BookDTO bookDTO) {
+        String isbn = Isbns.normalize(bookDTO.getIsbn());
+        spec = bookDTO.getTitle() == null ? spec.bindNull("title", String.class) : spec.bind("title", bookDTO.getTitle());
+        spec = isbn == null ? spec.bindNull("isbn", String.class) : spec.bind("isbn", isbn);
+        spec = bookDTO.getPublicationDate() == null
+                ? spec.bindNull("publicationDate", LocalDate.class)
+                : spec.bind("publicationDate", bookDTO.getPublicationDate());
+        spec = bookDTO.getType() == null ? spec.bindNull("type", String.class) : spec.bind("type", bookDTO.getType());
+        return spec.bind("authorId", bookDTO.getAuthorId()).bind("updatedAt", now());
+    }
+
+    static OffsetDateTime now() {
+        // Same precision as the JPA timestamps, so delta sync cursors compare equal on both stacks
+        return OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MICROS);
+    }
+
+    static Instant toInstant(Readable row, String column) {
+        OffsetDateTime value = row.get(column, OffsetDateTime.class);
+        return value == null ? null : value.toInstant();
+    }
+
+    private record BookRow(Long id, String title, String isbn, Long authorId, String authorName, int authorFollowers,
+                           LocalDate publicationDate, String type, Instant updatedAt) {
+
+        static BookRow of(Readable row) {
+            Integer followers = row.get("followers_number", Integer.class);
+            return new BookRow(row.get("id", Long.class), row.get("title", String.class), row.get("isbn", String.class),
+                    row.get("author_id", Long.class),
+                    row.get("author_name", String.class), followers == null ? 0 : followers,
+                    row.get("publication_date", LocalDate.class), row.get("type", String.class), toInstant(row, "updated_at"));
+        }
+
+        BookDTO toDTO() {
+            return new BookDTO(id, title, isbn, authorId, authorName, publicationDate, type, updatedAt);
+        }
+
+        /** Detached entity carrying just what {@link CatalogStatsService} reads. */
+        Book toBook() {
+            Author author = new Author();
+            author.setId(authorId);
+            author.setName(authorName);
+            author.setFollowersNumber(authorFollowers);
+            return new Book(id, title, isbn, author, publicationDate, type, updatedAt);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.dto.AuthorDTO;
+import com.api.bookmanagement.dto.BookDTO;
+import com.api.bookmanagement.dto.WarmupReportDTO;
+import com.api.bookmanagement.util.LatencyWindow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Warms the JIT up before the application reports ready. Application runners run after the
+ * context refresh and before Spring Boot flips readiness to {@code ACCEPTING_TRAFFIC}, so the
+ * warm-up holds readiness back until it is done.
+ * <p>
+ * The warm-up calls the read endpoints over HTTP on the local port, API key included, so the
+ * filters, Jackson, the mappers, Hibernate and the rating calculator all run on real data. It
+ * stops at {@code warmup.iterations} or {@code warmup.duration}, whichever comes first. The
+ * latency of the requests of the first minute after readiness is then recorded and logged.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Slf4j
+public class WarmupService implements ApplicationRunner {
+
+    private static final Duration FIRST_MINUTE = Duration.ofMinutes(1);
+
+    // Ids taken from the first listing; enough distinct rows to exercise the lookups
+    private static final int SAMPLE_IDS = 50;
+
+    // The list endpoints are heavier, they run once every that many iterations
+    private static final int LIST_EVERY = 50;
+
+    private final ApplicationContext applicationContext;
+
+    private final ApplicationAvailability applicationAvailability;
+
+    private final TaskScheduler taskScheduler;
+
+    private final LatencyWindow firstMinuteLatencies = new LatencyWindow(10_000);
+
+    private final AtomicInteger firstMinuteRequests = new AtomicInteger();
+
+    @Value("${warmup.enabled}")
+    private boolean enabled;
+
+    @Value("${warmup.duration}")
+    private Duration duration;
+
+    @Value("${warmup.iterations}")
+    private int iterations;
+
+    @Value("${api.key}")
+    private String apiKey;
+
+    private volatile long warmupDurationMs;
+    private volatile int warmupIterations;
+    private volatile int warmupRequests;
+    private volatile int warmupErrors;
+    private volatile Instant readySince;
+    private volatile long firstMinuteEnd;
+
+    public WarmupService(ApplicationContext applicationContext, ApplicationAvailability applicationAvailability,
+                         TaskScheduler taskScheduler) {
+        this.applicationContext = applicationContext;
+        this.applicationAvailability = applicationAvailability;
+        this.taskScheduler = taskScheduler;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled || !(applicationContext instanceof WebServerApplicationContext webContext)
+                || webContext.getWebServer() == null) {
+            return;
+        }
+        log.info("Start service: Warming up for at most {} iterations or {}", iterations, duration);
+        AvailabilityChangeEvent.publish(applicationContext, ReadinessState.REFUSING_TRAFFIC);
+        RestClient client = RestClient.builder()
+                .baseUrl("http://localhost:" + webContext.getWebServer().getPort())
+                .defaultHeader("api-key", apiKey)
+                .build();
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        List<BookDTO> books = List.of();
+        List<AuthorDTO> authors = List.of();
+        int iteration = 0;
+        while (iteration < iterations && System.nanoTime() < deadline) {
+            if (iteration % LIST_EVERY == 0) {
+                books = call(client, "/api/books", new ParameterizedTypeReference<List<BookDTO>>() { }, books);
+                authors = call(client, "/api/authors", new ParameterizedTypeReference<List<AuthorDTO>>() { }, authors);
+            }
+            if (!books.isEmpty()) {
+                Long bookId = books.get(iteration % Math.min(books.size(), SAMPLE_IDS)).getId();
+                call(client, "/api/books/" + bookId, new ParameterizedTypeReference<BookDTO>() { }, null);
+                call(client, "/api/books/" + bookId + "/rating", new ParameterizedTypeReference<Double>() { }, null);
+            }
+            if (!authors.isEmpty()) {
+                Long authorId = authors.get(iteration % Math.min(authors.size(), SAMPLE_IDS)).getId();
+                call(client, "/api/authors/" + authorId + "/books", new ParameterizedTypeReference<Object>() { }, null);
+            }
+            iteration++;
+        }
+        warmupIterations = iteration;
+        warmupDurationMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("End service: Warmed up in {} ms: {} iterations, {} requests, {} errors",
+                warmupDurationMs, warmupIterations, warmupRequests, warmupErrors);
+    }
+
+    @EventListener
+    public void onReadinessChanged(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() != ReadinessState.ACCEPTING_TRAFFIC || readySince != null) {
+            return;
+        }
+        readySince = Instant.now();
+        firstMinuteEnd = System.nanoTime() + FIRST_MINUTE.toNanos();
+        taskScheduler.schedule(() -> log.info("First minute after readiness: {} requests, p50 {} ms, p99 {} ms",
+                firstMinuteRequests.get(), millis(0.5), millis(0.99)), readySince.plus(FIRST_MINUTE));
+    }
+
+    /** Records the latency of a request served during the first minute after readiness. */
+    public void recordRequest(long startNanos, long endNanos) {
+        if (readySince != null && endNanos - firstMinuteEnd < 0) {
+            firstMinuteLatencies.record(endNanos - startNanos);
+            firstMinuteRequests.incrementAndGet();
+        }
+    }
+
+    public WarmupReportDTO getReport() {
+        return new WarmupReportDTO(applicationAvailability.getReadinessState().name(), warmupDurationMs, warmupIterations,
+                warmupRequests, warmupErrors, readySince, readySince != null && System.nanoTime() - firstMinuteEnd >= 0,
+                firstMinuteRequests.get(), millis(0.5), millis(0.99));
+    }
+
+    // A failing call only costs the warm-up its sample; startup goes on
+    private <T> T call(RestClient client, String uri, ParameterizedTypeReference<T> type, T fallback) {
+        warmupRequests++;
+        try {
+            T body = client.get().uri(uri).retrieve().body(type);
+            return body != null ? body : fallback;
+        } catch (RuntimeException e) {
+            if (warmupErrors++ == 0) {
+                log.warn("Warm-up request {} failed: {}", uri, e.getMessage());
+            }
+            return fallback;
+        }
+    }
+
+    private double millis(double percentile) {
+        long nanos = firstMinuteLatencies.percentile(percentile, 1);
+        return nanos < 0 ? 0 : nanos / 1_000_000.0;
+    }
+}
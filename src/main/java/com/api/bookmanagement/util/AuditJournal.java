@@ -0,0 +1,524 @@
+package com.api.bookmanagement.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of timestamped binary records, written through memory-mapped segment
+ * files of a fixed size.
+ * <p>
+ * Producers reserve their bytes with a single atomic add on the current segment, copy the record
+ * into the mapping and publish it by storing its length last, with release semantics; readers
+ * stop at the first length not yet stored. The producer whose reservation crosses the end of a
+ * segment marks the end and maps the next one while the others spin. Appends never wait on the
+ * disk: {@link #sync()}, run on an interval, forces the dirty pages of every open segment in one
+ * go and seals the full ones, writing their time range and size into their header.
+ * <p>
+ * {@link #compact(long)} deletes sealed segments older than a cut-off and rewrites runs of sealed
+ * segments into single files holding just their records. A rewritten file is renamed over the
+ * first segment of its run and records the segment numbers it covers, so a crash before the
+ * others are deleted only leaves duplicates that the next {@link #open} removes. Segments left
+ * open by a crash are sealed on the next {@link #open}, up to their last intact record.
+ */
+public class AuditJournal implements Closeable {
+
+    @FunctionalInterface
+    public interface RecordConsumer {
+        void accept(long timestampMicros, ByteBuffer body) throws IOException;
+    }
+
+    static final int HEADER_SIZE = 64;
+    // length, crc32c of timestamp and body, timestamp
+    static final int RECORD_HEADER_SIZE = 4 + 4 + 8;
+
+    private static final int MAGIC = 0x41554454;
+    private static final int FORMAT_VERSION = 1;
+    private static final int FLAG_SEALED = 1;
+    private static final int FLAGS_OFFSET = 8;
+    private static final int NUMBER_OFFSET = 16;
+    private static final int LAST_NUMBER_OFFSET = 24;
+    private static final int MIN_OFFSET = 32;
+    private static final int MAX_OFFSET = 40;
+    private static final int COUNT_OFFSET = 48;
+    private static final int CONTENT_END_OFFSET = 56;
+    private static final int ALIGNMENT = 8;
+    private static final int END_OF_SEGMENT = -1;
+    private static final String PREFIX = "audit-";
+    private static final String SUFFIX = ".seg";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final String LOCK_FILE = "audit.lock";
+
+    // Lengths are published and read with release/acquire ordering; records start 8-byte aligned
+    private static final VarHandle LENGTH = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    private final Path directory;
+
+    private final int segmentSize;
+
+    // Held until close, so a second journal on the same directory fails to open
+    private final FileChannel lockChannel;
+
+    private final Object lock = new Object();
+
+    private final Object syncLock = new Object();
+
+    private final Object compactLock = new Object();
+
+    // Oldest first; replaced as a whole under lock, so readers iterate over a consistent copy
+    private volatile List<Segment> segments;
+
+    private volatile Segment current;
+
+    private AuditJournal(Path directory, int segmentSize, FileChannel lockChannel) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.lockChannel = lockChannel;
+    }
+
+    /**
+     * Opens the journal in {@code directory}, sealing the segments left open by the previous run,
+     * and starts a new segment of {@code segmentSize} bytes.
+     */
+    public static AuditJournal open(Path directory, int segmentSize) throws IOException {
+        if (segmentSize < 2 * HEADER_SIZE || segmentSize % ALIGNMENT != 0) {
+            throw new IllegalArgumentException("Segment size must be a multiple of " + ALIGNMENT + " of at least "
+                    + 2 * HEADER_SIZE + " bytes: " + segmentSize);
+        }
+        Files.createDirectories(directory);
+        FileChannel lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+        try {
+            if (lockChannel.tryLock() == null) {
+                throw new IOException("Audit journal " + directory + " is used by another process");
+            }
+            AuditJournal journal = new AuditJournal(directory, segmentSize, lockChannel);
+            List<Segment> recovered = journal.recover();
+            long next = recovered.isEmpty() ? 0 : recovered.getLast().lastNumber + 1;
+            Segment first = journal.createSegment(next);
+            recovered.add(first);
+            journal.segments = List.copyOf(recovered);
+            journal.current = first;
+            return journal;
+        } catch (OverlappingFileLockException e) {
+            lockChannel.close();
+            throw new IOException("Audit journal " + directory + " is already open", e);
+        } catch (IOException | RuntimeException e) {
+            lockChannel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Appends a record; safe to call from any number of threads. The record is durable after the
+     * next {@link #sync()}.
+     */
+    public void append(long timestampMicros, byte[] body) {
+        int length = RECORD_HEADER_SIZE + body.length;
+        int reserved = align(length);
+        if (reserved > segmentSize - HEADER_SIZE) {
+            throw new IllegalArgumentException("Audit record of " + body.length + " bytes exceeds the segment size");
+        }
+        while (true) {
+            Segment segment = current;
+            if (segment == null) {
+                throw new IllegalStateException("Audit journal is closed");
+            }
+            long start = segment.reserved.getAndAdd(reserved);
+            if (start + reserved <= segment.capacity) {
+                write(segment.buffer, (int) start, length, timestampMicros, body);
+                segment.completed.addAndGet(reserved);
+                return;
+            }
+            if (start <= segment.capacity) {
+                // First reservation past the end: this producer closes the segment and opens the next one
+                if (start < segment.capacity) {
+                    LENGTH.setRelease(segment.buffer, (int) start, END_OF_SEGMENT);
+                }
+                segment.completed.addAndGet(segment.capacity - start);
+                roll(segment);
+            } else {
+                awaitRoll(segment);
+            }
+        }
+    }
+
+    /**
+     * Forces the appended records to disk and seals the segments that are full and no longer
+     * written to. Meant to run on an interval, so a burst of appends costs a single flush.
+     */
+    public void sync() {
+        synchronized (syncLock) {
+            for (Segment segment : segments) {
+                if (segment.sealed) {
+                    continue;
+                }
+                long completed = segment.completed.get();
+                if (segment != current && completed == segment.capacity - HEADER_SIZE) {
+                    seal(segment);
+                } else if (completed != segment.synced) {
+                    segment.buffer.force();
+                    segment.synced = completed;
+                }
+            }
+        }
+    }
+
+    /**
+     * Passes the records with a timestamp in {@code [fromMicros, toMicros)} to {@code consumer},
+     * in append order. The body buffer is only valid during the call.
+     */
+    public void read(long fromMicros, long toMicros, RecordConsumer consumer) throws IOException {
+        for (Segment segment : segments) {
+            boolean sealed = segment.sealed;
+            if (sealed && (segment.count == 0 || segment.maxMicros < fromMicros || segment.minMicros >= toMicros)) {
+                continue;
+            }
+            ByteBuffer buffer = segment.buffer;
+            int end = sealed ? segment.contentEnd : segment.capacity;
+            int position = HEADER_SIZE;
+            while (position + RECORD_HEADER_SIZE <= end) {
+                int length = (int) LENGTH.getAcquire(buffer, position);
+                if (length <= 0) {
+                    break;
+                }
+                long timestamp = buffer.getLong(position + 8);
+                if (timestamp >= fromMicros && timestamp < toMicros) {
+                    consumer.accept(timestamp, buffer.slice(position + RECORD_HEADER_SIZE, length - RECORD_HEADER_SIZE)
+                            .asReadOnlyBuffer());
+                }
+                position += align(length);
+            }
+        }
+    }
+
+    /**
+     * Deletes the sealed segments whose records are all older than {@code retainAfterMicros} and
+     * merges runs of sealed segments that fit together in one segment. Returns the number of
+     * segment files removed.
+     */
+    public int compact(long retainAfterMicros) throws IOException {
+        synchronized (compactLock) {
+            List<Segment> sealed = new ArrayList<>();
+            for (Segment segment : segments) {
+                if (!segment.sealed) {
+                    break;
+                }
+                sealed.add(segment);
+            }
+            List<Segment> removed = new ArrayList<>();
+            List<Segment> added = new ArrayList<>();
+            List<Segment> run = new ArrayList<>();
+            long runSize = HEADER_SIZE;
+            for (Segment segment : sealed) {
+                if (segment.count > 0 && segment.maxMicros < retainAfterMicros) {
+                    removed.add(segment);
+                    continue;
+                }
+                long size = segment.contentEnd - HEADER_SIZE;
+                if (runSize + size > segmentSize) {
+                    merge(run, added, removed);
+                    run.clear();
+                    runSize = HEADER_SIZE;
+                }
+                run.add(segment);
+                runSize += size;
+            }
+            merge(run, added, removed);
+            if (removed.isEmpty()) {
+                return 0;
+            }
+            synchronized (lock) {
+                List<Segment> remaining = new ArrayList<>(segments);
+                remaining.removeAll(removed);
+                remaining.addAll(added);
+                remaining.sort(Comparator.comparingLong(segment -> segment.number));
+                segments = List.copyOf(remaining);
+            }
+            for (Segment segment : removed) {
+                // A merged file took the place of the first segment of its run
+                if (added.stream().noneMatch(merged -> merged.path.equals(segment.path))) {
+                    Files.deleteIfExists(segment.path);
+                }
+            }
+            return removed.size() - added.size();
+        }
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    /** Syncs and seals the current segment; appends fail afterwards. */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            Segment last = current;
+            current = null;
+            if (last != null) {
+                sync();
+                synchronized (syncLock) {
+                    seal(last);
+                }
+                lockChannel.close();
+            }
+        }
+    }
+
+    private static void write(ByteBuffer buffer, int start, int length, long timestampMicros, byte[] body) {
+        buffer.putLong(start + 8, timestampMicros);
+        buffer.put(start + RECORD_HEADER_SIZE, body);
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(start + 8, length - 8));
+        buffer.putInt(start + 4, (int) crc.getValue());
+        LENGTH.setRelease(buffer, start, length);
+    }
+
+    private void roll(Segment full) {
+        synchronized (lock) {
+            if (current != full) {
+                return;
+            }
+            try {
+                Segment next = createSegment(full.lastNumber + 1);
+                List<Segment> updated = new ArrayList<>(segments);
+                updated.add(next);
+                segments = List.copyOf(updated);
+                current = next;
+            } catch (IOException e) {
+                // The producers waiting on this segment retry the roll themselves
+                full.rollFailed = true;
+                throw new UncheckedIOException("Cannot create audit segment in " + directory, e);
+            }
+        }
+    }
+
+    private void awaitRoll(Segment full) {
+        int spins = 0;
+        while (current == full) {
+            if (full.rollFailed) {
+                roll(full);
+            } else if (++spins < 1_000) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    private Segment createSegment(long number) throws IOException {
+        Path path = directory.resolve(fileName(number));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, FORMAT_VERSION);
+            buffer.putLong(NUMBER_OFFSET, number);
+            buffer.putLong(LAST_NUMBER_OFFSET, number);
+            return new Segment(number, number, path, buffer);
+        }
+    }
+
+    /** Writes the summary of a segment no longer appended to into its header. */
+    private static void seal(Segment segment) {
+        ByteBuffer buffer = segment.buffer;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        long count = 0;
+        int position = HEADER_SIZE;
+        while (position + RECORD_HEADER_SIZE <= segment.capacity) {
+            int length = (int) LENGTH.getAcquire(buffer, position);
+            if (length <= 0 || position + length > segment.capacity || !intact(buffer, position, length)) {
+                break;
+            }
+            long timestamp = buffer.getLong(position + 8);
+            min = Math.min(min, timestamp);
+            max = Math.max(max, timestamp);
+            count++;
+            position += align(length);
+        }
+        buffer.putLong(MIN_OFFSET, min);
+        buffer.putLong(MAX_OFFSET, max);
+        buffer.putLong(COUNT_OFFSET, count);
+        buffer.putLong(CONTENT_END_OFFSET, position);
+        buffer.putInt(FLAGS_OFFSET, FLAG_SEALED);
+        ((MappedByteBuffer) buffer).force();
+        segment.minMicros = min;
+        segment.maxMicros = max;
+        segment.count = count;
+        segment.contentEnd = position;
+        segment.sealed = true;
+    }
+
+    private static boolean intact(ByteBuffer buffer, int position, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(position + 8, length - 8));
+        return buffer.getInt(position + 4) == (int) crc.getValue();
+    }
+
+    /** Writes {@code run} into a single file in place of its first segment, if that saves anything. */
+    private void merge(List<Segment> run, List<Segment> added, List<Segment> removed) throws IOException {
+        if (run.isEmpty() || run.size() == 1 && run.getFirst().capacity == run.getFirst().contentEnd) {
+            return;
+        }
+        Segment first = run.getFirst();
+        Segment last = run.getLast();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(0, MAGIC);
+        header.putInt(4, FORMAT_VERSION);
+        header.putInt(FLAGS_OFFSET, FLAG_SEALED);
+        header.putLong(NUMBER_OFFSET, first.number);
+        header.putLong(LAST_NUMBER_OFFSET, last.lastNumber);
+        header.putLong(MIN_OFFSET, run.stream().filter(segment -> segment.count > 0).mapToLong(segment -> segment.minMicros)
+                .min().orElse(Long.MAX_VALUE));
+        header.putLong(MAX_OFFSET, run.stream().filter(segment -> segment.count > 0).mapToLong(segment -> segment.maxMicros)
+                .max().orElse(Long.MIN_VALUE));
+        header.putLong(COUNT_OFFSET, run.stream().mapToLong(segment -> segment.count).sum());
+        header.putLong(CONTENT_END_OFFSET, HEADER_SIZE + run.stream().mapToLong(segment -> segment.contentEnd - HEADER_SIZE).sum());
+        Path temporary = directory.resolve(fileName(first.number) + TEMPORARY_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            writeFully(channel, header);
+            for (Segment segment : run) {
+                writeFully(channel, segment.buffer.slice(HEADER_SIZE, segment.contentEnd - HEADER_SIZE));
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, first.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        added.add(load(first.path));
+        removed.addAll(run);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /** Loads the segments of a previous run, oldest first, sealing those it left open. */
+    private List<Segment> recover() throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*")) {
+            for (Path path : files) {
+                String name = path.getFileName().toString();
+                if (name.endsWith(TEMPORARY_SUFFIX)) {
+                    Files.delete(path);
+                } else if (name.endsWith(SUFFIX)) {
+                    paths.add(path);
+                }
+            }
+        }
+        paths.sort(Comparator.naturalOrder());
+        List<Segment> recovered = new ArrayList<>();
+        for (Path path : paths) {
+            Segment segment = load(path);
+            if (segment == null) {
+                // Created but never written to before the previous run stopped
+                Files.delete(path);
+                continue;
+            }
+            if (!recovered.isEmpty() && segment.number <= recovered.getLast().lastNumber) {
+                // Already merged into the previous file by a compaction interrupted before its deletes
+                Files.delete(path);
+                continue;
+            }
+            if (!segment.sealed) {
+                seal(segment);
+            }
+            recovered.add(segment);
+        }
+        return recovered;
+    }
+
+    /** Maps a segment file, or returns {@code null} for one whose header was never written. */
+    private static Segment load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() < HEADER_SIZE) {
+                return null;
+            }
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Audit segment too large: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            if (buffer.getInt(0) == 0) {
+                return null;
+            }
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+                throw new IOException("Not an audit segment: " + path);
+            }
+            Segment segment = new Segment(buffer.getLong(NUMBER_OFFSET), buffer.getLong(LAST_NUMBER_OFFSET), path, buffer);
+            if ((buffer.getInt(FLAGS_OFFSET) & FLAG_SEALED) != 0) {
+                segment.minMicros = buffer.getLong(MIN_OFFSET);
+                segment.maxMicros = buffer.getLong(MAX_OFFSET);
+                segment.count = buffer.getLong(COUNT_OFFSET);
+                segment.contentEnd = (int) buffer.getLong(CONTENT_END_OFFSET);
+                segment.sealed = true;
+            }
+            return segment;
+        }
+    }
+
+    private static String fileName(long number) {
+        return PREFIX + String.format("%020d", number) + SUFFIX;
+    }
+
+    private static int align(int length) {
+        return (length + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    private static final class Segment {
+
+        final long number;
+
+        // Last segment number covered, past number once merged
+        final long lastNumber;
+
+        final Path path;
+
+        final MappedByteBuffer buffer;
+
+        final int capacity;
+
+        final AtomicLong reserved = new AtomicLong(HEADER_SIZE);
+
+        // Bytes written and published, including the unused tail once the segment is full
+        final AtomicLong completed = new AtomicLong();
+
+        long synced;
+
+        volatile boolean rollFailed;
+
+        // Set before sealed, read after it
+        long minMicros;
+        long maxMicros;
+        long count;
+        int contentEnd;
+
+        volatile boolean sealed;
+
+        Segment(long number, long lastNumber, Path path, MappedByteBuffer buffer) {
+            this.number = number;
+            this.lastNumber = lastNumber;
+            this.path = path;
+            this.buffer = buffer;
+            this.capacity = buffer.capacity();
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package com.api.bookmanagement.util;
 
-import com.api.bookmanagement.domain.Author;
 import com.api.bookmanagement.domain.Book;
+import com.api.bookmanagement.event.jfr.RatingCalculationEvent;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
@@ -12,8 +12,30 @@ public class BookRatingCalculator {
 
     // Calculate book rating based on publication date and author
     public double calculateRating(Book book) {
-        double publicationDateScore = calculatePublicationDateScore(book.getPublicationDate());
-        double authorScore = calculateAuthorScore(book.getAuthor());
+        return recordRating(book.getId(), book.getPublicationDate(), book.getAuthor().getFollowersNumber());
+    }
+
+    // Same rating from the raw columns, for callers working on aggregated rows
+    public double calculateRating(LocalDate publicationDate, int authorFollowers) {
+        return recordRating(null, publicationDate, authorFollowers);
+    }
+
+    private double recordRating(Long bookId, LocalDate publicationDate, int authorFollowers) {
+        RatingCalculationEvent event = new RatingCalculationEvent();
+        event.begin();
+        double rating = rate(publicationDate, authorFollowers);
+        if (event.shouldCommit()) {
+            event.bookId = bookId == null ? 0 : bookId;
+            event.authorFollowers = authorFollowers;
+            event.rating = rating;
+            event.commit();
+        }
+        return rating;
+    }
+
+    private double rate(LocalDate publicationDate, int authorFollowers) {
+        double publicationDateScore = calculatePublicationDateScore(publicationDate);
+        double authorScore = calculateAuthorScore(authorFollowers);
 
         return (publicationDateScore * 0.6) + (authorScore * 0.4);
     }
@@ -31,9 +53,7 @@ public class BookRatingCalculator {
         }
     }
 
-    private double calculateAuthorScore(Author author) {
-        int followers = author.getFollowersNumber();
-
+    private double calculateAuthorScore(int followers) {
         if (followers > 1000) {
             return 10.0;
         } else if (followers > 500) {
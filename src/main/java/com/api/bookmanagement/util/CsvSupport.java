@@ -0,0 +1,92 @@
+package com.api.bookmanagement.util;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 support for the catalog export and import: quoted fields may contain
+ * separators, doubled quotes and line breaks.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class CsvSupport {
+
+    public static void appendField(StringBuilder line, Object value) {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            line.append(text);
+            return;
+        }
+        line.append('"').append(text.replace("\"", "\"\"")).append('"');
+    }
+
+    /**
+     * Reads one record at a time from a buffered reader, so uploads are never held in memory.
+     */
+    public static class RecordReader {
+
+        private final BufferedReader reader;
+        private long line = 1;
+        private long recordLine;
+
+        public RecordReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        /** Line on which the last returned record started. */
+        public long getRecordLine() {
+            return recordLine;
+        }
+
+        /** Returns the next record, or {@code null} at end of input. */
+        public List<String> next() throws IOException {
+            recordLine = line;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean sawData = false;
+            int c;
+            while ((c = reader.read()) != -1) {
+                sawData = true;
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        if (reader.read() == '"') {
+                            field.append('"');
+                        } else {
+                            reader.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    line++;
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+            }
+            if (!sawData) {
+                return null;
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.api.bookmanagement.util;
+
+import com.api.bookmanagement.domain.Tombstone;
+import com.api.bookmanagement.dto.DeltaPageDTO;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class DeltaPages {
+
+    public static final int MAX_PAGE_SIZE = 5000;
+
+    public static int pageSize(int requested) {
+        return Math.max(1, Math.min(requested, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Merges changed rows and tombstones, both already sorted by their {@code (timestamp, id)}
+     * keyset and fetched with the same limit, into one page that keeps that order. An empty page
+     * hands the {@code (since, afterId)} cursor back, for the client to poll again from there.
+     */
+    public static <E, D> DeltaPageDTO<D> merge(Instant since, long afterId, List<E> changed, Function<E, Instant> updatedAt,
+                                                Function<E, Long> id, Function<E, D> mapper, List<Tombstone> deleted,
+                                                int limit) {
+        List<D> changedOutput = new ArrayList<>();
+        List<Long> deletedOutput = new ArrayList<>();
+        Instant lastTimestamp = since;
+        Long lastId = afterId;
+        int c = 0;
+        int d = 0;
+        while (c + d < limit && (c < changed.size() || d < deleted.size())) {
+            boolean takeChanged = d == deleted.size()
+                    || (c < changed.size() && compare(updatedAt.apply(changed.get(c)), id.apply(changed.get(c)),
+                    deleted.get(d).getDeletedAt(), deleted.get(d).getEntityId()) <= 0);
+            if (takeChanged) {
+                E entity = changed.get(c++);
+                changedOutput.add(mapper.apply(entity));
+                lastTimestamp = updatedAt.apply(entity);
+                lastId = id.apply(entity);
+            } else {
+                Tombstone tombstone = deleted.get(d++);
+                deletedOutput.add(tombstone.getEntityId());
+                lastTimestamp = tombstone.getDeletedAt();
+                lastId = tombstone.getEntityId();
+            }
+        }
+        boolean hasMore = c < changed.size() || d < deleted.size()
+                || changed.size() == limit || deleted.size() == limit;
+        return new DeltaPageDTO<>(changedOutput, deletedOutput, lastTimestamp, lastId, hasMore);
+    }
+
+    /** Order of the {@code (timestamp, id)} keyset, to merge rows read from several shards. */
+    public static <E> Comparator<E> keysetOrder(Function<E, Instant> timestamp, Function<E, Long> id) {
+        return Comparator.comparing(timestamp).thenComparing(id);
+    }
+
+    private static int compare(Instant leftTimestamp, Long leftId, Instant rightTimestamp, Long rightId) {
+        int byTimestamp = leftTimestamp.compareTo(rightTimestamp);
+        return byTimestamp != 0 ? byTimestamp : leftId.compareTo(rightId);
+    }
+}
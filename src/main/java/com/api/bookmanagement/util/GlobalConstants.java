@@ -12,23 +12,53 @@ public class GlobalConstants {
 
     public static final String URI_TECHNICAL_EXCEPTION = "/problem/technical-exception";
     public static final String URI_FUNCTIONAL_EXCEPTION = "/problem/functional-exception";
+    public static final String URI_NOT_FOUND_EXCEPTION = "/problem/not-found";
+    public static final String URI_UPSTREAM_UNAVAILABLE_EXCEPTION = "/problem/upstream-unavailable";
 
     /**
      * codes messages
      */
     public static final String ERROR_WS_TECHNICAL = "error.ws.technical";
+    public static final String ERROR_OPENLIBRARY_UNAVAILABLE = "error.openlibrary.unavailable";
 
     /**
      * Book error messages
      */
     public static final String ERROR_BOOK_NOT_FOUND_ID = "error.book.not_found_id";
+    public static final String ERROR_BOOK_NOT_FOUND_IDS = "error.book.not_found_ids";
     public static final String ERROR_BOOK_NOT_FOUND_TITLE = "error.book.not_found_title";
     public static final String ERROR_BOOK_NOT_FOUND_ISBN = "error.book.not_found_isbn";
+    public static final String ERROR_BOOK_DUPLICATE_ISBN = "error.book.duplicate_isbn";
+    public static final String ERROR_BOOK_AUTHOR_OTHER_SHARD = "error.book.author_other_shard";
     
     /**
      * Author error messages
      */
     public static final String ERROR_AUTHOR_NOT_FOUND_ID = "error.author.not_found_id";
+    public static final String ERROR_AUTHOR_NOT_FOUND_IDS = "error.author.not_found_ids";
+
+    /**
+     * Catalog transfer error messages
+     */
+    public static final String ERROR_TRANSFER_UNSUPPORTED_FORMAT = "error.transfer.unsupported_format";
+
+    /**
+     * Flight recording error messages
+     */
+    public static final String ERROR_RECORDING_RUNNING = "error.recording.running";
+    public static final String ERROR_RECORDING_NOT_FOUND = "error.recording.not_found";
+    public static final String ERROR_RECORDING_NOT_RUNNING = "error.recording.not_running";
+
+    /**
+     * Delta sync error messages
+     */
+    public static final String ERROR_DELTA_CURSOR_EXPIRED = "error.delta.cursor_expired";
+
+    /**
+     * Audit error messages
+     */
+    public static final String ERROR_AUDIT_DISABLED = "error.audit.disabled";
+    public static final String ERROR_AUDIT_INVALID_RANGE = "error.audit.invalid_range";
 
     /**
      * Security error messages
@@ -0,0 +1,28 @@
+package com.api.bookmanagement.util;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class Isbns {
+
+    /**
+     * Canonical form used for storage and lookups: digits and an upper-case check character only,
+     * so "978-0-441-56959-2" and "9780441569592" hit the same index entry. Blank input gives null.
+     */
+    public static String normalize(String isbn) {
+        if (isbn == null) {
+            return null;
+        }
+        StringBuilder output = new StringBuilder(isbn.length());
+        for (int i = 0; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (c >= '0' && c <= '9') {
+                output.append(c);
+            } else if (c == 'x' || c == 'X') {
+                output.append('X');
+            }
+        }
+        return output.isEmpty() ? null : output.toString();
+    }
+}
@@ -0,0 +1,37 @@
+package com.api.bookmanagement.util;
+
+import java.util.Arrays;
+
+/**
+ * Last {@code size} latency samples, for percentile estimates. Sorting a copy on each read is
+ * cheap at the few hundred samples this is meant for.
+ */
+public class LatencyWindow {
+
+    private final long[] samples;
+    private int next;
+    private int count;
+
+    public LatencyWindow(int size) {
+        this.samples = new long[size];
+    }
+
+    public synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+    }
+
+    /** Returns the {@code percentile} (0 to 1) of the recorded samples, or -1 below {@code minimumSamples}. */
+    public long percentile(double percentile, int minimumSamples) {
+        long[] sorted;
+        synchronized (this) {
+            if (count < Math.max(1, minimumSamples)) {
+                return -1;
+            }
+            sorted = Arrays.copyOf(samples, count);
+        }
+        Arrays.sort(sorted);
+        return sorted[Math.min(count - 1, (int) Math.ceil(percentile * count) - 1)];
+    }
+}
@@ -0,0 +1,131 @@
+package com.api.bookmanagement.util;
+
+import com.api.bookmanagement.dto.IsbnMetadataDTO;
+import com.api.bookmanagement.exception.TechnicalException;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Token-level reading of OpenLibrary books API responses ({@code jscmd=data}). Nothing is bound to
+ * a tree: fields we do not use are skipped with {@link JsonParser#skipChildren()}, which only
+ * tracks nesting depth.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class OpenLibraryParser {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final String BIBKEY_PREFIX = "ISBN:";
+
+    /**
+     * Splits a response into the raw JSON of each record, keyed by normalized ISBN. Records are
+     * sliced out of the body by byte offset, so their text is kept exactly as sent upstream.
+     */
+    public static Map<String, String> splitRecords(byte[] body) {
+        Map<String, String> output = new HashMap<>();
+        if (body == null || body.length == 0) {
+            return output;
+        }
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new TechnicalException("Unexpected OpenLibrary response");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String bibkey = parser.currentName();
+                if (parser.nextToken() == JsonToken.START_OBJECT && bibkey.startsWith(BIBKEY_PREFIX)) {
+                    int start = (int) parser.currentTokenLocation().getByteOffset();
+                    parser.skipChildren();
+                    int end = (int) parser.currentLocation().getByteOffset();
+                    output.put(Isbns.normalize(bibkey.substring(BIBKEY_PREFIX.length())),
+                            new String(body, start, end - start, StandardCharsets.UTF_8));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw new TechnicalException(e.getMessage());
+        }
+        return output;
+    }
+
+    /** Reads title, author names, publish date and identifiers from one record. */
+    public static IsbnMetadataDTO parseRecord(String isbn, String record) {
+        IsbnMetadataDTO output = new IsbnMetadataDTO(isbn, null, new ArrayList<>(), null, new LinkedHashMap<>());
+        try (JsonParser parser = JSON_FACTORY.createParser(record)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new TechnicalException("Unexpected OpenLibrary record");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "title" -> output.setTitle(value == JsonToken.VALUE_STRING ? parser.getText() : null);
+                    case "publish_date" -> output.setPublishDate(value == JsonToken.VALUE_STRING ? parser.getText() : null);
+                    case "authors" -> readAuthors(parser, output.getAuthors());
+                    case "identifiers" -> readIdentifiers(parser, output.getIdentifiers());
+                    default -> parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw new TechnicalException(e.getMessage());
+        }
+        return output;
+    }
+
+    // [{"url": ..., "name": ...}, ...]
+    private static void readAuthors(JsonParser parser, List<String> authors) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                boolean name = "name".equals(parser.currentName());
+                if (parser.nextToken() == JsonToken.VALUE_STRING && name) {
+                    authors.add(parser.getText());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    // {"isbn_10": ["..."], "openlibrary": ["..."], ...}
+    private static void readIdentifiers(JsonParser parser, Map<String, List<String>> identifiers) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String type = parser.currentName();
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                continue;
+            }
+            List<String> values = new ArrayList<>(1);
+            for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                if (token == JsonToken.VALUE_STRING) {
+                    values.add(parser.getText());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            identifiers.put(type, values);
+        }
+    }
+}
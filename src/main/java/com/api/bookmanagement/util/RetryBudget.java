@@ -0,0 +1,32 @@
+package com.api.bookmanagement.util;
+
+/**
+ * Caps retries, hedges included, to a fraction of the traffic: every request deposits
+ * {@code ratio} of a token, every retry spends a whole one, and at most {@code maxTokens} are kept.
+ * A failing upstream therefore sees at most {@code 1 + ratio} times the normal load instead of
+ * a retry storm.
+ */
+public class RetryBudget {
+
+    private final double ratio;
+    private final double maxTokens;
+    private double tokens;
+
+    public RetryBudget(double ratio, int maxTokens) {
+        this.ratio = ratio;
+        this.maxTokens = maxTokens;
+        this.tokens = maxTokens;
+    }
+
+    public synchronized void onRequest() {
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    public synchronized boolean tryRetry() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+}
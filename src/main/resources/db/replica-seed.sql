@@ -0,0 +1,9 @@
+-- Rows only the local read replicas hold: seeing them means the read was served by a replica.
+INSERT INTO author (id, name, age, followers_number, updated_at) VALUES
+    (1, 'Replica Author One', 45, 1200, TIMESTAMP WITH TIME ZONE '2024-01-01 00:00:00+00'),
+    (2, 'Replica Author Two', 62, 300, TIMESTAMP WITH TIME ZONE '2024-01-01 00:00:00+00');
+
+INSERT INTO book (id, title, isbn, author_id, publication_date, type, updated_at) VALUES
+    (1, 'Replica Book One', NULL, 1, DATE '1998-05-01', 'novel', TIMESTAMP WITH TIME ZONE '2024-01-01 00:00:00+00'),
+    (2, 'Replica Book Two', NULL, 1, DATE '2004-09-15', 'essay', TIMESTAMP WITH TIME ZONE '2024-01-01 00:00:00+00'),
+    (3, 'Replica Book Three', NULL, 2, DATE '2015-03-20', 'novel', TIMESTAMP WITH TIME ZONE '2024-01-01 00:00:00+00');
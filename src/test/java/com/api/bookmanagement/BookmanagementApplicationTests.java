@@ -1,13 +1,43 @@
 package com.api.bookmanagement;
 
+import com.api.bookmanagement.config.ShardRouter;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
 class BookmanagementApplicationTests {
 
+	@Autowired
+	private ApplicationContext applicationContext;
+
+	@Autowired
+	private ShardRouter shardRouter;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void applicationTaskExecutor_ShouldBeKeptNextToTheNamedExecutors() {
+		assertInstanceOf(AsyncTaskExecutor.class, applicationContext.getBean("applicationTaskExecutor"));
+	}
+
+	@Test
+	void onShardReadOnly_ShouldOpenAReadOnlyTransactionOnAnotherThread() {
+		boolean readOnly = CompletableFuture.supplyAsync(() -> shardRouter.onShardReadOnly(0, () ->
+				TransactionSynchronizationManager.isActualTransactionActive()
+						&& TransactionSynchronizationManager.isCurrentTransactionReadOnly())).join();
+
+		assertTrue(readOnly);
+	}
+
 }
@@ -0,0 +1,39 @@
+package com.api.bookmanagement.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MessagesTest {
+
+    private Messages messages;
+
+    @BeforeEach
+    void setUp() {
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.addMessage("error.book.not_found_id", Locale.ENGLISH, "Book not found with id: {0}");
+        messageSource.addMessage("error.two", Locale.ENGLISH, "{1} before {0}.");
+        messageSource.addMessage("error.quoted", Locale.ENGLISH, "Can''t find {0}");
+        messageSource.addMessage("error.plain", Locale.ENGLISH, "Invalid or missing API key");
+        messages = new Messages(messageSource);
+        ReflectionTestUtils.invokeMethod(messages, "init");
+    }
+
+    @Test
+    void get_ShouldFillPlaceholdersFromCompiledTemplate() {
+        assertEquals("Book not found with id: 12345", messages.get("error.book.not_found_id", 12345L));
+        assertEquals("Book not found with id: 7", messages.get("error.book.not_found_id", 7L));
+        assertEquals("b before a.", messages.get("error.two", "a", "b"));
+        assertEquals("Invalid or missing API key", messages.get("error.plain"));
+    }
+
+    @Test
+    void get_ShouldFallBackToMessageFormatForQuotedMessages() {
+        assertEquals("Can't find it", messages.get("error.quoted", "it"));
+    }
+}
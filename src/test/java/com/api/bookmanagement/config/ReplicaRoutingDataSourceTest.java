@@ -0,0 +1,106 @@
+package com.api.bookmanagement.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource firstReplica;
+
+    @Mock
+    private DataSource secondReplica;
+
+    @Mock
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection firstConnection = mock(Connection.class);
+    private final Connection secondConnection = mock(Connection.class);
+
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ReplicaRoutingDataSource(primary, List.of(firstReplica, secondReplica), readYourWritesTracker, 1);
+    }
+
+    @Test
+    void getConnection_ShouldAlternateBetweenReplicas() throws SQLException {
+        when(firstReplica.getConnection()).thenReturn(firstConnection);
+        when(secondReplica.getConnection()).thenReturn(secondConnection);
+
+        assertSame(firstConnection, dataSource.getConnection());
+        assertSame(secondConnection, dataSource.getConnection());
+        assertSame(firstConnection, dataSource.getConnection());
+    }
+
+    @Test
+    void getConnection_ShouldUsePrimaryWithinReadYourWritesWindow() throws SQLException {
+        when(readYourWritesTracker.isWithinWindow()).thenReturn(true);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, dataSource.getConnection());
+    }
+
+    @Test
+    void getConnection_ShouldSkipFailingReplicaUntilHealthCheckPasses() throws SQLException {
+        when(firstReplica.getConnection()).thenThrow(new SQLException("down"));
+        when(secondReplica.getConnection()).thenReturn(secondConnection);
+        when(secondConnection.isValid(1)).thenReturn(true);
+
+        assertSame(secondConnection, dataSource.getConnection());
+        assertFalse(dataSource.isHealthy(0));
+        assertSame(secondConnection, dataSource.getConnection());
+
+        dataSource.checkHealth();
+
+        assertFalse(dataSource.isHealthy(0));
+        assertTrue(dataSource.isHealthy(1));
+    }
+
+    @Test
+    void getConnection_ShouldFallBackToPrimaryWhenNoReplicaIsHealthy() throws SQLException {
+        when(firstReplica.getConnection()).thenThrow(new SQLException("down"));
+        when(secondReplica.getConnection()).thenThrow(new SQLException("down"));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertSame(primaryConnection, dataSource.getConnection());
+    }
+
+    @Test
+    void getConnectionWithCredentials_ShouldBeRoutedLikeTheOthers() throws SQLException {
+        when(firstReplica.getConnection("reader", "secret")).thenReturn(firstConnection);
+        when(secondReplica.getConnection("reader", "secret")).thenThrow(new SQLFeatureNotSupportedException("no"));
+        when(primary.getConnection("reader", "secret")).thenReturn(primaryConnection);
+
+        assertSame(firstConnection, dataSource.getConnection("reader", "secret"));
+        assertThrows(SQLFeatureNotSupportedException.class, () -> dataSource.getConnection("reader", "secret"));
+        assertTrue(dataSource.isHealthy(1));
+
+        when(readYourWritesTracker.isWithinWindow()).thenReturn(true);
+
+        assertSame(primaryConnection, dataSource.getConnection("reader", "secret"));
+    }
+}
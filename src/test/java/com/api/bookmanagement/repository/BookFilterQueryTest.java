@@ -0,0 +1,176 @@
+package com.api.bookmanagement.repository;
+
+import com.api.bookmanagement.domain.Author;
+import com.api.bookmanagement.domain.Book;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The filtered listing reads the composite indexes: the SQL Hibernate generates for each filter
+ * shape is explained by H2, whose plan must name the index and the range conditions it scans;
+ * filtered by type, the rows must come off the index already sorted.
+ * With {@code -Dbenchmark.rows=N} the listing is also timed on a catalog of N books.
+ */
+@SpringBootTest(properties = {
+        "catalog.snapshot.enabled=false",
+        "isbn.enrichment.enabled=false",
+        "spring.jpa.show-sql=false",
+        // The poller's statements would replace the one explained
+        "cache.invalidation.poll-interval-ms=3600000",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.api.bookmanagement.repository.BookFilterQueryTest$LastStatement"})
+@Slf4j
+class BookFilterQueryTest {
+
+    private static final String[] TYPES = {"novel", "essay", "poetry", "biography", "comic"};
+    private static final LocalDate FIRST_DATE = LocalDate.of(1900, 1, 1);
+    private static final int DAYS = 365 * 120;
+
+    /** Keeps the last SQL statement Hibernate prepared. */
+    public static class LastStatement implements StatementInspector {
+
+        static volatile String sql;
+
+        @Override
+        public String inspect(String sql) {
+            LastStatement.sql = sql;
+            return sql;
+        }
+    }
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // A million rows deleted in one transaction exhaust the in-memory database; nothing references books
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("TRUNCATE TABLE book");
+        authorRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void findPublished_ByTypeAndDateRange_ShouldScanTheTypeIndexRange() {
+        catalog(50, 5_000);
+
+        List<Book> books = bookRepository.findPublished("essay", null, LocalDate.of(1950, 1, 1), LocalDate.of(1960, 12, 31),
+                null, 0, 100);
+
+        assertTrue(books.stream().allMatch(book -> book.getType().equals("essay")
+                && !book.getPublicationDate().isBefore(LocalDate.of(1950, 1, 1))
+                && !book.getPublicationDate().isAfter(LocalDate.of(1960, 12, 31))));
+        assertIndexRangeScan("IDX_BOOK_TYPE_PUBLICATION_DATE", "TYPE = ?", "PUBLICATION_DATE >= ?", "PUBLICATION_DATE <= ?");
+        assertTrue(plan().contains("INDEX SORTED"), plan());
+    }
+
+    @Test
+    void findPublished_ByTypeAfterACursor_ShouldScanTheTypeIndexFromTheCursor() {
+        catalog(50, 5_000);
+        List<Book> firstPage = bookRepository.findPublished("novel", null, null, null, null, 0, 10);
+        Book last = firstPage.get(firstPage.size() - 1);
+
+        List<Book> nextPage = bookRepository.findPublished("novel", null, null, null, last.getPublicationDate(), last.getId(), 10);
+
+        assertTrue(nextPage.stream().allMatch(book -> book.getPublicationDate().isAfter(last.getPublicationDate())
+                || (book.getPublicationDate().equals(last.getPublicationDate()) && book.getId() > last.getId())));
+        assertIndexRangeScan("IDX_BOOK_TYPE_PUBLICATION_DATE", "TYPE = ?", "PUBLICATION_DATE >= ?");
+        assertTrue(plan().contains("INDEX SORTED"), plan());
+    }
+
+    @Test
+    void findPublished_ByAuthorAndDateRange_ShouldScanTheAuthorIndexRange() {
+        List<Long> authorIds = catalog(50, 5_000);
+
+        List<Book> books = bookRepository.findPublished(null, authorIds.get(7), LocalDate.of(1950, 1, 1), null, null, 0, 100);
+
+        assertTrue(books.stream().allMatch(book -> book.getAuthor().getId().equals(authorIds.get(7))));
+        // H2 binds the author id on the joined author's primary key and scans the index from it
+        assertIndexRangeScan("IDX_BOOK_AUTHOR_PUBLICATION_DATE", "AUTHOR_ID = A1_0.ID", "PUBLICATION_DATE >= ?");
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark.rows", matches = "\\d+")
+    void findPublished_Benchmark() {
+        int rows = Integer.parseInt(System.getProperty("benchmark.rows"));
+        long start = System.nanoTime();
+        List<Long> authorIds = catalog(1_000, rows);
+        log.info("Inserted {} books in {} ms", rows, (System.nanoTime() - start) / 1_000_000);
+
+        time("type + 10 years", () -> bookRepository.findPublished("essay", null, LocalDate.of(1950, 1, 1),
+                LocalDate.of(1959, 12, 31), null, 0, 100));
+        time("type, deep cursor", () -> bookRepository.findPublished("essay", null, null, null,
+                LocalDate.of(2010, 1, 1), 0, 100));
+        time("author + from", () -> bookRepository.findPublished(null, authorIds.get(500), LocalDate.of(1950, 1, 1),
+                null, null, 0, 100));
+        time("type + author + 10 years", () -> bookRepository.findPublished("essay", authorIds.get(500),
+                LocalDate.of(1950, 1, 1), LocalDate.of(1959, 12, 31), null, 0, 100));
+    }
+
+    private void time(String label, Runnable query) {
+        for (int i = 0; i < 20; i++) {
+            query.run();
+        }
+        int runs = 200;
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            query.run();
+        }
+        log.info("{}: {} us per page, plan: {}", label, (System.nanoTime() - start) / 1_000 / runs, plan());
+    }
+
+    // The comment H2 writes after the book table names the index it scans and the conditions of the range
+    private void assertIndexRangeScan(String index, String... conditions) {
+        String plan = plan();
+        int table = plan.indexOf("BOOK B1_0");
+        String scan = plan.substring(plan.indexOf("/*", table), plan.indexOf("*/", table));
+        assertTrue(scan.contains(index), plan);
+        for (String condition : conditions) {
+            assertTrue(scan.contains(condition), plan);
+        }
+    }
+
+    // H2 explains a statement with its parameters unbound
+    private String plan() {
+        return jdbcTemplate.queryForObject("EXPLAIN " + LastStatement.sql, String.class)
+                .replace("\"", "").replace("PUBLIC.", "").replace("B1_0.", "").toUpperCase(Locale.ROOT);
+    }
+
+    // Authors are created through JPA, books through JDBC batches: a large catalog loads in seconds
+    private List<Long> catalog(int authors, int books) {
+        List<Long> authorIds = new ArrayList<>();
+        for (int i = 0; i < authors; i++) {
+            authorIds.add(authorRepository.save(new Author(null, "Author " + i, 40, i, new HashSet<>(), null)).getId());
+        }
+        int batchSize = 10_000;
+        for (int from = 0; from < books; from += batchSize) {
+            List<Object[]> batch = new ArrayList<>();
+            for (int i = from; i < Math.min(books, from + batchSize); i++) {
+                batch.add(new Object[]{"Book " + i, authorIds.get(i % authors), TYPES[i % TYPES.length],
+                        Date.valueOf(FIRST_DATE.plusDays((i * 7919L) % DAYS))});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO book (title, author_id, type, publication_date) VALUES (?, ?, ?, ?)", batch);
+        }
+        jdbcTemplate.execute("ANALYZE TABLE book");
+        return authorIds;
+    }
+}
@@ -0,0 +1,345 @@
+package com.api.bookmanagement.resource;
+
+import com.api.bookmanagement.domain.Author;
+import com.api.bookmanagement.domain.Book;
+import com.api.bookmanagement.domain.IsbnMetadata;
+import com.api.bookmanagement.repository.AuthorRepository;
+import com.api.bookmanagement.repository.BookRepository;
+import com.api.bookmanagement.repository.IsbnMetadataRepository;
+import com.api.bookmanagement.repository.TombstoneRepository;
+import com.api.bookmanagement.resource.SqlStatementCounter.Counts;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Exact statement counts of every book and author endpoint, on a cold second-level cache, for
+ * catalogs of several sizes. The expected counts do not depend on the size: a change that adds
+ * a query, or a query per row, fails here. Background writers and pollers are kept out of the
+ * way so only the request's own statements are counted; writes include their cache
+ * invalidation record.
+ */
+@SpringBootTest(properties = {
+        "catalog.snapshot.enabled=false",
+        "isbn.enrichment.enabled=false",
+        "followers.flush-interval-ms=3600000",
+        "cache.invalidation.poll-interval-ms=3600000",
+        "cache.invalidation.prune-interval-ms=3600000"})
+@AutoConfigureMockMvc
+class ControllerStatementCountTest {
+
+    private static final String API_KEY = "aedz-151-ftyh-554";
+    private static final int BOOKS_PER_AUTHOR = 3;
+    private static final String ISBN = "9780140328721";
+
+    @TestConfiguration
+    static class CounterConfig {
+
+        @Bean
+        static SqlStatementCounter sqlStatementCounter() {
+            return new SqlStatementCounter();
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SqlStatementCounter counter;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private IsbnMetadataRepository isbnMetadataRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Author> authors = new ArrayList<>();
+    private final List<Book> books = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAllInBatch();
+        authorRepository.deleteAllInBatch();
+        tombstoneRepository.deleteAllInBatch();
+        isbnMetadataRepository.deleteAllInBatch();
+    }
+
+    // Books
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void getAllBooks(int size) throws Exception {
+        catalog(size);
+        assertStatements(size, new Counts(1, 0, 0, 0), get("/api/books"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void getBooksModifiedSince(int size) throws Exception {
+        catalog(size);
+        assertStatements(size, new Counts(2, 0, 0, 0), get("/api/books").param("modifiedSince", Instant.EPOCH.toString()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void findBooksByType(int size) throws Exception {
+        catalog(size);
+        assertStatements(size, new Counts(1, 0, 0, 0), get("/api/books").param("type", "novel")
+                .param("publishedFrom", "1990-01-01").param("publishedTo", "1991-12-31").param("limit", "20"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void findBooksByAuthor(int size) throws Exception {
+        catalog(size);
+        assertStatements(size, new Counts(1, 0, 0, 0), get("/api/books").param("authorId", lastAuthor().toString())
+                .param("afterDate", "1990-01-01").param("afterId", lastBook().toString()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void getBookById(int size) throws Exception {
+        catalog(size);
+        assertStatements(size, new Counts(1, 0, 0, 0), get("/api/books/{id}", lastBook()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void getBookByTitle(int size) throws Exception {
+        catalog(size);
+        assertStatements(size, new Counts(1, 0, 0, 0), get("/api/books/title/{title}", books.get(books.size() - 1).getTitle()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void createBook(int size) throws Exception {
+        catalog(size);
+        assertStatements(size, new Counts(1, 2, 0, 0), post("/api/books").contentType(MediaType.APPLICATION_JSON)
+                .content(bookJson("New book", lastAuthor())));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void updateBook(int size) throws Exception {
+        catalog(size);
+        assertStatements(size, new Counts(2, 1, 1, 0), put("/api/books/{id}", lastBook()).contentType(MediaType.APPLICATION_JSON)
+                .content(bookJson("Renamed book", lastAuthor())));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void deleteBook(int size) throws Exception {
+        catalog(size);
+        assertStatements(size, new Counts(1, 2, 0, 1), delete("/api/books/{id}", lastBook()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void deleteBooks(int size) throws Exception {
+        catalog(size);
+        assertStatements(size, new Counts(1, 2, 0, 1), delete("/api/books").param("ids", bookIds()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void getBookRating(int size) throws Exception {
+        catalog(size);
+        assertStatements(size, new Counts(1, 0, 0, 0), get("/api/books/{id}/rating", lastBook()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void getAuthorsByBookIds(int size) throws Exception {
+        catalog(size);
+        assertStatements(size, new Counts(1, 0, 0, 0), post("/api/books/authors").contentType(MediaType.APPLICATION_JSON)
+                .content("[" + bookIds() + "]"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void getAuthorsKeyedByBookIds(int size) throws Exception {
+        catalog(size);
+        assertStatements(size, new Counts(1, 0, 0, 0), post("/api/books/authors").param("keyed", "true")
+                .contentType(MediaType.APPLICATION_JSON).content("[" + bookIds() + "]"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void lookupBookByIsbn(int size) throws Exception {
+        catalog(size);
+        assertStatements(size, new Counts(1, 0, 0, 0), get("/api/books/isbn/{isbn}", ISBN));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void lookupRawBookByIsbn(int size) throws Exception {
+        catalog(size);
+        assertStatements(size, new Counts(1, 0, 0, 0), get("/api/books/isbn/{isbn}", ISBN).param("raw", "true"));
+    }
+
+    // Authors
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void getAllAuthors(int size) throws Exception {
+        catalog(size);
+        assertStatements(size, new Counts(1, 0, 0, 0), get("/api/authors"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void getAuthorsModifiedSince(int size) throws Exception {
+        catalog(size);
+        assertStatements(size, new Counts(2, 0, 0, 0), get("/api/authors").param("modifiedSince", Instant.EPOCH.toString()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void getAllAuthorsWithBooks(int size) throws Exception {
+        catalog(size);
+        assertStatements(size, new Counts(1, 0, 0, 0), get("/api/authors").param("include", "books"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void getAuthorById(int size) throws Exception {
+        catalog(size);
+        assertStatements(size, new Counts(1, 0, 0, 0), get("/api/authors/{id}", lastAuthor()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void getAuthorWithBooks(int size) throws Exception {
+        catalog(size);
+        assertStatements(size, new Counts(1, 0, 0, 0), get("/api/authors/{id}/books", lastAuthor()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void createAuthor(int size) throws Exception {
+        catalog(size);
+        assertStatements(size, new Counts(0, 2, 0, 0), post("/api/authors").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"New author\",\"age\":40,\"followersNumber\":10}"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void updateAuthor(int size) throws Exception {
+        catalog(size);
+        assertStatements(size, new Counts(1, 1, 1, 0), put("/api/authors/{id}", lastAuthor()).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Renamed author\",\"age\":41,\"followersNumber\":10}"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void followAuthor(int size) throws Exception {
+        catalog(size);
+        // The first follow looks the author up, the next ones stay in memory
+        assertStatements(size, new Counts(1, 0, 0, 0), post("/api/authors/{id}/follow", lastAuthor()));
+        assertStatements(size, new Counts(0, 0, 0, 0), post("/api/authors/{id}/follow", lastAuthor()));
+        assertStatements(size, new Counts(0, 0, 0, 0), post("/api/authors/{id}/unfollow", lastAuthor()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void deleteAuthor(int size) throws Exception {
+        catalog(size);
+        assertStatements(size, new Counts(1, 4, 0, 2), delete("/api/authors/{id}", lastAuthor()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void deleteAuthors(int size) throws Exception {
+        catalog(size);
+        String ids = authors.stream().map(author -> author.getId().toString()).collect(Collectors.joining(","));
+        assertStatements(size, new Counts(1, 4, 0, 2), delete("/api/authors").param("ids", ids));
+    }
+
+    // Catalog transfer
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void importCatalog(int size) throws Exception {
+        catalog(size);
+        StringBuilder csv = new StringBuilder("title,author_id,author_name\n");
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < BOOKS_PER_AUTHOR; j++) {
+                csv.append("Imported ").append(i).append('-').append(j).append(',').append(authors.get(i).getId()).append(",\n");
+            }
+            csv.append("Imported ").append(i).append(",,Imported author ").append(i).append('\n');
+        }
+        // Every book, every new author and the cache invalidation record are inserted; the
+        // authors are resolved by a constant number of queries
+        assertStatements(size, new Counts(7, size * (BOOKS_PER_AUTHOR + 2) + 1, 0, 0),
+                post("/api/import").contentType("text/csv").content(csv.toString()));
+    }
+
+    private void assertStatements(int size, Counts expected, MockHttpServletRequestBuilder request) throws Exception {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        counter.reset();
+        mockMvc.perform(request.header("api-key", API_KEY)).andExpect(status().is2xxSuccessful());
+        assertEquals(expected, counter.counts(), request.buildRequest(new MockServletContext()).getRequestURI() + " with " + size + " authors");
+    }
+
+    private void catalog(int size) {
+        for (int i = 0; i < size; i++) {
+            Author author = authorRepository.save(new Author(null, "Author " + size + "-" + i, 40, 100 * i, new HashSet<>(), null));
+            authors.add(author);
+            for (int j = 0; j < BOOKS_PER_AUTHOR; j++) {
+                books.add(bookRepository.save(new Book(null, "Book " + size + "-" + i + "-" + j, null, author,
+                        LocalDate.of(1990 + j, 1, 1), "novel", null)));
+            }
+        }
+        isbnMetadataRepository.save(new IsbnMetadata(ISBN, "{\"title\":\"Fantastic Mr Fox\"}", Instant.now()));
+    }
+
+    private Long lastAuthor() {
+        return authors.get(authors.size() - 1).getId();
+    }
+
+    private Long lastBook() {
+        return books.get(books.size() - 1).getId();
+    }
+
+    private String bookIds() {
+        return books.stream().map(book -> book.getId().toString()).collect(Collectors.joining(","));
+    }
+
+    private static String bookJson(String title, Long authorId) {
+        return "{\"title\":\"" + title + "\",\"authorId\":" + authorId + ",\"publicationDate\":\"2001-01-01\",\"type\":\"novel\"}";
+    }
+}
@@ -0,0 +1,134 @@
+package com.api.bookmanagement.resource;
+
+import com.api.bookmanagement.domain.IsbnMetadata;
+import com.api.bookmanagement.dto.AuthorDTO;
+import com.api.bookmanagement.dto.BookDTO;
+import com.api.bookmanagement.repository.IsbnMetadataRepository;
+import com.api.bookmanagement.service.CatalogStatsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "catalog.snapshot.enabled=false")
+@ActiveProfiles("reactive")
+class ReactiveBookControllerTest {
+
+    private static final String API_KEY = "aedz-151-ftyh-554";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private IsbnMetadataRepository isbnMetadataRepository;
+
+    @Autowired
+    private CatalogStatsService catalogStatsService;
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = webTestClient.mutate().defaultHeader("api-key", API_KEY).build();
+    }
+
+    @Test
+    void rejectsRequestsWithoutApiKey() {
+        webTestClient.get().uri("/api/books")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void createsReadsUpdatesAndDeletesBook() {
+        long books = catalogStatsService.getStats().getTotalBooks();
+        AuthorDTO author = client.post().uri("/api/authors")
+                .bodyValue(new AuthorDTO(null, "Reactive Author", 40, 600, null))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(AuthorDTO.class).returnResult().getResponseBody();
+        assertNotNull(author.getId());
+
+        BookDTO book = client.post().uri("/api/books")
+                .bodyValue(new BookDTO(null, "Reactive Book", null, author.getId(), null, LocalDate.now().minusYears(1), "NOVEL", null))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(BookDTO.class).returnResult().getResponseBody();
+        assertEquals("Reactive Author", book.getAuthorName());
+        assertNotNull(book.getUpdatedAt());
+        assertEquals(books + 1, catalogStatsService.getStats().getTotalBooks());
+
+        client.get().uri("/api/books/title/{title}", "Reactive Book")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BookDTO.class).isEqualTo(book);
+
+        List<BookDTO> streamed = client.get().uri("/api/books")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(BookDTO.class).getResponseBody()
+                .collectList().block();
+        assertTrue(streamed.contains(book));
+
+        Double rating = client.get().uri("/api/books/{id}/rating", book.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Double.class).returnResult().getResponseBody();
+        assertEquals(0.6 * 9.4 + 0.4 * 8.0, rating, 1e-9);
+
+        client.put().uri("/api/books/{id}", book.getId())
+                .bodyValue(new BookDTO(null, "Reactive Book 2", null, author.getId(), null, book.getPublicationDate(), "ESSAY", null))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.title").isEqualTo("Reactive Book 2");
+        assertEquals(1L, catalogStatsService.getStats().getBooksByAuthor().get(author.getId()));
+        assertEquals(books + 1, catalogStatsService.getStats().getTotalBooks());
+
+        client.post().uri("/api/books/authors")
+                .bodyValue(List.of(book.getId(), book.getId()))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(AuthorDTO.class).hasSize(1);
+
+        client.delete().uri("/api/authors/{id}", author.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+        assertEquals(books, catalogStatsService.getStats().getTotalBooks());
+
+        client.get().uri("/api/books/{id}", book.getId())
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void answersIsbnLookupFromLocalStore() {
+        isbnMetadataRepository.save(new IsbnMetadata("9780441569592", "{\"title\":\"Neuromancer\"}", Instant.now()));
+
+        client.get().uri("/api/books/isbn/{isbn}", "978-0-441-56959-2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.title").isEqualTo("Neuromancer");
+    }
+
+    @Test
+    void rejectsBookForUnknownAuthor() {
+        client.post().uri("/api/books")
+                .bodyValue(new BookDTO(null, "Orphan", null, -1L, null, LocalDate.now(), "NOVEL", null))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+}
@@ -0,0 +1,111 @@
+package com.api.bookmanagement.resource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Datasource proxy counting the statements executed through the application's {@code dataSource}
+ * bean, by kind. Each execution counts, whether of a plain, prepared or callable statement; each
+ * entry of a batch counts as one.
+ */
+class SqlStatementCounter implements BeanPostProcessor {
+
+    private final AtomicInteger selects = new AtomicInteger();
+    private final AtomicInteger inserts = new AtomicInteger();
+    private final AtomicInteger updates = new AtomicInteger();
+    private final AtomicInteger deletes = new AtomicInteger();
+
+    record Counts(int selects, int inserts, int updates, int deletes) {
+
+        @Override
+        public String toString() {
+            return "select=" + selects + " insert=" + inserts + " update=" + updates + " delete=" + deletes;
+        }
+    }
+
+    void reset() {
+        selects.set(0);
+        inserts.set(0);
+        updates.set(0);
+        deletes.set(0);
+    }
+
+    Counts counts() {
+        return new Counts(selects.get(), inserts.get(), updates.get(), deletes.get());
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+            return proxy(DataSource.class, dataSource, (target, method, args) -> {
+                Object result = method.invoke(target, args);
+                return result instanceof Connection connection ? connection(connection) : result;
+            });
+        }
+        return bean;
+    }
+
+    private Connection connection(Connection connection) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = method.invoke(target, args);
+            if (result instanceof Statement statement) {
+                String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                return statement(statement, sql);
+            }
+            return result;
+        });
+    }
+
+    private Statement statement(Statement statement, String preparedSql) {
+        Class<? extends Statement> type = statement instanceof java.sql.CallableStatement ? java.sql.CallableStatement.class
+                : statement instanceof java.sql.PreparedStatement ? java.sql.PreparedStatement.class : Statement.class;
+        return proxy(type, statement, (target, method, args) -> {
+            String name = method.getName();
+            if (name.equals("addBatch") || (name.startsWith("execute") && !name.equals("executeBatch"))) {
+                count(args != null && args.length > 0 && args[0] instanceof String sql ? sql : preparedSql);
+            }
+            return method.invoke(target, args);
+        });
+    }
+
+    private void count(String sql) {
+        if (sql == null) {
+            return;
+        }
+        String statement = sql.stripLeading().toLowerCase(Locale.ROOT);
+        if (statement.startsWith("select") || statement.startsWith("with")) {
+            selects.incrementAndGet();
+        } else if (statement.startsWith("insert") || statement.startsWith("merge")) {
+            inserts.incrementAndGet();
+        } else if (statement.startsWith("update")) {
+            updates.incrementAndGet();
+        } else if (statement.startsWith("delete")) {
+            deletes.incrementAndGet();
+        }
+    }
+
+    private interface Handler<T> {
+        Object invoke(T target, Method method, Object[] args) throws Throwable;
+    }
+
+    private static <T> T proxy(Class<? extends T> type, T target, Handler<T> handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> {
+            try {
+                return handler.invoke(target, method, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(SqlStatementCounter.class.getClassLoader(), new Class<?>[]{type},
+                invocationHandler));
+    }
+}
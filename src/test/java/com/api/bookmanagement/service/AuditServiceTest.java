@@ -0,0 +1,210 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.dto.BookDTO;
+import com.api.bookmanagement.event.EntityChangedEvent;
+import com.api.bookmanagement.event.EntityChangedEvent.ChangeType;
+import com.api.bookmanagement.event.EntityChangedEvent.EntityType;
+import com.api.bookmanagement.repository.AuthorRepository;
+import com.api.bookmanagement.repository.BookRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * With {@code -Dbenchmark.audits=N} the cost added to a write, encoding and append of its audit
+ * record, is also timed.
+ */
+@SpringBootTest(properties = {
+        "catalog.snapshot.enabled=false",
+        "isbn.enrichment.enabled=false",
+        "audit.enabled=true",
+        "audit.caller-secret=" + AuditServiceTest.CALLER_SECRET,
+        "followers.flush-interval-ms=3600000",
+        "followers.publish-interval=0s"})
+@AutoConfigureMockMvc
+@Slf4j
+class AuditServiceTest {
+
+    private static final String API_KEY = "aedz-151-ftyh-554";
+
+    static final String CALLER_SECRET = "test-audit-caller-secret";
+
+    @TempDir
+    static Path directory;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private FollowerCounterService followerCounterService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @DynamicPropertySource
+    static void auditDirectory(DynamicPropertyRegistry registry) {
+        registry.add("audit.directory", () -> directory.toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAllInBatch();
+        authorRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void readAudit_ShouldStreamTheChangesOfTheRangeWithTheirCaller() throws Exception {
+        Instant start = Instant.now();
+        long authorId = id(call(post("/api/authors"), "{\"name\":\"Ursula K. Le Guin\",\"age\":88}"));
+        long bookId = id(call(post("/api/books"), "{\"title\":\"The Dispossessed\",\"authorId\":" + authorId
+                + ",\"type\":\"novel\",\"publicationDate\":\"1974-05-01\"}"));
+        call(put("/api/books/" + bookId), "{\"title\":\"The Dispossessed: An Ambiguous Utopia\",\"authorId\":" + authorId
+                + ",\"type\":\"novel\",\"publicationDate\":\"1974-05-01\"}");
+        mockMvc.perform(delete("/api/books/" + bookId).header("api-key", API_KEY)).andExpect(status().isNoContent());
+
+        List<JsonNode> records = readAudit(start, Instant.now());
+
+        assertEquals(4, records.size());
+        assertEquals(List.of("AUTHOR:CREATED", "BOOK:CREATED", "BOOK:UPDATED", "BOOK:DELETED"), records.stream()
+                .map(record -> record.get("entityType").asText() + ":" + record.get("changeType").asText()).toList());
+        assertEquals(authorId, records.get(0).get("entityId").asLong());
+        assertEquals(bookId, records.get(3).get("entityId").asLong());
+        String caller = hmac(API_KEY);
+        records.forEach(record -> assertEquals(caller, record.get("caller").asText()));
+        records.forEach(record -> assertFalse(record.toString().contains(API_KEY)));
+        assertEquals("The Dispossessed: An Ambiguous Utopia", records.get(2).get("payload").get("title").asText());
+        assertTrue(records.get(3).get("payload").isNull());
+
+        Instant updated = Instant.parse(records.get(2).get("timestamp").asText());
+        List<JsonNode> fromUpdate = readAudit(updated, Instant.now());
+        assertEquals(List.of("UPDATED", "DELETED"), fromUpdate.stream().map(record -> record.get("changeType").asText()).toList());
+    }
+
+    @Test
+    void readAudit_ShouldRecordNoCallerForFollowerFlushes() throws Exception {
+        long authorId = id(call(post("/api/authors"), "{\"name\":\"Octavia E. Butler\",\"age\":58}"));
+        mockMvc.perform(post("/api/authors/" + authorId + "/follow").header("api-key", API_KEY))
+                .andExpect(status().isNoContent());
+        Instant start = Instant.now();
+
+        followerCounterService.flush();
+
+        List<JsonNode> records = readAudit(start, Instant.now());
+        assertEquals(1, records.size());
+        assertEquals("AUTHOR:UPDATED", records.get(0).get("entityType").asText() + ":" + records.get(0).get("changeType").asText());
+        assertTrue(records.get(0).get("caller").isNull());
+    }
+
+    @Test
+    void readAudit_ShouldRejectAnEmptyRange() throws Exception {
+        Instant now = Instant.now();
+        mockMvc.perform(get("/api/audit").header("api-key", API_KEY)
+                        .param("from", now.toString()).param("to", now.toString()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark.audits", matches = "\\d+")
+    void benchmark_AuditedWrite() {
+        int audits = Integer.parseInt(System.getProperty("benchmark.audits"));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("api-key", API_KEY);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            BookDTO book = new BookDTO(1L, "The Dispossessed: An Ambiguous Utopia", "9780060512750", 1L,
+                    "Ursula K. Le Guin", LocalDate.of(1974, 5, 1), "novel", Instant.now());
+            long[] latencies = new long[audits];
+            for (int run = 0; run < 2; run++) {
+                for (int i = 0; i < audits; i++) {
+                    EntityChangedEvent event = new EntityChangedEvent(EntityType.BOOK, ChangeType.UPDATED, (long) i, book);
+                    long before = System.nanoTime();
+                    auditService.onEntityChanged(event);
+                    latencies[i] = System.nanoTime() - before;
+                }
+                Arrays.sort(latencies);
+                log.info("Audited write: p50 {} ns, p99 {} ns, p99.9 {} ns", latencies[audits / 2],
+                        latencies[audits * 99 / 100], latencies[audits * 999 / 1000]);
+            }
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private String call(MockHttpServletRequestBuilder request, String body) throws Exception {
+        return mockMvc.perform(request.header("api-key", API_KEY).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().is2xxSuccessful())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private static String hmac(String apiKey) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(CALLER_SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(apiKey.getBytes(StandardCharsets.UTF_8)), 0, 8);
+    }
+
+    private long id(String response) throws Exception {
+        return objectMapper.readTree(response).get("id").asLong();
+    }
+
+    private List<JsonNode> readAudit(Instant from, Instant to) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/audit").header("api-key", API_KEY)
+                        .param("from", from.toString()).param("to", to.toString()))
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<JsonNode> records = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            if (!line.isBlank()) {
+                records.add(objectMapper.readTree(line));
+            }
+        }
+        return records;
+    }
+}
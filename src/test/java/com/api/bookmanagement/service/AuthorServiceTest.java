@@ -1,19 +1,29 @@
 package com.api.bookmanagement.service;
 
 import com.api.bookmanagement.config.Messages;
+import com.api.bookmanagement.config.ShardRouter;
+import com.api.bookmanagement.config.ShardRoutingDataSource;
 import com.api.bookmanagement.domain.Author;
 import com.api.bookmanagement.dto.AuthorDTO;
+import com.api.bookmanagement.event.BookCountsChangedEvent;
+import com.api.bookmanagement.event.EntityChangedEvent;
+import com.api.bookmanagement.event.EntityChangedEvent.EntityType;
 import com.api.bookmanagement.exception.FunctionalException;
 import com.api.bookmanagement.mapper.AuthorMapper;
 import com.api.bookmanagement.repository.AuthorRepository;
+import com.api.bookmanagement.repository.BookRepository;
+import com.api.bookmanagement.repository.TombstoneRepository;
 import com.api.bookmanagement.util.GlobalConstants;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import javax.sql.DataSource;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -35,6 +45,25 @@ class AuthorServiceTest {
     @Mock
     private Messages messages;
 
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private TombstoneRepository tombstoneRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Mock
+    private FollowerCounterService followerCounterService;
+
+    // One database: every call runs inline
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(new ShardRoutingDataSource(List.of(mock(DataSource.class))), null, null, null);
+
     @InjectMocks
     private AuthorService authorService;
 
@@ -81,6 +110,18 @@ class AuthorServiceTest {
         verify(authorMapper).toAuthorDTO(author);
     }
 
+    @Test
+    void getAuthorById_ShouldIncludePendingFollowers() {
+        author.setFollowersNumber(10);
+        when(authorRepository.findById(authorId)).thenReturn(Optional.of(author));
+        when(authorMapper.toAuthorDTO(author)).thenReturn(authorDTO);
+        when(followerCounterService.followers(authorId, 10)).thenReturn(15);
+
+        AuthorDTO result = authorService.getAuthorById(authorId);
+
+        assertEquals(15, result.getFollowersNumber());
+    }
+
     @Test
     void getAuthorById_WhenAuthorDoesNotExist_ShouldThrowException() {
         when(authorRepository.findById(authorId)).thenReturn(Optional.empty());
@@ -114,7 +155,7 @@ class AuthorServiceTest {
     @Test
     void updateAuthor_WhenAuthorExists_ShouldUpdateAndReturnAuthor() {
         when(authorRepository.findById(authorId)).thenReturn(Optional.of(author));
-        when(authorRepository.save(author)).thenReturn(author);
+        when(authorRepository.saveAndFlush(author)).thenReturn(author);
         when(authorMapper.toAuthorDTO(author)).thenReturn(authorDTO);
 
         AuthorDTO result = authorService.updateAuthor(authorId, authorDTO);
@@ -123,7 +164,7 @@ class AuthorServiceTest {
         assertEquals(authorDTO, result);
         verify(authorRepository).findById(authorId);
         verify(authorMapper).updateEntity(author, authorDTO);
-        verify(authorRepository).save(author);
+        verify(authorRepository).saveAndFlush(author);
         verify(authorMapper).toAuthorDTO(author);
     }
 
@@ -143,18 +184,26 @@ class AuthorServiceTest {
     }
 
     @Test
-    void deleteAuthor_WhenAuthorExists_ShouldDeleteAuthor() {
-        when(authorRepository.existsById(authorId)).thenReturn(true);
+    void deleteAuthor_WhenAuthorExists_ShouldDeleteAuthorAndBooksBySet() {
+        List<Long> ids = List.of(authorId);
+        List<Object[]> rows = Collections.singletonList(new Object[]{7L, "novel", authorId, null, 10});
+        when(tombstoneRepository.insertForAuthors(eq(EntityType.AUTHOR), eq(ids), any())).thenReturn(1);
+        when(bookRepository.findStatsRowsByAuthorIdIn(ids)).thenReturn(rows);
 
         authorService.deleteAuthor(authorId);
 
-        verify(authorRepository).existsById(authorId);
-        verify(authorRepository).deleteById(authorId);
+        verify(tombstoneRepository).insertForBooksOfAuthors(eq(EntityType.BOOK), eq(ids), any());
+        verify(bookRepository).deleteByAuthorIdIn(ids);
+        verify(authorRepository).deleteByIdIn(ids);
+        verify(eventPublisher).publishEvent(any(BookCountsChangedEvent.class));
+        verify(authorRepository, never()).findWithBooksById(any());
+        verify(eventPublisher, times(2)).publishEvent(any(EntityChangedEvent.class));
     }
 
     @Test
     void deleteAuthor_WhenAuthorDoesNotExist_ShouldThrowException() {
-        when(authorRepository.existsById(authorId)).thenReturn(false);
+        when(tombstoneRepository.insertForAuthors(eq(EntityType.AUTHOR), eq(List.of(authorId)), any())).thenReturn(0);
+        when(authorRepository.findIdsByIdIn(List.of(authorId))).thenReturn(List.of());
         when(messages.get(eq(GlobalConstants.ERROR_AUTHOR_NOT_FOUND_ID), anyLong()))
                 .thenReturn("Author not found with id: " + authorId);
 
@@ -163,7 +212,21 @@ class AuthorServiceTest {
         });
 
         assertEquals("Author not found with id: " + authorId, exception.getMessage());
-        verify(authorRepository).existsById(authorId);
         verify(messages).get(eq(GlobalConstants.ERROR_AUTHOR_NOT_FOUND_ID), eq(authorId));
+        verify(bookRepository, never()).deleteByAuthorIdIn(any());
+        verify(authorRepository, never()).deleteByIdIn(any());
+    }
+
+    @Test
+    void deleteAuthors_WhenSomeAreMissing_ShouldNameThem() {
+        List<Long> ids = List.of(authorId, 2L, 3L);
+        when(tombstoneRepository.insertForAuthors(eq(EntityType.AUTHOR), eq(ids), any())).thenReturn(1);
+        when(authorRepository.findIdsByIdIn(ids)).thenReturn(List.of(authorId));
+        when(messages.get(GlobalConstants.ERROR_AUTHOR_NOT_FOUND_IDS, "[2, 3]")).thenReturn("Authors not found with ids: [2, 3]");
+
+        FunctionalException exception = assertThrows(FunctionalException.class, () -> authorService.deleteAuthors(ids));
+
+        assertEquals("Authors not found with ids: [2, 3]", exception.getMessage());
+        verify(authorRepository, never()).deleteByIdIn(any());
     }
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.domain.Author;
+import com.api.bookmanagement.domain.Book;
+import com.api.bookmanagement.dto.AuthorWithBooksDTO;
+import com.api.bookmanagement.repository.AuthorRepository;
+import com.api.bookmanagement.repository.BookRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "cache.statistics.enabled=true",
+        "cache.invalidation.poll-interval-ms=3600000"})
+class AuthorWithBooksStatementCountTest {
+
+    private static final int AUTHORS = 20;
+    private static final int BOOKS_PER_AUTHOR = 5;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long firstAuthorId;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < AUTHORS; i++) {
+            Author author = authorRepository.save(new Author(null, "Author " + i, 40, i, new HashSet<>(), null));
+            if (firstAuthorId == null) {
+                firstAuthorId = author.getId();
+            }
+            for (int j = 0; j < BOOKS_PER_AUTHOR; j++) {
+                bookRepository.save(new Book(null, "Book " + i + "-" + j, null, author, LocalDate.of(2000 + j, 1, 1), "novel", null));
+            }
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAllInBatch();
+        authorRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void getAllAuthorsWithBooks_ShouldUseOneStatementWhateverTheAuthorCount() {
+        List<AuthorWithBooksDTO> result = authorService.getAllAuthorsWithBooks();
+
+        assertEquals(AUTHORS, result.size());
+        result.forEach(author -> assertEquals(BOOKS_PER_AUTHOR, author.getBooks().size()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getAuthorWithBooks_ShouldUseOneStatement() {
+        AuthorWithBooksDTO result = authorService.getAuthorWithBooks(firstAuthorId);
+
+        assertEquals(BOOKS_PER_AUTHOR, result.getBooks().size());
+        result.getBooks().forEach(book -> assertEquals(firstAuthorId, book.getAuthorId()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -1,28 +1,53 @@
 package com.api.bookmanagement.service;
 
 import com.api.bookmanagement.config.Messages;
+import com.api.bookmanagement.config.ShardRouter;
+import com.api.bookmanagement.config.ShardRoutingDataSource;
 import com.api.bookmanagement.domain.Author;
 import com.api.bookmanagement.domain.Book;
+import com.api.bookmanagement.domain.Tombstone;
+import com.api.bookmanagement.dto.AuthorDTO;
 import com.api.bookmanagement.dto.BookDTO;
+import com.api.bookmanagement.dto.BookPageDTO;
+import com.api.bookmanagement.dto.DeltaPageDTO;
+import com.api.bookmanagement.dto.IsbnMetadataDTO;
+import com.api.bookmanagement.event.BookCountsChangedEvent;
+import com.api.bookmanagement.event.EntityChangedEvent.EntityType;
 import com.api.bookmanagement.exception.FunctionalException;
+import com.api.bookmanagement.exception.NotFoundException;
+import com.api.bookmanagement.mapper.AuthorMapper;
 import com.api.bookmanagement.mapper.BookMapper;
 import com.api.bookmanagement.repository.AuthorRepository;
+import com.api.bookmanagement.repository.TombstoneRepository;
 import com.api.bookmanagement.repository.BookRepository;
 import com.api.bookmanagement.util.GlobalConstants;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,9 +62,37 @@ class BookServiceTest {
     @Mock
     private BookMapper bookMapper;
 
+    @Mock
+    private AuthorMapper authorMapper;
+
     @Mock
     private Messages messages;
 
+    @Mock
+    private TombstoneRepository tombstoneRepository;
+
+    @Mock
+    private DeltaSyncService deltaSyncService;
+
+    @Mock
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Mock
+    private CatalogReadModel catalogReadModel;
+
+    @Mock
+    private IsbnEnrichmentService isbnEnrichmentService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CacheInvalidationService cacheInvalidationService;
+
+    // One database: every call runs inline
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(new ShardRoutingDataSource(List.of(mock(DataSource.class))), null, null, null);
+
     @InjectMocks
     private BookService bookService;
 
@@ -65,6 +118,8 @@ class BookServiceTest {
         bookDTO.setTitle("The Shining");
         bookDTO.setAuthorId(authorId);
         bookDTO.setAuthorName(author.getName());
+
+        ReflectionTestUtils.setField(bookService, "lookupChunkSize", 1024);
     }
 
     @Test
@@ -109,11 +164,12 @@ class BookServiceTest {
                 .thenReturn("Book not found with id: " + bookId);
 
         // Act & Assert
-        FunctionalException exception = assertThrows(FunctionalException.class, () -> {
+        NotFoundException exception = assertThrows(NotFoundException.class, () -> {
             bookService.getBookById(bookId);
         });
 
         assertEquals("Book not found with id: " + bookId, exception.getMessage());
+        assertEquals(0, exception.getStackTrace().length);
         verify(bookRepository).findById(bookId);
         verify(messages).get(eq(GlobalConstants.ERROR_BOOK_NOT_FOUND_ID), eq(bookId));
     }
@@ -137,7 +193,7 @@ class BookServiceTest {
     @Test
     void createBook_WhenAuthorDoesNotExist_ShouldThrowException() {
         // Arrange
-        when(authorRepository.existsById(authorId)).thenReturn(false);
+        when(authorRepository.findById(authorId)).thenReturn(Optional.empty());
         when(messages.get(eq(GlobalConstants.ERROR_AUTHOR_NOT_FOUND_ID), anyLong()))
                 .thenReturn("Author not found with id: " + authorId);
 
@@ -147,10 +203,83 @@ class BookServiceTest {
         });
 
         assertEquals("Author not found with id: " + authorId, exception.getMessage());
-        verify(authorRepository).existsById(authorId);
+        verify(authorRepository).findById(authorId);
         verify(messages).get(eq(GlobalConstants.ERROR_AUTHOR_NOT_FOUND_ID), eq(authorId));
     }
 
+    @Test
+    void createBook_WhenAuthorExists_ShouldAttachAuthorAndRecordStats() {
+        // Arrange
+        Book newBook = new Book();
+        when(authorRepository.findById(authorId)).thenReturn(Optional.of(author));
+        when(bookMapper.toBookEntity(bookDTO)).thenReturn(newBook);
+        when(bookRepository.save(newBook)).thenReturn(book);
+        when(bookMapper.toBookDTO(book)).thenReturn(bookDTO);
+
+        // Act
+        BookDTO result = bookService.createBook(bookDTO);
+
+        // Assert
+        assertEquals(bookDTO, result);
+        assertEquals(author, newBook.getAuthor());
+        verify(eventPublisher).publishEvent(any(BookCountsChangedEvent.class));
+    }
+
+    @Test
+    void createBook_WhenIsbnAlreadyUsed_ShouldThrowException() {
+        // Arrange
+        Book newBook = new Book();
+        newBook.setIsbn("978-0-441-56959-2");
+        when(authorRepository.findById(authorId)).thenReturn(Optional.of(author));
+        when(bookMapper.toBookEntity(bookDTO)).thenReturn(newBook);
+        when(bookRepository.findIdByIsbn("9780441569592")).thenReturn(Optional.of(2L));
+        when(messages.get(GlobalConstants.ERROR_BOOK_DUPLICATE_ISBN, "9780441569592"))
+                .thenReturn("A book with isbn 9780441569592 already exists");
+
+        // Act & Assert
+        FunctionalException exception = assertThrows(FunctionalException.class, () -> bookService.createBook(bookDTO));
+
+        assertEquals("A book with isbn 9780441569592 already exists", exception.getMessage());
+        verify(bookRepository, never()).save(any());
+    }
+
+    @Test
+    void findBookByIsbn_WhenStoredLocally_ShouldNotCallUpstream() {
+        // Arrange
+        when(isbnEnrichmentService.findLocal("9780441569592"))
+                .thenReturn(Optional.of("{\"title\":\"Neuromancer\",\"authors\":[{\"name\":\"William Gibson\"}]}"));
+
+        // Act
+        IsbnMetadataDTO result = bookService.findBookByIsbn("978-0-441-56959-2");
+
+        // Assert
+        assertEquals("9780441569592", result.getIsbn());
+        assertEquals("Neuromancer", result.getTitle());
+        assertEquals(List.of("William Gibson"), result.getAuthors());
+        verify(isbnEnrichmentService, never()).fetch(anyString());
+    }
+
+    @Test
+    void findBookByIsbn_WhenUnknownUpstream_ShouldThrowNotFound() {
+        // Arrange
+        when(isbnEnrichmentService.findLocal("0000000000")).thenReturn(Optional.empty());
+        when(isbnEnrichmentService.fetch("0000000000")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(NotFoundException.class, () -> bookService.findBookByIsbn("0000000000"));
+    }
+
+    @Test
+    void findRawBookByIsbn_ShouldReturnStoredRecordAsIs() {
+        // Arrange
+        String record = "{ \"title\": \"Neuromancer\", \"number_of_pages\": 271 }";
+        when(isbnEnrichmentService.findLocal("9780441569592")).thenReturn(Optional.empty());
+        when(isbnEnrichmentService.fetch("9780441569592")).thenReturn(Optional.of(record));
+
+        // Act & Assert
+        assertEquals(record, bookService.findRawBookByIsbn("978-0-441-56959-2"));
+    }
+
     @Test
     void updateBook_WhenBookDoesNotExist_ShouldThrowException() {
         // Arrange
@@ -190,20 +319,27 @@ class BookServiceTest {
     @Test
     void deleteBook_WhenBookExists_ShouldDeleteBook() {
         // Arrange
-        when(bookRepository.existsById(bookId)).thenReturn(true);
+        List<Long> ids = List.of(bookId);
+        List<Object[]> rows = Collections.singletonList(new Object[]{bookId, "novel", authorId, null, 10});
+        when(bookRepository.findStatsRowsByIdIn(ids)).thenReturn(rows);
+        when(bookRepository.deleteByIdIn(ids)).thenReturn(1);
 
         // Act
         bookService.deleteBook(bookId);
 
         // Assert
-        verify(bookRepository).existsById(bookId);
-        verify(bookRepository).deleteById(bookId);
+        verify(tombstoneRepository).insertForBooks(eq(EntityType.BOOK), eq(ids), any());
+        ArgumentCaptor<BookCountsChangedEvent> counts = ArgumentCaptor.forClass(BookCountsChangedEvent.class);
+        verify(eventPublisher).publishEvent(counts.capture());
+        assertEquals(List.of(new BookCountsChangedEvent.Row("novel", authorId, null, 10, -1)), counts.getValue().getRows());
+        verify(bookRepository, never()).findById(any());
     }
 
     @Test
     void deleteBook_WhenBookDoesNotExist_ShouldThrowException() {
         // Arrange
-        when(bookRepository.existsById(bookId)).thenReturn(false);
+        when(bookRepository.findStatsRowsByIdIn(List.of(bookId))).thenReturn(List.of());
+        when(bookRepository.deleteByIdIn(List.of(bookId))).thenReturn(0);
         when(messages.get(eq(GlobalConstants.ERROR_BOOK_NOT_FOUND_ID), anyLong()))
                 .thenReturn("Book not found with id: " + bookId);
 
@@ -213,7 +349,124 @@ class BookServiceTest {
         });
 
         assertEquals("Book not found with id: " + bookId, exception.getMessage());
-        verify(bookRepository).existsById(bookId);
         verify(messages).get(eq(GlobalConstants.ERROR_BOOK_NOT_FOUND_ID), eq(bookId));
+        verify(eventPublisher, never()).publishEvent(any(BookCountsChangedEvent.class));
+    }
+
+    @Test
+    void getAuthorsByBookIds_ShouldQueryDistinctIdsAndDeduplicateAuthors() {
+        // Arrange
+        AuthorDTO authorDTO = new AuthorDTO(authorId, author.getName(), 0, 0, null);
+        when(bookRepository.findAuthorsByBookIds(List.of(1L, 2L))).thenReturn(List.of(author, author));
+        when(authorMapper.toAuthorDTO(author)).thenReturn(authorDTO);
+
+        // Act
+        List<AuthorDTO> result = bookService.getAuthorsByBookIds(List.of(1L, 2L, 1L));
+
+        // Assert
+        assertEquals(List.of(authorDTO), result);
+        verify(bookRepository).findAuthorsByBookIds(List.of(1L, 2L));
+    }
+
+    @Test
+    void getAuthorsKeyedByBookIds_ShouldMapEachBookToItsAuthor() {
+        // Arrange
+        Book otherBook = new Book();
+        otherBook.setId(2L);
+        otherBook.setAuthor(author);
+        AuthorDTO authorDTO = new AuthorDTO(authorId, author.getName(), 0, 0, null);
+        when(bookRepository.findWithAuthorByIdIn(List.of(bookId, 2L, 3L))).thenReturn(List.of(book, otherBook));
+        when(authorMapper.toAuthorDTO(author)).thenReturn(authorDTO);
+
+        // Act
+        Map<Long, AuthorDTO> result = bookService.getAuthorsKeyedByBookIds(List.of(bookId, 2L, 3L));
+
+        // Assert
+        assertEquals(Map.of(bookId, authorDTO, 2L, authorDTO), result);
+        verify(authorMapper).toAuthorDTO(author);
+    }
+
+    @Test
+    void getAuthorsByBookIds_WhenNoIds_ShouldNotQuery() {
+        // Act
+        List<AuthorDTO> result = bookService.getAuthorsByBookIds(List.of());
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void getBooksModifiedSince_ShouldMergeChangesAndTombstonesInKeysetOrder() {
+        // Arrange
+        Instant since = Instant.parse("2025-01-01T00:00:00Z");
+        Instant until = since.plusSeconds(60);
+        book.setUpdatedAt(since.plusSeconds(20));
+        Tombstone tombstone = new Tombstone(1L, EntityType.BOOK, 7L, since.plusSeconds(10));
+        when(deltaSyncService.until(since)).thenReturn(until);
+        when(bookRepository.findModifiedSince(since, 0L, until, Limit.of(1))).thenReturn(List.of(book));
+        when(tombstoneRepository.findDeletedSince(EntityType.BOOK, since, 0L, until, Limit.of(1))).thenReturn(List.of(tombstone));
+
+        // Act
+        DeltaPageDTO<BookDTO> result = bookService.getBooksModifiedSince(since, 0L, 1);
+
+        // Assert
+        assertTrue(result.getChanged().isEmpty());
+        assertEquals(List.of(7L), result.getDeleted());
+        assertEquals(since.plusSeconds(10), result.getNextModifiedSince());
+        assertEquals(7L, result.getNextAfterId());
+        assertTrue(result.isHasMore());
+    }
+
+    @Test
+    void getBooksModifiedSince_WhenNothingChanged_ShouldHandTheCursorBack() {
+        // Arrange
+        Instant since = Instant.parse("2025-01-01T00:00:00Z");
+        when(deltaSyncService.until(since)).thenReturn(since.plusSeconds(60));
+
+        // Act
+        DeltaPageDTO<BookDTO> result = bookService.getBooksModifiedSince(since, 42L, 10);
+
+        // Assert
+        assertTrue(result.getChanged().isEmpty());
+        assertTrue(result.getDeleted().isEmpty());
+        assertEquals(since, result.getNextModifiedSince());
+        assertEquals(42L, result.getNextAfterId());
+        assertFalse(result.isHasMore());
+    }
+
+    @Test
+    void findBooks_ShouldReturnOnePageAndTheCursorOfItsLastBook() {
+        // Arrange
+        LocalDate from = LocalDate.of(1970, 1, 1);
+        book.setPublicationDate(LocalDate.of(1977, 1, 28));
+        Book next = new Book(2L, "It", null, author, LocalDate.of(1986, 9, 15), "novel", null);
+        when(bookRepository.findPublished("novel", null, from, null, null, 0L, 2)).thenReturn(List.of(book, next));
+        when(bookMapper.toBookDTO(book)).thenReturn(bookDTO);
+
+        // Act
+        BookPageDTO result = bookService.findBooks("novel", null, from, null, null, 0L, 1);
+
+        // Assert
+        assertEquals(List.of(bookDTO), result.getBooks());
+        assertEquals(LocalDate.of(1977, 1, 28), result.getNextAfterDate());
+        assertEquals(bookId, result.getNextAfterId());
+        assertTrue(result.isHasMore());
+    }
+
+    @Test
+    void findBooks_ShouldReportTheLastPage() {
+        // Arrange
+        LocalDate after = LocalDate.of(1977, 1, 28);
+        when(bookRepository.findPublished(null, authorId, null, null, after, bookId, 101)).thenReturn(List.of());
+
+        // Act
+        BookPageDTO result = bookService.findBooks(null, authorId, null, null, after, bookId, 100);
+
+        // Assert
+        assertTrue(result.getBooks().isEmpty());
+        assertNull(result.getNextAfterDate());
+        assertNull(result.getNextAfterId());
+        assertFalse(result.isHasMore());
     }
 }
@@ -0,0 +1,183 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.domain.Author;
+import com.api.bookmanagement.domain.Book;
+import com.api.bookmanagement.domain.CacheInvalidation;
+import com.api.bookmanagement.event.EntityChangedEvent.EntityType;
+import com.api.bookmanagement.repository.AuthorRepository;
+import com.api.bookmanagement.repository.BookRepository;
+import com.api.bookmanagement.repository.CacheInvalidationRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Another node is played by rows written straight through JDBC and invalidation records
+ * carrying a node id other than this one. Polls are triggered by the tests.
+ */
+@SpringBootTest(properties = {
+        "catalog.snapshot.enabled=false",
+        "isbn.enrichment.enabled=false",
+        "cache.invalidation.poll-interval-ms=3600000",
+        "cache.invalidation.prune-interval-ms=3600000",
+        "cache.invalidation.stats-rebuild-interval=1h"})
+class CacheInvalidationServiceTest {
+
+    private static final String OTHER_NODE = "other-node";
+
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Autowired
+    private CacheInvalidationRepository cacheInvalidationRepository;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private CatalogStatsService catalogStatsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Cache cache;
+    private Book first;
+    private Book second;
+
+    @BeforeEach
+    void setUp() {
+        cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        Author author = authorRepository.save(new Author(null, "Ursula K. Le Guin", 88, 100, new HashSet<>(), null));
+        first = bookRepository.save(new Book(null, "The Dispossessed", null, author, LocalDate.of(1974, 5, 1), "novel", null));
+        second = bookRepository.save(new Book(null, "The Lathe of Heaven", null, author, LocalDate.of(1971, 3, 1), "novel", null));
+        cacheInvalidationService.poll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAllInBatch();
+        authorRepository.deleteAllInBatch();
+        cacheInvalidationRepository.deleteAllInBatch();
+        cache.evictAllRegions();
+    }
+
+    @Test
+    void poll_ShouldEvictBooksChangedByAnotherNode() {
+        assertEquals("The Dispossessed", bookService.getBookById(first.getId()).getTitle());
+        jdbcTemplate.update("UPDATE book SET title = ? WHERE id = ?", "The Dispossessed: An Ambiguous Utopia", first.getId());
+        cacheInvalidationRepository.save(record(OTHER_NODE, first.getId(), Instant.now()));
+
+        // Served from the second-level cache until the record is polled
+        assertEquals("The Dispossessed", bookService.getBookById(first.getId()).getTitle());
+        cacheInvalidationService.poll();
+
+        assertFalse(cache.containsEntity(Book.class, first.getId()));
+        assertEquals("The Dispossessed: An Ambiguous Utopia", bookService.getBookById(first.getId()).getTitle());
+    }
+
+    @Test
+    void poll_ShouldKeepEntriesChangedByThisNode() {
+        bookService.getBookById(first.getId());
+        transactionTemplate.executeWithoutResult(status ->
+                cacheInvalidationService.recordChange(EntityType.BOOK, first.getId(), Instant.now()));
+
+        cacheInvalidationService.poll();
+
+        assertTrue(cache.containsEntity(Book.class, first.getId()));
+    }
+
+    @Test
+    void poll_ShouldPickUpARecordCommittedAfterAHigherOne() throws Exception {
+        bookService.getBookById(first.getId());
+        bookService.getBookById(second.getId());
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        Thread slowWriter = Thread.ofVirtual().start(() -> transactionTemplate.executeWithoutResult(status -> {
+            cacheInvalidationRepository.saveAndFlush(record(OTHER_NODE, first.getId(), Instant.now()));
+            inserted.countDown();
+            await(commit);
+        }));
+        assertTrue(inserted.await(10, TimeUnit.SECONDS));
+        cacheInvalidationRepository.save(record(OTHER_NODE, second.getId(), Instant.now()));
+
+        cacheInvalidationService.poll();
+        assertTrue(cache.containsEntity(Book.class, first.getId()));
+        assertFalse(cache.containsEntity(Book.class, second.getId()));
+
+        commit.countDown();
+        slowWriter.join();
+        cacheInvalidationService.poll();
+        assertFalse(cache.containsEntity(Book.class, first.getId()));
+    }
+
+    @Test
+    void poll_ShouldRebuildTheStatsOnlyOncePerIntervalUnlessEvictingEverything() {
+        catalogStatsService.reconcile();
+        long total = catalogStatsService.getStats().getTotalBooks();
+        bookService.getBookById(second.getId());
+        jdbcTemplate.update("DELETE FROM book WHERE id = ?", second.getId());
+        cacheInvalidationRepository.save(record(OTHER_NODE, second.getId(), Instant.now()));
+
+        cacheInvalidationService.poll();
+        assertFalse(cache.containsEntity(Book.class, second.getId()));
+        assertEquals(total, catalogStatsService.getStats().getTotalBooks());
+
+        cacheInvalidationRepository.save(new CacheInvalidation(null, OTHER_NODE, null, null,
+                ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now())));
+        cacheInvalidationService.poll();
+        assertEquals(total - 1, catalogStatsService.getStats().getTotalBooks());
+    }
+
+    @Test
+    void prune_ShouldDeleteRecordsOlderThanTheRetention() {
+        CacheInvalidation old = cacheInvalidationRepository.save(record(OTHER_NODE, first.getId(), Instant.now().minus(2, ChronoUnit.HOURS)));
+        CacheInvalidation recent = cacheInvalidationRepository.save(record(OTHER_NODE, second.getId(), Instant.now()));
+
+        cacheInvalidationService.prune();
+
+        assertFalse(cacheInvalidationRepository.existsById(old.getId()));
+        assertTrue(cacheInvalidationRepository.existsById(recent.getId()));
+    }
+
+    private static CacheInvalidation record(String node, Long bookId, Instant version) {
+        return new CacheInvalidation(null, node, EntityType.BOOK, bookId, ChronoUnit.MICROS.between(Instant.EPOCH, version));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.domain.Author;
+import com.api.bookmanagement.dto.AuthorDTO;
+import com.api.bookmanagement.dto.BookDTO;
+import com.api.bookmanagement.repository.AuthorRepository;
+import com.api.bookmanagement.repository.BookRepository;
+import com.api.bookmanagement.repository.TombstoneRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {"readmodel.enabled=true", "catalog.snapshot.enabled=false",
+        "cache.invalidation.poll-interval-ms=3600000", "cache.statistics.enabled=true"})
+class CatalogReadModelTest {
+
+    @Autowired
+    private CatalogReadModel catalogReadModel;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private AuthorDTO author;
+    private BookDTO book;
+
+    @BeforeEach
+    void setUp() {
+        Author loaded = authorRepository.save(new Author(null, "Loaded at startup", 50, 10, new HashSet<>(), null));
+        catalogReadModel.reload();
+        author = authorService.createAuthor(new AuthorDTO(null, "Octavia Butler", 58, 3000, null));
+        book = bookService.createBook(new BookDTO(null, "Kindred", null, author.getId(), null, LocalDate.of(1979, 6, 1), "novel", null));
+        bookService.createBook(new BookDTO(null, "Early work", null, loaded.getId(), null, null, null, null));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAllInBatch();
+        authorRepository.deleteAllInBatch();
+        tombstoneRepository.deleteAllInBatch();
+        catalogReadModel.reload();
+    }
+
+    @Test
+    void reads_ShouldBeServedWithoutTheDatabase() {
+        assertEquals(book, bookService.getBookById(book.getId()));
+        assertEquals(2, bookService.getAllBooks().size());
+        assertEquals(List.of(author), bookService.getAuthorsByBookIds(List.of(book.getId(), book.getId(), -1L)));
+        assertEquals(bookService.getRatingForBook(book.getId()), catalogReadModel.findRating(book.getId()).orElseThrow());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void writes_ShouldBeAppliedOnCommit() {
+        authorService.updateAuthor(author.getId(), new AuthorDTO(null, "O. E. Butler", 58, 5000, null));
+        BookDTO renamed = bookService.updateBook(book.getId(),
+                new BookDTO(null, "Kindred (1979)", null, author.getId(), null, book.getPublicationDate(), "novel", null));
+
+        assertEquals(Optional.of(renamed), catalogReadModel.findBook(book.getId()));
+        assertEquals("O. E. Butler", catalogReadModel.findBook(book.getId()).orElseThrow().getAuthorName());
+
+        authorService.deleteAuthor(author.getId());
+
+        assertEquals(Optional.empty(), catalogReadModel.findBook(book.getId()));
+        assertEquals(Optional.of(List.of()), catalogReadModel.findAuthorsByBookIds(List.of(book.getId())));
+        assertEquals(1, catalogReadModel.findAllBooks().orElseThrow().size());
+    }
+}
@@ -0,0 +1,108 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.domain.Author;
+import com.api.bookmanagement.domain.Book;
+import com.api.bookmanagement.dto.BookDTO;
+import com.api.bookmanagement.event.EntityChangedEvent;
+import com.api.bookmanagement.event.EntityChangedEvent.ChangeType;
+import com.api.bookmanagement.event.EntityChangedEvent.EntityType;
+import com.api.bookmanagement.repository.AuthorRepository;
+import com.api.bookmanagement.repository.BookRepository;
+import com.api.bookmanagement.util.BookRatingCalculator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class CatalogSnapshotServiceTest {
+
+    @TempDir
+    static Path directory;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookRatingCalculator bookRatingCalculator;
+
+    private Author author;
+    private Book book;
+
+    @DynamicPropertySource
+    static void snapshotPath(DynamicPropertyRegistry registry) {
+        registry.add("catalog.snapshot.path", () -> directory.resolve("catalog.snapshot").toString());
+    }
+
+    @BeforeEach
+    void setUp() {
+        author = authorRepository.save(new Author(null, "Ursula Le Guin", 60, 2500, new HashSet<>(), null));
+        book = bookRepository.save(new Book(null, "The Dispossessed", null, author, LocalDate.of(1974, 5, 1), "novel", null));
+        bookRepository.save(new Book(null, "Untitled draft", null, author, null, null, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAllInBatch();
+        authorRepository.deleteAllInBatch();
+        catalogSnapshotService.load();
+    }
+
+    @Test
+    void writeThenLoad_ShouldServeBooksFromSnapshot() throws Exception {
+        BookDTO expected = bookService.getBookById(book.getId());
+
+        catalogSnapshotService.writeSnapshot();
+        catalogSnapshotService.load();
+
+        assertTrue(catalogSnapshotService.isLoaded());
+        assertEquals(Optional.of(expected), catalogSnapshotService.findBook(book.getId()));
+        assertEquals(Optional.of(bookRatingCalculator.calculateRating(book.getPublicationDate(), author.getFollowersNumber())),
+                catalogSnapshotService.findRating(book.getId()));
+        assertEquals(Optional.empty(), catalogSnapshotService.findBook(-1L));
+    }
+
+    @Test
+    void load_ShouldIgnoreSnapshotOlderThanDatabase() throws Exception {
+        catalogSnapshotService.writeSnapshot();
+        bookRepository.save(new Book(null, "The Lathe of Heaven", null, author, LocalDate.of(1971, 1, 1), "novel", null));
+
+        catalogSnapshotService.load();
+
+        assertFalse(catalogSnapshotService.isLoaded());
+        assertEquals(Optional.empty(), catalogSnapshotService.findBook(book.getId()));
+    }
+
+    @Test
+    void onEntityChanged_ShouldStopServingChangedBooksAndAuthors() throws Exception {
+        catalogSnapshotService.writeSnapshot();
+        catalogSnapshotService.load();
+
+        catalogSnapshotService.onEntityChanged(new EntityChangedEvent(EntityType.AUTHOR, ChangeType.UPDATED, author.getId(), null));
+
+        assertEquals(Optional.empty(), catalogSnapshotService.findBook(book.getId()));
+        assertEquals(Optional.empty(), catalogSnapshotService.findRating(book.getId()));
+    }
+}
@@ -0,0 +1,126 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.config.ShardRouter;
+import com.api.bookmanagement.config.ShardRoutingDataSource;
+import com.api.bookmanagement.domain.Author;
+import com.api.bookmanagement.domain.Book;
+import com.api.bookmanagement.dto.CatalogStatsDTO;
+import com.api.bookmanagement.event.BookCountsChangedEvent;
+import com.api.bookmanagement.repository.BookRepository;
+import com.api.bookmanagement.util.BookRatingCalculator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogStatsServiceTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Spy
+    private BookRatingCalculator bookRatingCalculator;
+
+    @Mock
+    private CatalogSnapshotService catalogSnapshotService;
+
+    // One database: every call runs inline
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(new ShardRoutingDataSource(List.of(mock(DataSource.class))), null, null, null);
+
+    @InjectMocks
+    private CatalogStatsService catalogStatsService;
+
+    private Book book;
+    private final LocalDate publicationDate = LocalDate.now().minusYears(1);
+
+    @BeforeEach
+    void setUp() {
+        Author author = new Author();
+        author.setId(1L);
+        author.setFollowersNumber(2000);
+
+        book = new Book();
+        book.setId(1L);
+        book.setAuthor(author);
+        book.setType("novel");
+        book.setPublicationDate(publicationDate);
+    }
+
+    @Test
+    void reconcile_ShouldBuildCountersFromGroupedRows() {
+        when(bookRepository.countByType()).thenReturn(rows(new Object[]{"novel", 3L}, new Object[]{null, 1L}));
+        when(bookRepository.countByAuthor()).thenReturn(rows(new Object[]{1L, 4L}));
+        when(bookRepository.countByPublicationYear()).thenReturn(rows(new Object[]{publicationDate.getYear(), 4L}));
+        when(bookRepository.countByPublicationDateAndAuthorFollowers())
+                .thenReturn(rows(new Object[]{publicationDate, 2000, 4L}));
+
+        catalogStatsService.reconcile();
+        CatalogStatsDTO stats = catalogStatsService.getStats();
+
+        assertEquals(4, stats.getTotalBooks());
+        assertEquals(Map.of("novel", 3L), stats.getBooksByType());
+        assertEquals(Map.of(1L, 4L), stats.getBooksByAuthor());
+        assertEquals(Map.of(publicationDate.getYear(), 4L), stats.getBooksByPublicationYear());
+        assertEquals(Map.of(9, 4L), stats.getRatingDistribution());
+    }
+
+    @Test
+    void reconcile_ShouldKeepTheChangesAppliedWhileItQueries() {
+        when(bookRepository.countByType()).thenReturn(rows(new Object[]{"novel", 3L}));
+        when(bookRepository.countByAuthor()).thenAnswer(invocation -> {
+            catalogStatsService.onBookCountsChanged(BookCountsChangedEvent.added(book));
+            return rows(new Object[]{1L, 3L});
+        });
+        when(bookRepository.countByPublicationYear()).thenReturn(rows(new Object[]{publicationDate.getYear(), 3L}));
+        when(bookRepository.countByPublicationDateAndAuthorFollowers())
+                .thenReturn(rows(new Object[]{publicationDate, 2000, 3L}));
+
+        catalogStatsService.reconcile();
+        CatalogStatsDTO stats = catalogStatsService.getStats();
+
+        assertEquals(4, stats.getTotalBooks());
+        assertEquals(Map.of("novel", 4L), stats.getBooksByType());
+        assertEquals(Map.of(1L, 4L), stats.getBooksByAuthor());
+    }
+
+    @Test
+    void onBookCountsChanged_ShouldUpdateCounters() {
+        catalogStatsService.onBookCountsChanged(BookCountsChangedEvent.added(book));
+        catalogStatsService.onBookCountsChanged(BookCountsChangedEvent.added(book));
+        catalogStatsService.onBookCountsChanged(removed(book));
+
+        CatalogStatsDTO stats = catalogStatsService.getStats();
+
+        assertEquals(1, stats.getTotalBooks());
+        assertEquals(Map.of("novel", 1L), stats.getBooksByType());
+        assertEquals(Map.of(1L, 1L), stats.getBooksByAuthor());
+        assertEquals(Map.of(9, 1L), stats.getRatingDistribution());
+
+        catalogStatsService.onBookCountsChanged(removed(book));
+
+        assertEquals(Collections.emptyMap(), catalogStatsService.getStats().getBooksByType());
+    }
+
+    private static BookCountsChangedEvent removed(Book book) {
+        return new BookCountsChangedEvent(List.of(BookCountsChangedEvent.Row.of(book, -1)));
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return List.of(rows);
+    }
+}
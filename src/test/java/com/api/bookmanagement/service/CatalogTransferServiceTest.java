@@ -0,0 +1,181 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.domain.Author;
+import com.api.bookmanagement.domain.Book;
+import com.api.bookmanagement.dto.CatalogRowDTO;
+import com.api.bookmanagement.dto.ImportReportDTO;
+import com.api.bookmanagement.dto.ImportReportDTO.ImportErrorDTO;
+import com.api.bookmanagement.repository.AuthorRepository;
+import com.api.bookmanagement.repository.BookRepository;
+import com.api.bookmanagement.service.CatalogTransferService.Format;
+import com.api.bookmanagement.util.CsvSupport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Small batches, so rows and authors span several of them
+@SpringBootTest(properties = {
+        "catalog.snapshot.enabled=false",
+        "catalog.import.batch-size=2",
+        "catalog.import.max-reported-errors=2",
+        "cache.invalidation.poll-interval-ms=3600000"})
+class CatalogTransferServiceTest {
+
+    @Autowired
+    private CatalogTransferService catalogTransferService;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Author author;
+
+    @BeforeEach
+    void setUp() {
+        author = authorRepository.save(new Author(null, "Roald, \"the\" Author", 74, 1000, new HashSet<>(), null));
+        Author other = authorRepository.save(new Author(null, "Other author", 40, 10, new HashSet<>(), null));
+        bookRepository.save(new Book(null, "Plain title", "9780441569592", author, LocalDate.of(1970, 1, 1), "novel", null));
+        bookRepository.save(new Book(null, "Comma, \"quotes\"\nand a line break", null, author, null, null, null));
+        bookRepository.save(new Book(null, "Third", null, other, LocalDate.of(2001, 2, 3), "essay", null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAllInBatch();
+        authorRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void csvExport_ShouldImportBackToTheSameCatalog() throws IOException {
+        String exported = export(Format.CSV);
+        long authors = authorRepository.count();
+        bookRepository.deleteAllInBatch();
+
+        ImportReportDTO report = importCatalog(Format.CSV, exported);
+
+        assertEquals(3, report.getImported());
+        assertEquals(0, report.getFailed());
+        assertEquals(authors, authorRepository.count());
+        assertTrue(bookRepository.findIdByIsbn("9780441569592").isPresent());
+        assertEquals(withoutBookIds(exported), withoutBookIds(export(Format.CSV)));
+    }
+
+    @Test
+    void ndjsonExport_ShouldImportBackToTheSameCatalog() throws IOException {
+        String exported = export(Format.NDJSON);
+        bookRepository.deleteAllInBatch();
+
+        ImportReportDTO report = importCatalog(Format.NDJSON, exported);
+
+        assertEquals(3, report.getImported());
+        assertTrue(bookRepository.findIdByIsbn("9780441569592").isPresent());
+        assertEquals(ndjsonRows(exported), ndjsonRows(export(Format.NDJSON)));
+    }
+
+    @Test
+    void importCatalog_ShouldCreateUnknownAuthorsOnceByName() throws IOException {
+        long authors = authorRepository.count();
+        String csv = """
+                title,author_id,author_name,author_age
+                One,999999,New author,30
+                Two,999999,New author,30
+                Three,,New author,
+                Four,%d,,
+                """.formatted(author.getId());
+
+        ImportReportDTO report = importCatalog(Format.CSV, csv);
+
+        assertEquals(4, report.getImported());
+        assertEquals(authors + 1, authorRepository.count());
+        assertEquals(30, authorRepository.findAll().stream()
+                .filter(candidate -> candidate.getName().equals("New author")).findFirst().orElseThrow().getAge());
+    }
+
+    @Test
+    void importCatalog_ShouldRejectIsbnsAlreadyTaken() throws IOException {
+        String csv = """
+                title,isbn,author_id
+                Same book,978-0-441-56959-2,%d
+                New book,0-441-56959-X,%d
+                Same again,0-441-56959-x,%d
+                """.formatted(author.getId(), author.getId(), author.getId());
+
+        ImportReportDTO report = importCatalog(Format.CSV, csv);
+
+        assertEquals(1, report.getImported());
+        assertEquals(List.of(2L, 4L), report.getErrors().stream().map(ImportErrorDTO::getLine).toList());
+        assertEquals("Duplicate ISBN 9780441569592", report.getErrors().get(0).getMessage());
+        assertTrue(bookRepository.findIdByIsbn("044156959X").isPresent());
+    }
+
+    @Test
+    void importCatalog_ShouldReportBadRowsUpToTheCap() throws IOException {
+        String csv = """
+                title,publication_date,type,author_id,author_name
+                Good,2001-01-01,novel,%d,
+                ,2001-01-01,novel,%d,
+                Bad date,2001-13-01,novel,%d,
+                Unknown author,2001-01-01,novel,999999,
+                No author,2001-01-01,novel,,
+                """.formatted(author.getId(), author.getId(), author.getId());
+
+        ImportReportDTO report = importCatalog(Format.CSV, csv);
+
+        assertEquals(1, report.getImported());
+        assertEquals(4, report.getFailed());
+        assertEquals(List.of(3L, 4L), report.getErrors().stream().map(ImportErrorDTO::getLine).toList());
+        assertEquals("Missing title", report.getErrors().get(0).getMessage());
+    }
+
+    private String export(Format format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        catalogTransferService.exportCatalog(format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private ImportReportDTO importCatalog(Format format, String content) throws IOException {
+        return catalogTransferService.importCatalog(format, new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // Imported books get new ids
+    private static List<List<String>> withoutBookIds(String csv) throws IOException {
+        CsvSupport.RecordReader reader = new CsvSupport.RecordReader(new BufferedReader(new StringReader(csv)));
+        List<List<String>> records = new ArrayList<>();
+        List<String> fields;
+        while ((fields = reader.next()) != null) {
+            records.add(fields.subList(1, fields.size()));
+        }
+        return records;
+    }
+
+    private List<CatalogRowDTO> ndjsonRows(String ndjson) throws IOException {
+        List<CatalogRowDTO> rows = new ArrayList<>();
+        for (String line : ndjson.split("\n")) {
+            CatalogRowDTO row = objectMapper.readValue(line, CatalogRowDTO.class);
+            row.setBookId(null);
+            rows.add(row);
+        }
+        return rows;
+    }
+}
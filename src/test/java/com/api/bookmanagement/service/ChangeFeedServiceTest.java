@@ -0,0 +1,166 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.dto.ChangeEventDTO;
+import com.api.bookmanagement.event.EntityChangedEvent;
+import com.api.bookmanagement.event.EntityChangedEvent.ChangeType;
+import com.api.bookmanagement.event.EntityChangedEvent.EntityType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeFeedServiceTest {
+
+    private ExecutorService executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void subscribe_WithLastEventId_ShouldReplayTheMissedEventsThenLiveOnes() {
+        ChangeFeedService service = service(Runnable::run, 8, 4);
+        RecordingEmitter first = new RecordingEmitter();
+        service.subscribe(null, first);
+        publish(service, 1, 2, 3);
+        long afterFirst = first.received.get(0).getSequence();
+
+        RecordingEmitter resumed = new RecordingEmitter();
+        service.subscribe(afterFirst, resumed);
+        publish(service, 4);
+
+        assertEquals(List.of(2L, 3L, 4L), entityIds(resumed));
+        assertEquals(List.of(afterFirst + 1, afterFirst + 2, afterFirst + 3), sequences(resumed));
+    }
+
+    @Test
+    void subscribe_WhenTheMissedEventsLeftTheBuffer_ShouldResyncFirst() {
+        ChangeFeedService service = service(Runnable::run, 4, 4);
+        RecordingEmitter first = new RecordingEmitter();
+        service.subscribe(null, first);
+        publish(service, 1, 2, 3, 4, 5, 6);
+
+        RecordingEmitter resumed = new RecordingEmitter();
+        service.subscribe(first.received.get(0).getSequence(), resumed);
+        publish(service, 7);
+
+        ChangeEventDTO resync = resumed.received.get(0);
+        assertNull(resync.getEntityType());
+        assertEquals(first.received.get(5).getSequence(), resync.getSequence());
+        assertTrue(resumed.headers.get(0).contains("event:" + ChangeFeedService.RESYNC));
+        assertEquals(List.of(7L), entityIds(resumed).subList(1, 2));
+    }
+
+    @Test
+    void subscribe_WithAnIdOfAnotherRun_ShouldResync() {
+        ChangeFeedService service = service(Runnable::run, 4, 4);
+        RecordingEmitter live = new RecordingEmitter();
+        service.subscribe(null, live);
+        publish(service, 1);
+        long current = live.received.get(0).getSequence();
+
+        // Ahead of the sequence: the server restarted since; behind the first one: a previous run
+        RecordingEmitter ahead = new RecordingEmitter();
+        service.subscribe(current + 100, ahead);
+        RecordingEmitter previousRun = new RecordingEmitter();
+        service.subscribe(1L, previousRun);
+
+        assertEquals(1, ahead.received.size());
+        assertNull(ahead.received.get(0).getEntityType());
+        assertEquals(current, ahead.received.get(0).getSequence());
+        assertEquals(1, previousRun.received.size());
+        assertNull(previousRun.received.get(0).getEntityType());
+    }
+
+    @Test
+    void onEntityChanged_WithASlowSubscriber_ShouldDisconnectItWithoutBlockingOthers() throws InterruptedException {
+        executor = Executors.newCachedThreadPool();
+        ChangeFeedService service = service(executor, 64, 4);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.send(builder);
+            }
+        };
+        RecordingEmitter fast = new RecordingEmitter();
+        service.subscribe(null, slow);
+        service.subscribe(null, fast);
+
+        // The writer never waits for the slow subscriber, which is dropped once its queue is full
+        for (long bookId = 1; bookId <= 20; bookId++) {
+            publish(service, bookId);
+            assertTrue(fast.sent.tryAcquire(5, TimeUnit.SECONDS));
+        }
+
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(20, fast.received.size());
+        assertEquals(1, fast.completed.getCount());
+        release.countDown();
+    }
+
+    private static ChangeFeedService service(Executor executor, int bufferSize, int subscriberQueueSize) {
+        ChangeFeedService service = new ChangeFeedService(executor);
+        ReflectionTestUtils.setField(service, "bufferSize", bufferSize);
+        ReflectionTestUtils.setField(service, "subscriberQueueSize", subscriberQueueSize);
+        service.init();
+        return service;
+    }
+
+    private static void publish(ChangeFeedService service, long... bookIds) {
+        for (long bookId : bookIds) {
+            service.onEntityChanged(new EntityChangedEvent(EntityType.BOOK, ChangeType.UPDATED, bookId, null));
+        }
+    }
+
+    private static List<Long> entityIds(RecordingEmitter emitter) {
+        return emitter.received.stream().map(ChangeEventDTO::getEntityId).toList();
+    }
+
+    private static List<Long> sequences(RecordingEmitter emitter) {
+        return emitter.received.stream().map(ChangeEventDTO::getSequence).toList();
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        final List<ChangeEventDTO> received = new CopyOnWriteArrayList<>();
+        final List<String> headers = new CopyOnWriteArrayList<>();
+        final Semaphore sent = new Semaphore(0);
+        final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            List<Object> parts = builder.build().stream().map(ResponseBodyEmitter.DataWithMediaType::getData).toList();
+            // The id and event name lines come first, then the data
+            headers.add(parts.get(0).toString());
+            received.add((ChangeEventDTO) parts.get(1));
+            sent.release();
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+}
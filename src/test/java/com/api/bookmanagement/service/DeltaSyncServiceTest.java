@@ -0,0 +1,82 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.config.Messages;
+import com.api.bookmanagement.config.ShardRouter;
+import com.api.bookmanagement.config.ShardRoutingDataSource;
+import com.api.bookmanagement.exception.FunctionalException;
+import com.api.bookmanagement.repository.TombstoneRepository;
+import com.api.bookmanagement.util.GlobalConstants;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DeltaSyncServiceTest {
+
+    @Mock
+    private TombstoneRepository tombstoneRepository;
+
+    @Mock
+    private Messages messages;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DeltaSyncService service;
+
+    @BeforeEach
+    void setUp() {
+        ShardRouter shardRouter = new ShardRouter(new ShardRoutingDataSource(List.of(mock(DataSource.class))), null, null, null);
+        service = new DeltaSyncService(tombstoneRepository, shardRouter, messages, transactionManager);
+        ReflectionTestUtils.setField(service, "safetyLag", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(service, "tombstoneRetention", Duration.ofDays(30));
+    }
+
+    @Test
+    void until_ShouldStopTheSafetyLagBeforeNow() {
+        Instant before = Instant.now();
+
+        Instant until = service.until(Instant.EPOCH);
+
+        assertFalse(until.isBefore(before.minusSeconds(5)));
+        assertTrue(until.isBefore(Instant.now().minusSeconds(4)));
+    }
+
+    @Test
+    void until_WhenTheCursorIsOlderThanTheTombstones_ShouldRefuseIt() {
+        when(messages.get(eq(GlobalConstants.ERROR_DELTA_CURSOR_EXPIRED), any())).thenReturn("expired");
+        Instant since = Instant.now().minus(Duration.ofDays(31));
+
+        assertThrows(FunctionalException.class, () -> service.until(since));
+        assertDoesNotThrow(() -> service.until(Instant.now().minus(Duration.ofDays(29))));
+    }
+
+    @Test
+    void pruneTombstones_ShouldDeleteThoseOlderThanTheRetention() {
+        Instant before = Instant.now().minus(Duration.ofDays(30));
+
+        service.pruneTombstones();
+
+        ArgumentCaptor<Instant> captor = ArgumentCaptor.forClass(Instant.class);
+        verify(tombstoneRepository).deleteByDeletedAtBefore(captor.capture());
+        assertFalse(captor.getValue().isBefore(before));
+        assertTrue(captor.getValue().isBefore(before.plusSeconds(5)));
+    }
+}
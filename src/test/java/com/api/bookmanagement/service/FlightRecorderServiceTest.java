@@ -0,0 +1,94 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.config.FlightRecorderFilter;
+import com.api.bookmanagement.dto.AuthorDTO;
+import com.api.bookmanagement.dto.BookDTO;
+import com.api.bookmanagement.exception.FunctionalException;
+import com.api.bookmanagement.exception.NotFoundException;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The snapshot would serve the rating without going through the calculator
+@SpringBootTest(properties = "catalog.snapshot.enabled=false")
+class FlightRecorderServiceTest {
+
+    @Autowired
+    private FlightRecorderService flightRecorderService;
+
+    @Autowired
+    private FlightRecorderFilter flightRecorderFilter;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private BookService bookService;
+
+    @AfterEach
+    void tearDown() {
+        flightRecorderService.close();
+    }
+
+    @Test
+    void recordsServiceRepositoryRatingAndRequestEvents() throws Exception {
+        flightRecorderService.startRecording(Duration.ofMinutes(1));
+        assertEquals("RUNNING", flightRecorderService.getRecording().getState());
+        assertThrows(FunctionalException.class, () -> flightRecorderService.startRecording(null));
+
+        AuthorDTO author = authorService.createAuthor(new AuthorDTO(null, "Recorded Author", 40, 1200, null));
+        BookDTO book = bookService.createBook(new BookDTO(null, "Recorded Book", null, author.getId(), null,
+                LocalDate.of(2015, 6, 1), "novel", null));
+        bookService.getBookById(book.getId());
+        bookService.getRatingForBook(book.getId());
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books/" + book.getId());
+        flightRecorderFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertEquals("STOPPED", flightRecorderService.stopRecording().getState());
+        Path dump = flightRecorderService.dumpRecording();
+        List<RecordedEvent> events;
+        try {
+            events = RecordingFile.readAllEvents(dump);
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+
+        assertTrue(events.stream().anyMatch(e -> is(e, "ServiceCall")
+                && "BookService".equals(e.getString("service"))
+                && "getBookById".equals(e.getString("method"))
+                && e.getLong("entityId") == book.getId()));
+        assertTrue(events.stream().anyMatch(e -> is(e, "RepositoryQuery")
+                && "BookRepository".equals(e.getString("repository"))));
+        assertTrue(events.stream().anyMatch(e -> is(e, "RatingCalculation")
+                && e.getLong("bookId") == book.getId()
+                && e.getInt("authorFollowers") == 1200));
+        assertTrue(events.stream().anyMatch(e -> is(e, "HttpRequest")
+                && "GET".equals(e.getString("method"))
+                && e.getString("path").equals("/api/books/" + book.getId())
+                && e.getInt("status") == 200));
+        assertTrue(events.stream().noneMatch(e -> FlightRecorderService.DISABLED_EVENTS.contains(e.getEventType().getName())));
+    }
+
+    @Test
+    void rejectsStopWithoutRecording() {
+        assertThrows(NotFoundException.class, () -> flightRecorderService.stopRecording());
+    }
+
+    private static boolean is(RecordedEvent event, String name) {
+        return event.getEventType().getName().equals("com.api.bookmanagement." + name);
+    }
+}
@@ -0,0 +1,119 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.domain.Author;
+import com.api.bookmanagement.dto.AuthorDTO;
+import com.api.bookmanagement.event.EntityChangedEvent;
+import com.api.bookmanagement.exception.NotFoundException;
+import com.api.bookmanagement.repository.AuthorRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Flushes are driven by the test
+@SpringBootTest(properties = {"followers.flush-interval-ms=3600000", "catalog.snapshot.enabled=false"})
+@RecordApplicationEvents
+@Slf4j
+class FollowerCounterServiceTest {
+
+    private static final int FOLLOWERS = 20_000;
+
+    @Autowired
+    private FollowerCounterService followerCounterService;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    private Author author;
+
+    @BeforeEach
+    void setUp() {
+        author = authorRepository.save(new Author(null, "Hot Author " + System.nanoTime(), 40, 100, new HashSet<>(), null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        followerCounterService.flush();
+        authorRepository.deleteById(author.getId());
+    }
+
+    @Test
+    void concurrentFollowsOnOneAuthor_ShouldAllBeCounted() {
+        long start = System.nanoTime();
+        try (ExecutorService followers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < FOLLOWERS; i++) {
+                followers.submit(() -> followerCounterService.follow(author.getId()));
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        log.info("{} concurrent follows of one author in {} ms ({} follows/s)", FOLLOWERS, elapsed / 1_000_000,
+                FOLLOWERS * 1_000_000_000L / Math.max(1, elapsed));
+
+        assertEquals(FOLLOWERS, followerCounterService.pending(author.getId()));
+        assertEquals(100, authorRepository.findById(author.getId()).orElseThrow().getFollowersNumber());
+        assertEquals(100 + FOLLOWERS, authorService.getAuthorById(author.getId()).getFollowersNumber());
+
+        followerCounterService.flush();
+
+        assertEquals(0, followerCounterService.pending(author.getId()));
+        assertEquals(100 + FOLLOWERS, authorRepository.findById(author.getId()).orElseThrow().getFollowersNumber());
+        assertEquals(100 + FOLLOWERS, authorService.getAuthorById(author.getId()).getFollowersNumber());
+    }
+
+    @Test
+    void unfollows_ShouldNotGoBelowZero() {
+        for (int i = 0; i < 150; i++) {
+            followerCounterService.unfollow(author.getId());
+        }
+
+        assertEquals(0, authorService.getAuthorById(author.getId()).getFollowersNumber());
+        followerCounterService.flush();
+        assertEquals(0, authorRepository.findById(author.getId()).orElseThrow().getFollowersNumber());
+    }
+
+    @Test
+    void flushes_ShouldAnnounceAHotAuthorOncePerInterval() {
+        ReflectionTestUtils.setField(followerCounterService, "lastPublished", Instant.now());
+        for (int i = 0; i < 3; i++) {
+            followerCounterService.follow(author.getId());
+            followerCounterService.flush();
+        }
+        assertEquals(List.of(), announcedFollowers());
+
+        ReflectionTestUtils.setField(followerCounterService, "lastPublished", Instant.EPOCH);
+        followerCounterService.flush();
+
+        assertEquals(List.of(103), announcedFollowers());
+    }
+
+    @Test
+    void follow_WhenAuthorDoesNotExist_ShouldThrowException() {
+        assertThrows(NotFoundException.class, () -> followerCounterService.follow(author.getId() + 1000));
+    }
+
+    private List<Integer> announcedFollowers() {
+        return applicationEvents.stream(EntityChangedEvent.class)
+                .filter(event -> event.getEntityId().equals(author.getId()))
+                .map(event -> ((AuthorDTO) event.getPayload()).getFollowersNumber())
+                .toList();
+    }
+}
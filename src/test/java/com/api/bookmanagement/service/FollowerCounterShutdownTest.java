@@ -0,0 +1,47 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.BookmanagementApplication;
+import com.api.bookmanagement.domain.Author;
+import com.api.bookmanagement.repository.AuthorRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The test closes the context itself, so it starts its own. The database is a file: it outlives
+// the context, and DevTools shuts in-memory ones down with it.
+class FollowerCounterShutdownTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void closingTheContext_ShouldFlushThePendingDeltas() {
+        String url = "jdbc:h2:file:" + directory.resolve("followers");
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BookmanagementApplication.class)
+                .run("--spring.datasource.url=" + url,
+                        "--server.port=0",
+                        "--followers.flush-interval-ms=3600000",
+                        "--catalog.snapshot.enabled=false",
+                        "--cache.invalidation.poll-interval-ms=3600000");
+        FollowerCounterService followerCounterService = context.getBean(FollowerCounterService.class);
+        Author author = context.getBean(AuthorRepository.class)
+                .save(new Author(null, "Closing Author", 40, 100, new HashSet<>(), null));
+        for (int i = 0; i < 5; i++) {
+            followerCounterService.follow(author.getId());
+        }
+
+        context.close();
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+        assertEquals(105, jdbcTemplate.queryForObject("SELECT followers_number FROM author WHERE id = ?",
+                Integer.class, author.getId()));
+    }
+}
@@ -0,0 +1,126 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.domain.IsbnMetadata;
+import com.api.bookmanagement.dto.BookDTO;
+import com.api.bookmanagement.event.EntityChangedEvent;
+import com.api.bookmanagement.event.EntityChangedEvent.ChangeType;
+import com.api.bookmanagement.event.EntityChangedEvent.EntityType;
+import com.api.bookmanagement.repository.IsbnMetadataRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IsbnEnrichmentServiceTest {
+
+    @Mock
+    private OpenLibraryService openLibraryService;
+
+    @Mock
+    private IsbnMetadataRepository isbnMetadataRepository;
+
+    @Mock
+    private ThreadPoolTaskExecutor isbnEnrichmentExecutor;
+
+    private IsbnEnrichmentService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new IsbnEnrichmentService(openLibraryService, isbnMetadataRepository, isbnEnrichmentExecutor);
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "queueCapacity", 2);
+        // No workers: the test drives the queue itself
+        ReflectionTestUtils.setField(service, "workers", 0);
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "lingerMs", 0L);
+        ReflectionTestUtils.setField(service, "refreshAfter", Duration.ofDays(7));
+        service.start();
+    }
+
+    @Test
+    void enqueue_ShouldDeduplicateAndDropWhenFull() {
+        assertTrue(service.enqueue("1"));
+        assertFalse(service.enqueue("1"));
+        assertTrue(service.enqueue("2"));
+        assertFalse(service.enqueue("3"));
+        assertEquals(2, service.queueSize());
+    }
+
+    @Test
+    void onEntityChanged_ShouldQueueOnlySavedBooksWithIsbn() {
+        BookDTO withIsbn = new BookDTO();
+        withIsbn.setIsbn("9780441569592");
+        service.onEntityChanged(new EntityChangedEvent(EntityType.BOOK, ChangeType.CREATED, 1L, withIsbn));
+        service.onEntityChanged(new EntityChangedEvent(EntityType.BOOK, ChangeType.UPDATED, 2L, new BookDTO()));
+        service.onEntityChanged(new EntityChangedEvent(EntityType.BOOK, ChangeType.DELETED, 3L, null));
+
+        assertEquals(1, service.queueSize());
+    }
+
+    @Test
+    void findLocal_WhenStale_ShouldServeRecordAndQueueRefresh() {
+        when(isbnMetadataRepository.findById("1")).thenReturn(Optional.of(
+                new IsbnMetadata("1", "{\"title\":\"One\"}", Instant.now().minus(Duration.ofDays(8)))));
+        when(isbnMetadataRepository.findById("2")).thenReturn(Optional.of(
+                new IsbnMetadata("2", "{\"title\":\"Two\"}", Instant.now())));
+
+        assertEquals("{\"title\":\"One\"}", service.findLocal("1").orElseThrow());
+        assertEquals("{\"title\":\"Two\"}", service.findLocal("2").orElseThrow());
+        assertEquals(1, service.queueSize());
+    }
+
+    @Test
+    void nextBatch_ShouldTakeUpToBatchSize() throws InterruptedException {
+        service.enqueue("1");
+        service.enqueue("2");
+        List<String> batch = new ArrayList<>();
+
+        assertTrue(service.nextBatch(batch, 0));
+        assertEquals(List.of("1", "2"), batch);
+        assertFalse(service.nextBatch(new ArrayList<>(), 0));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void enrich_ShouldFetchOnlyUnknownIsbnsInOneCallAndStoreThem() {
+        when(isbnMetadataRepository.findIsbnsFetchedSince(eq(List.of("1", "2")), any())).thenReturn(List.of("1"));
+        when(openLibraryService.fetchByIsbns(Set.of("2"))).thenReturn(Map.of("2", "{\"title\":\"Two\"}"));
+
+        service.enrich(List.of("1", "2"));
+
+        ArgumentCaptor<List<IsbnMetadata>> saved = ArgumentCaptor.forClass(List.class);
+        verify(isbnMetadataRepository).saveAll(saved.capture());
+        assertEquals(1, saved.getValue().size());
+        assertEquals("2", saved.getValue().get(0).getIsbn());
+        assertEquals("{\"title\":\"Two\"}", saved.getValue().get(0).getPayload());
+    }
+
+    @Test
+    void enrich_WhenAllKnown_ShouldNotCallUpstream() {
+        when(isbnMetadataRepository.findIsbnsFetchedSince(eq(List.of("1")), any())).thenReturn(List.of("1"));
+
+        service.enrich(List.of("1"));
+
+        verify(openLibraryService, never()).fetchByIsbns(any());
+    }
+}
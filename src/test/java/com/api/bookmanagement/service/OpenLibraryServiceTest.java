@@ -0,0 +1,152 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.config.Messages;
+import com.api.bookmanagement.config.OpenLibraryProperties;
+import com.api.bookmanagement.exception.UpstreamUnavailableException;
+import com.api.bookmanagement.util.CircuitBreaker;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs the resilience layer against a local stub of OpenLibrary whose responses are scripted
+ * per request: a latency and a status code.
+ */
+class OpenLibraryServiceTest {
+
+    private record Step(long latencyMs, int status) {}
+
+    private static final Step OK = new Step(0, 200);
+    private static final Step ERROR = new Step(0, 500);
+
+    private final Queue<Step> script = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private HttpServer upstream;
+    private OpenLibraryProperties properties;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        upstream = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        upstream.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        upstream.createContext("/api/books", exchange -> {
+            requests.incrementAndGet();
+            Step step = script.isEmpty() ? OK : script.poll();
+            try {
+                Thread.sleep(step.latencyMs());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"ISBN:1\":{\"title\":\"One\"}}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(step.status(), body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        upstream.start();
+
+        properties = new OpenLibraryProperties();
+        properties.setWindowSize(4);
+        properties.setMinimumCalls(4);
+        properties.setOpenDurationMs(200);
+        properties.setHedgeMinDelayMs(100);
+        properties.setHedgeMaxDelayMs(100);
+        properties.setRetryBudgetRatio(0);
+        properties.setRetryBudgetMax(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        upstream.stop(0);
+    }
+
+    @Test
+    void hedgesRequestSlowerThanDelay() {
+        properties.setRetryBudgetMax(1);
+        script.add(new Step(3000, 200));
+        OpenLibraryService service = service();
+
+        long start = System.nanoTime();
+        Map<String, String> records = service.fetchByIsbns(List.of("1"));
+
+        assertEquals("{\"title\":\"One\"}", records.get("1"));
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 2000);
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void retriesFailedRequestOnlyWithinBudget() {
+        properties.setRetryBudgetMax(1);
+        OpenLibraryService service = service();
+
+        script.addAll(List.of(ERROR, OK));
+        assertEquals(1, service.fetchByIsbns(List.of("1")).size());
+        assertEquals(2, requests.get());
+
+        script.addAll(List.of(ERROR, OK));
+        assertThrows(UpstreamUnavailableException.class, () -> service.fetchByIsbns(List.of("1")));
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    void opensCircuitOnFailuresAndClosesAfterSuccessfulProbe() throws InterruptedException {
+        OpenLibraryService service = service();
+
+        for (int i = 0; i < 4; i++) {
+            script.add(ERROR);
+            assertThrows(UpstreamUnavailableException.class, () -> service.fetchByIsbns(List.of("1")));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, service.circuitState());
+
+        // Rejected without reaching the upstream
+        assertThrows(UpstreamUnavailableException.class, () -> service.fetchByIsbns(List.of("1")));
+        assertEquals(4, requests.get());
+
+        Thread.sleep(250);
+        assertEquals(1, service.fetchByIsbns(List.of("1")).size());
+        assertEquals(CircuitBreaker.State.CLOSED, service.circuitState());
+        assertEquals(5, requests.get());
+    }
+
+    @Test
+    void failsOnReadTimeout() {
+        properties.setReadTimeoutMs(200);
+        properties.setHedgeMaxDelayMs(1000);
+        script.add(new Step(1000, 200));
+        OpenLibraryService service = service();
+
+        assertThrows(UpstreamUnavailableException.class, () -> service.fetchByIsbns(List.of("1")));
+    }
+
+    private OpenLibraryService service() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("openlibrary-");
+        executor.setVirtualThreads(true);
+        OpenLibraryService service = new OpenLibraryService(new RestTemplateBuilder()
+                .connectTimeout(Duration.ofMillis(properties.getConnectTimeoutMs()))
+                .readTimeout(Duration.ofMillis(properties.getReadTimeoutMs()))
+                .build(), properties, mock(Messages.class), executor);
+        ReflectionTestUtils.setField(service, "openLibraryApiUrl",
+                "http://localhost:" + upstream.getAddress().getPort() + "/api/books");
+        service.init();
+        return service;
+    }
+}
@@ -0,0 +1,66 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.dto.BookDTO;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The replica holds the seed rows only, so the source of every read shows in its results
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replicas-test",
+        "datasource.routing.replicas[0].url=jdbc:h2:mem:replicas-test-replica0;DB_CLOSE_DELAY=-1",
+        "catalog.snapshot.enabled=false",
+        "readmodel.enabled=false",
+        "cache.invalidation.poll-interval-ms=3600000"})
+@ActiveProfiles("replicas")
+@AutoConfigureMockMvc
+class ReplicaCatalogTest {
+
+    private static final String API_KEY = "aedz-151-ftyh-554";
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void readOnlyTransactions_ShouldReadTheSeededReplica() {
+        List<String> titles = bookService.getAllBooks().stream().map(BookDTO::getTitle).toList();
+
+        assertEquals(List.of("Replica Book One", "Replica Book Two", "Replica Book Three"), titles);
+        assertEquals(0, new JdbcTemplate(primaryDataSource).queryForObject("SELECT COUNT(*) FROM book", Integer.class));
+    }
+
+    @Test
+    void writes_ShouldGoToThePrimaryAndTheWriterReadItBackFromThere() throws Exception {
+        mockMvc.perform(post("/api/authors").header("api-key", API_KEY).header("X-Client-Id", "writer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Primary author\",\"age\":40,\"followersNumber\":10}"))
+                .andExpect(status().isCreated());
+
+        // Within its read-your-writes window the writer reads the primary, everyone else a replica
+        mockMvc.perform(get("/api/authors").header("api-key", API_KEY).header("X-Client-Id", "writer"))
+                .andExpect(jsonPath("$[*].name").value("Primary author"));
+        mockMvc.perform(get("/api/authors").header("api-key", API_KEY).header("X-Client-Id", "reader"))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("Replica Author One"));
+    }
+}
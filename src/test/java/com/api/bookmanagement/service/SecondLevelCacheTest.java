@@ -0,0 +1,148 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.domain.Author;
+import com.api.bookmanagement.domain.Book;
+import com.api.bookmanagement.dto.CacheStatsDTO;
+import com.api.bookmanagement.repository.AuthorRepository;
+import com.api.bookmanagement.repository.BookRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"catalog.snapshot.enabled=false", "cache.invalidation.poll-interval-ms=3600000",
+        "cache.statistics.enabled=true"})
+class SecondLevelCacheTest {
+
+    private static final String BOOKS_REGION = Author.class.getName() + ".books";
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private CacheStatsService cacheStatsService;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Cache cache;
+    private Author author;
+    private Book first;
+    private Book second;
+
+    @BeforeEach
+    void setUp() {
+        author = authorRepository.save(new Author(null, "Cached author", 40, 100, new HashSet<>(), null));
+        first = bookRepository.save(new Book(null, "Cached book 1", null, author, LocalDate.of(2000, 1, 1), "novel", null));
+        second = bookRepository.save(new Book(null, "Cached book 2", null, author, LocalDate.of(2001, 1, 1), "novel", null));
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        statistics = sessionFactory.getStatistics();
+        cache = sessionFactory.getCache();
+        cache.evictAllRegions();
+        cacheStatsService.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAllInBatch();
+        authorRepository.deleteAllInBatch();
+        cache.evictAllRegions();
+    }
+
+    @Test
+    void getBookByTitle_ShouldBeServedFromQueryCacheOnceLoaded() {
+        bookService.getBookByTitle(first.getTitle());
+        statistics.clear();
+
+        bookService.getBookByTitle(first.getTitle());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        CacheStatsDTO stats = cacheStatsService.getStats();
+        assertEquals(1, stats.getQueryCacheHits());
+        assertEquals(0, stats.getQueryCacheMisses());
+    }
+
+    @Test
+    void getBookByTitle_WhenTitlesRepeat_ShouldReturnTheLowestId() {
+        Book again = bookRepository.save(new Book(null, first.getTitle(), null, author, null, null, null));
+        bookService.getBookByTitle(first.getTitle());
+
+        assertEquals(first.getId(), bookService.getBookByTitle(again.getTitle()).getId());
+        bookRepository.delete(first);
+        assertEquals(again.getId(), bookService.getBookByTitle(again.getTitle()).getId());
+    }
+
+    @Test
+    void findAuthorsByBookIds_ShouldUseQueryCache() {
+        bookRepository.findAuthorsByBookIds(List.of(first.getId(), second.getId()));
+        statistics.clear();
+
+        bookRepository.findAuthorsByBookIds(List.of(first.getId(), second.getId()));
+
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void deleteBook_ShouldEvictAuthorBooksCollection() {
+        assertEquals(Set.of(first.getId(), second.getId()), loadBookIdsOfAuthor());
+        assertTrue(cache.containsCollection(BOOKS_REGION, author.getId()));
+
+        bookService.deleteBook(first.getId());
+
+        assertEquals(Set.of(second.getId()), loadBookIdsOfAuthor());
+    }
+
+    @Test
+    void deleteAuthor_ShouldEvictAuthorAndCascadedBooks() {
+        bookService.getBookByTitle(first.getTitle());
+        bookService.getBookById(second.getId());
+        loadBookIdsOfAuthor();
+        assertTrue(cache.containsEntity(Book.class, first.getId()));
+
+        authorService.deleteAuthor(author.getId());
+        statistics.clear();
+
+        assertFalse(authorRepository.findById(author.getId()).isPresent());
+        assertFalse(bookRepository.findById(first.getId()).isPresent());
+        assertFalse(bookRepository.findById(second.getId()).isPresent());
+        assertFalse(bookRepository.findByTitle(first.getTitle()).isPresent());
+        assertEquals(0, statistics.getSecondLevelCacheHitCount());
+    }
+
+    private Set<Long> loadBookIdsOfAuthor() {
+        var entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.find(Author.class, author.getId()).getBooks().stream()
+                    .map(Book::getId)
+                    .collect(Collectors.toSet());
+        } finally {
+            entityManager.close();
+        }
+    }
+}
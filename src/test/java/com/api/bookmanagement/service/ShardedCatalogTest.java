@@ -0,0 +1,162 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.dto.AuthorDTO;
+import com.api.bookmanagement.dto.BookDTO;
+import com.api.bookmanagement.dto.DeltaPageDTO;
+import com.api.bookmanagement.exception.FunctionalException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Own databases, so the interleaved ids do not leak into the other test contexts; lists are
+// bound from a single property source, hence the repeated usernames
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sharded-test0",
+        "datasource.routing.shards[0].url=jdbc:h2:mem:sharded-test1",
+        "datasource.routing.shards[0].username=sa",
+        "datasource.routing.shards[1].url=jdbc:h2:mem:sharded-test2",
+        "datasource.routing.shards[1].username=sa",
+        "delta.safety-lag=0s",
+        "followers.flush-interval-ms=3600000"})
+@ActiveProfiles("sharded")
+class ShardedCatalogTest {
+
+    private static final int SHARDS = 3;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private FollowerCounterService followerCounterService;
+
+    private final List<AuthorDTO> authors = new ArrayList<>();
+    private final List<BookDTO> books = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        String run = Long.toString(System.nanoTime());
+        for (int i = 0; i < 2 * SHARDS; i++) {
+            AuthorDTO author = authorService.createAuthor(new AuthorDTO(null, "Author " + run + "-" + i, 40, i, null));
+            authors.add(author);
+            books.add(bookService.createBook(new BookDTO(null, "Book " + run + "-" + i, null, author.getId(), null,
+                    LocalDate.of(2000 + i, 1, 1), "novel", null)));
+        }
+    }
+
+    @Test
+    void spreadsAuthorsOverShardsAndKeepsBooksWithTheirAuthor() {
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < authors.size(); i++) {
+            assertEquals(authors.get(i).getId() % SHARDS, books.get(i).getId() % SHARDS);
+            ids.add(authors.get(i).getId() % SHARDS);
+        }
+        assertEquals(Set.of(0L, 1L, 2L), ids);
+
+        for (int shard = 0; shard < SHARDS; shard++) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:sharded-test" + shard, "sa", ""));
+            List<Long> stored = jdbcTemplate.queryForList("SELECT id FROM book", Long.class);
+            assertFalse(stored.isEmpty());
+            for (Long id : stored) {
+                assertEquals(shard, id % SHARDS);
+            }
+        }
+    }
+
+    @Test
+    void readsSingleRowsFromTheirShardAndListsFromAllShards() {
+        for (BookDTO book : books) {
+            assertEquals(book.getTitle(), bookService.getBookById(book.getId()).getTitle());
+            assertEquals(book.getId(), bookService.getBookByTitle(book.getTitle()).getId());
+        }
+        for (AuthorDTO author : authors) {
+            assertEquals(author.getName(), authorService.getAuthorById(author.getId()).getName());
+        }
+
+        List<Long> allBookIds = bookService.getAllBooks().stream().map(BookDTO::getId).toList();
+        assertTrue(allBookIds.containsAll(books.stream().map(BookDTO::getId).toList()));
+        assertEquals(allBookIds.stream().sorted().toList(), allBookIds);
+
+        List<Long> bookIds = books.stream().map(BookDTO::getId).toList();
+        assertEquals(authors.stream().map(AuthorDTO::getId).collect(Collectors.toSet()),
+                bookService.getAuthorsByBookIds(bookIds).stream().map(AuthorDTO::getId).collect(Collectors.toSet()));
+        assertEquals(authors.get(1).getId(), bookService.getAuthorsKeyedByBookIds(bookIds).get(books.get(1).getId()).getId());
+    }
+
+    @Test
+    void pagesDeltasAcrossShardsByKeyset() {
+        bookService.deleteBook(books.get(0).getId());
+        Instant since = Instant.EPOCH;
+        long afterId = 0;
+        Set<Long> changed = new HashSet<>();
+        Set<Long> deleted = new HashSet<>();
+        DeltaPageDTO<BookDTO> page;
+        do {
+            page = bookService.getBooksModifiedSince(since, afterId, 2);
+            assertTrue(page.getChanged().size() + page.getDeleted().size() <= 2);
+            page.getChanged().forEach(book -> assertTrue(changed.add(book.getId())));
+            deleted.addAll(page.getDeleted());
+            since = page.getNextModifiedSince();
+            afterId = page.getNextAfterId() == null ? afterId : page.getNextAfterId();
+        } while (page.isHasMore());
+
+        assertTrue(deleted.contains(books.get(0).getId()));
+        assertTrue(changed.containsAll(books.subList(1, books.size()).stream().map(BookDTO::getId).toList()));
+    }
+
+    @Test
+    void rejectsMovingBookToAuthorOnAnotherShard() {
+        BookDTO book = books.get(0);
+        book.setAuthorId(authors.get(1).getId());
+
+        assertThrows(FunctionalException.class, () -> bookService.updateBook(book.getId(), book));
+    }
+
+    @Test
+    void followerFlush_WhenOneShardFails_ShouldKeepOnlyThatShardsDeltas() {
+        AuthorDTO first = authors.stream().filter(author -> author.getId() % SHARDS == 0).findFirst().orElseThrow();
+        AuthorDTO second = authors.stream().filter(author -> author.getId() % SHARDS == 1).findFirst().orElseThrow();
+        JdbcTemplate secondShard = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:sharded-test1", "sa", ""));
+        for (int i = 0; i < 5; i++) {
+            followerCounterService.follow(first.getId());
+            followerCounterService.follow(second.getId());
+        }
+        secondShard.execute("ALTER TABLE author ADD CONSTRAINT no_new_followers CHECK (followers_number < "
+                + (second.getFollowersNumber() + 5) + ")");
+        try {
+            followerCounterService.flush();
+        } finally {
+            secondShard.execute("ALTER TABLE author DROP CONSTRAINT no_new_followers");
+        }
+
+        assertEquals(0, followerCounterService.pending(first.getId()));
+        assertEquals(5, followerCounterService.pending(second.getId()));
+        assertEquals(second.getFollowersNumber(), storedFollowers(1, second.getId()));
+
+        followerCounterService.flush();
+
+        assertEquals(first.getFollowersNumber() + 5, storedFollowers(0, first.getId()));
+        assertEquals(second.getFollowersNumber() + 5, storedFollowers(1, second.getId()));
+    }
+
+    private static int storedFollowers(int shard, Long authorId) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:sharded-test" + shard, "sa", ""));
+        return jdbcTemplate.queryForObject("SELECT followers_number FROM author WHERE id = ?", Integer.class, authorId);
+    }
+}
@@ -0,0 +1,136 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.domain.Author;
+import com.api.bookmanagement.domain.Book;
+import com.api.bookmanagement.dto.BookDTO;
+import com.api.bookmanagement.exception.NotFoundException;
+import com.api.bookmanagement.repository.AuthorRepository;
+import com.api.bookmanagement.repository.BookRepository;
+import com.api.bookmanagement.repository.TombstoneRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "cache.statistics.enabled=true",
+        "catalog.snapshot.enabled=false",
+        "cache.invalidation.poll-interval-ms=3600000"})
+class TransactionBoundaryTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private CatalogStatsService catalogStatsService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Author author;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        author = authorRepository.save(new Author(null, "Author", 40, 100, new HashSet<>(), null));
+        book = bookRepository.save(new Book(null, "Book", null, author, LocalDate.of(2000, 1, 1), "novel", null));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAllInBatch();
+        authorRepository.deleteAllInBatch();
+        tombstoneRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void updateBook_ShouldRunInOneTransaction() {
+        BookDTO update = new BookDTO(null, "Renamed", null, author.getId(), null, book.getPublicationDate(), "essay", null);
+
+        bookService.updateBook(book.getId(), update);
+
+        assertEquals(1, statistics.getTransactionCount());
+        assertEquals(1, statistics.getEntityUpdateCount());
+    }
+
+    @Test
+    void readPaths_ShouldNeverFlush() {
+        bookService.getBookById(book.getId());
+        bookService.getAllBooks();
+        bookService.getRatingForBook(book.getId());
+        authorService.getAuthorWithBooks(author.getId());
+
+        assertEquals(4, statistics.getTransactionCount());
+        assertEquals(0, statistics.getFlushCount());
+        assertEquals(0, statistics.getEntityUpdateCount());
+    }
+
+    @Test
+    void deleteAuthor_ShouldRunInOneTransactionWithoutLoadingEntities() {
+        authorService.deleteAuthor(author.getId());
+
+        assertEquals(1, statistics.getTransactionCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        // Author tombstone, book stats rows, book tombstones, book and author cache invalidations,
+        // book delete, author delete
+        assertEquals(7, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void deleteBooks_WhenOneIsMissing_ShouldDeleteNothing() {
+        List<Long> ids = List.of(book.getId(), book.getId() + 1000);
+
+        assertThrows(NotFoundException.class, () -> bookService.deleteBooks(ids));
+
+        assertTrue(bookRepository.existsById(book.getId()));
+        assertEquals(0, tombstoneRepository.count());
+    }
+
+    @Test
+    void createBook_WhenTheTransactionRollsBack_ShouldNotCountTheBook() {
+        BookDTO created = new BookDTO(null, "Created", null, author.getId(), null, book.getPublicationDate(), "essay", null);
+        long before = catalogStatsService.getStats().getTotalBooks();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            bookService.createBook(created);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(before, catalogStatsService.getStats().getTotalBooks());
+
+        bookService.createBook(created);
+
+        assertEquals(before + 1, catalogStatsService.getStats().getTotalBooks());
+    }
+}
@@ -0,0 +1,47 @@
+package com.api.bookmanagement.service;
+
+import com.api.bookmanagement.dto.WarmupReportDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "catalog.snapshot.enabled=false",
+        "warmup.iterations=30"})
+class WarmupServiceTest {
+
+    private static final String API_KEY = "aedz-151-ftyh-554";
+
+    @Autowired
+    private WarmupService warmupService;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void warmupRunsBeforeReadinessAndFirstMinuteIsRecorded() {
+        WarmupReportDTO report = warmupService.getReport();
+        assertEquals(30, report.getWarmupIterations());
+        assertTrue(report.getWarmupRequests() >= 2);
+        assertEquals(0, report.getWarmupErrors());
+        assertEquals("ACCEPTING_TRAFFIC", report.getReadiness());
+        assertNotNull(report.getReadySince());
+        assertFalse(report.isFirstMinuteComplete());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("api-key", API_KEY);
+        var response = restTemplate.exchange("/api/diagnostics/warmup", HttpMethod.GET, new HttpEntity<>(headers),
+                WarmupReportDTO.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(warmupService.getReport().getFirstMinuteRequests() >= 1);
+        assertTrue(warmupService.getReport().getFirstMinuteP99Ms() > 0);
+    }
+}
@@ -0,0 +1,229 @@
+package com.api.bookmanagement.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * With {@code -Dbenchmark.appends=N} the append path is also timed, single-threaded and with
+ * several producers.
+ */
+@Slf4j
+class AuditJournalTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void append_ShouldKeepEveryRecordOfConcurrentProducersAcrossSegments() throws Exception {
+        int producers = 8;
+        int perProducer = 2_000;
+        try (AuditJournal journal = AuditJournal.open(directory, SEGMENT_SIZE)) {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> threads = new ArrayList<>();
+            for (int producer = 0; producer < producers; producer++) {
+                int id = producer;
+                threads.add(Thread.ofPlatform().start(() -> {
+                    await(start);
+                    for (int i = 0; i < perProducer; i++) {
+                        // Varying sizes, so reservations cross segment ends at every offset
+                        journal.append(id * 1_000_000L + i, body(id, i, i % 37));
+                    }
+                }));
+            }
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            journal.sync();
+
+            Set<Long> seen = new HashSet<>();
+            journal.read(Long.MIN_VALUE, Long.MAX_VALUE, (timestamp, body) -> {
+                assertTrue(seen.add(timestamp), "duplicate record " + timestamp);
+                assertArrayEquals(body((int) (timestamp / 1_000_000), (int) (timestamp % 1_000_000),
+                        (int) (timestamp % 1_000_000 % 37)), bytes(body));
+            });
+            assertEquals(producers * perProducer, seen.size());
+            assertTrue(journal.segmentCount() > 10);
+        }
+    }
+
+    @Test
+    void read_ShouldReturnOnlyTheRequestedRange() throws IOException {
+        try (AuditJournal journal = AuditJournal.open(directory, SEGMENT_SIZE)) {
+            for (long timestamp = 0; timestamp < 1_000; timestamp++) {
+                journal.append(timestamp, new byte[40]);
+            }
+            journal.sync();
+
+            assertEquals(List.of(250L, 251L, 252L), timestamps(journal, 250, 253));
+            assertEquals(1_000, timestamps(journal, 0, 1_000).size());
+            assertEquals(List.of(), timestamps(journal, 1_000, 2_000));
+        }
+    }
+
+    @Test
+    void open_ShouldRecoverTheRecordsOfAJournalThatWasNotClosed() throws IOException {
+        Path copy = Files.createDirectory(directory.resolve("copy"));
+        try (AuditJournal journal = AuditJournal.open(directory.resolve("journal"), SEGMENT_SIZE)) {
+            for (long timestamp = 0; timestamp < 300; timestamp++) {
+                journal.append(timestamp, body(0, (int) timestamp, 10));
+            }
+            // The files as a crash would leave them: current segment open, last records not forced
+            try (Stream<Path> files = Files.list(directory.resolve("journal"))) {
+                for (Path file : files.filter(file -> file.toString().endsWith(".seg")).toList()) {
+                    Files.copy(file, copy.resolve(file.getFileName()));
+                }
+            }
+        }
+
+        try (AuditJournal recovered = AuditJournal.open(copy, SEGMENT_SIZE)) {
+            assertEquals(300, timestamps(recovered, 0, Long.MAX_VALUE).size());
+            recovered.append(300, body(0, 300, 10));
+            assertEquals(301, timestamps(recovered, 0, Long.MAX_VALUE).size());
+        }
+    }
+
+    @Test
+    void compact_ShouldMergeSealedSegmentsAndDropExpiredOnes() throws IOException {
+        Path journalDirectory = directory.resolve("journal");
+        try (AuditJournal journal = AuditJournal.open(journalDirectory, SEGMENT_SIZE)) {
+            for (long timestamp = 0; timestamp < 2_000; timestamp++) {
+                journal.append(timestamp, new byte[100]);
+            }
+            journal.sync();
+            int segments = journal.segmentCount();
+            List<Long> before = timestamps(journal, 0, Long.MAX_VALUE);
+
+            journal.compact(Long.MIN_VALUE);
+            // Full segments only leave their unused tail to merge away
+            assertEquals(segments, journal.segmentCount());
+            assertEquals(before, timestamps(journal, 0, Long.MAX_VALUE));
+
+            journal.compact(1_000);
+            List<Long> retained = timestamps(journal, 0, Long.MAX_VALUE);
+            assertTrue(retained.getFirst() > 900 && retained.getFirst() <= 1_000);
+            assertEquals(before.subList(before.indexOf(retained.getFirst()), before.size()), retained);
+        }
+
+        try (AuditJournal reopened = AuditJournal.open(journalDirectory, SEGMENT_SIZE)) {
+            List<Long> timestamps = timestamps(reopened, 0, Long.MAX_VALUE);
+            assertEquals(1_999L, timestamps.getLast());
+            assertTrue(timestamps.getFirst() > 900);
+        }
+    }
+
+    @Test
+    void compact_ShouldMergeSegmentsLeftByRestarts() throws IOException {
+        Path journalDirectory = directory.resolve("journal");
+        for (int run = 0; run < 5; run++) {
+            try (AuditJournal journal = AuditJournal.open(journalDirectory, SEGMENT_SIZE)) {
+                journal.append(run, new byte[100]);
+            }
+        }
+        try (AuditJournal journal = AuditJournal.open(journalDirectory, SEGMENT_SIZE)) {
+            assertEquals(6, journal.segmentCount());
+
+            assertEquals(4, journal.compact(Long.MIN_VALUE));
+
+            assertEquals(2, journal.segmentCount());
+            assertEquals(List.of(0L, 1L, 2L, 3L, 4L), timestamps(journal, 0, Long.MAX_VALUE));
+        }
+        try (Stream<Path> files = Files.list(journalDirectory)) {
+            assertEquals(2, files.filter(file -> file.toString().endsWith(".seg")).count());
+        }
+    }
+
+    @Test
+    void open_ShouldRefuseADirectoryAlreadyInUse() throws IOException {
+        try (AuditJournal ignored = AuditJournal.open(directory, SEGMENT_SIZE)) {
+            assertThrows(IOException.class, () -> AuditJournal.open(directory, SEGMENT_SIZE));
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark.appends", matches = "\\d+")
+    void benchmark_Append() throws Exception {
+        int appends = Integer.parseInt(System.getProperty("benchmark.appends"));
+        // About the size of an encoded book change
+        byte[] body = new byte[260];
+        try (AuditJournal journal = AuditJournal.open(directory, 64 * 1024 * 1024)) {
+            for (int producers : new int[]{1, 1, 4, 8}) {
+                long[] latencies = new long[appends];
+                CountDownLatch start = new CountDownLatch(1);
+                List<Thread> threads = new ArrayList<>();
+                for (int producer = 0; producer < producers; producer++) {
+                    int first = producer;
+                    threads.add(Thread.ofPlatform().start(() -> {
+                        await(start);
+                        for (int i = first; i < appends; i += producers) {
+                            long before = System.nanoTime();
+                            journal.append(i, body);
+                            latencies[i] = System.nanoTime() - before;
+                        }
+                    }));
+                }
+                long started = System.nanoTime();
+                start.countDown();
+                for (Thread thread : threads) {
+                    thread.join();
+                }
+                long elapsed = System.nanoTime() - started;
+                long syncStart = System.nanoTime();
+                journal.sync();
+                Arrays.sort(latencies);
+                log.info("{} producers: {} appends/s, p50 {} ns, p99 {} ns, p99.9 {} ns; sync {} us", producers,
+                        appends * 1_000_000_000L / elapsed, latencies[appends / 2], latencies[appends * 99 / 100],
+                        latencies[appends * 999 / 1000], (System.nanoTime() - syncStart) / 1_000);
+            }
+        }
+    }
+
+    private static List<Long> timestamps(AuditJournal journal, long from, long to) throws IOException {
+        List<Long> timestamps = new ArrayList<>();
+        journal.read(from, to, (timestamp, body) -> timestamps.add(timestamp));
+        return timestamps;
+    }
+
+    private static byte[] body(int producer, int sequence, int length) {
+        byte[] body = new byte[length];
+        for (int i = 0; i < length; i++) {
+            body[i] = (byte) (producer * 31 + sequence + i);
+        }
+        return body;
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
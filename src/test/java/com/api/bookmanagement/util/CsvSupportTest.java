@@ -0,0 +1,83 @@
+package com.api.bookmanagement.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvSupportTest {
+
+    private static CsvSupport.RecordReader reader(String text) {
+        return new CsvSupport.RecordReader(new BufferedReader(new StringReader(text)));
+    }
+
+    @Test
+    void readsPlainAndEmptyFields() throws IOException {
+        CsvSupport.RecordReader reader = reader("a,b,c\n1,,3\n,\n");
+
+        assertEquals(List.of("a", "b", "c"), reader.next());
+        assertEquals(List.of("1", "", "3"), reader.next());
+        assertEquals(List.of("", ""), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void readsQuotedSeparatorsAndDoubledQuotes() throws IOException {
+        CsvSupport.RecordReader reader = reader("\"Hello, world\",\"Say \"\"hi\"\"\",\"\"\n");
+
+        assertEquals(List.of("Hello, world", "Say \"hi\"", ""), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void keepsLineBreaksOfQuotedFieldsAndTracksRecordLines() throws IOException {
+        CsvSupport.RecordReader reader = reader("title,type\n\"First\nSecond\r\nThird\",novel\nlast,essay");
+
+        assertEquals(List.of("title", "type"), reader.next());
+        assertEquals(1, reader.getRecordLine());
+        assertEquals(List.of("First\nSecond\r\nThird", "novel"), reader.next());
+        assertEquals(2, reader.getRecordLine());
+        // The quoted field spanned three lines, and the last record has no line break
+        assertEquals(List.of("last", "essay"), reader.next());
+        assertEquals(5, reader.getRecordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void dropsTheCarriageReturnsOfCrlfLineBreaks() throws IOException {
+        CsvSupport.RecordReader reader = reader("a,b\r\nc,d\r\n");
+
+        assertEquals(List.of("a", "b"), reader.next());
+        assertEquals(List.of("c", "d"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void readsAnUnterminatedQuoteToTheEndOfInput() throws IOException {
+        CsvSupport.RecordReader reader = reader("ok,\"never closed\nnext,row\n");
+
+        assertEquals(List.of("ok", "never closed\nnext,row\n"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void appendFieldQuotesOnlyWhenNeededAndReadsBack() throws IOException {
+        StringBuilder line = new StringBuilder();
+        List<Object> values = List.of("plain", "with, comma", "with \"quotes\"", "multi\nline", 42);
+        for (Object value : values) {
+            if (!line.isEmpty()) {
+                line.append(',');
+            }
+            CsvSupport.appendField(line, value);
+        }
+        CsvSupport.appendField(line.append(','), null);
+
+        assertEquals("plain,\"with, comma\",\"with \"\"quotes\"\"\",\"multi\nline\",42,", line.toString());
+        assertEquals(List.of("plain", "with, comma", "with \"quotes\"", "multi\nline", "42", ""),
+                reader(line + "\n").next());
+    }
+}
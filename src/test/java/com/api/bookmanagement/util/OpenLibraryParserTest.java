@@ -0,0 +1,72 @@
+package com.api.bookmanagement.util;
+
+import com.api.bookmanagement.dto.IsbnMetadataDTO;
+import com.api.bookmanagement.exception.TechnicalException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenLibraryParserTest {
+
+    private static byte[] recordedResponse() throws IOException {
+        try (InputStream in = OpenLibraryParserTest.class.getResourceAsStream("/openlibrary/books-data.json")) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    void splitsRecordsByteForByte() throws IOException {
+        byte[] body = recordedResponse();
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        Map<String, String> records = OpenLibraryParser.splitRecords(body);
+
+        assertEquals(2, records.size());
+        // Each slice is valid JSON equal to the record in the full response, multi-byte text included
+        var tree = objectMapper.readTree(body);
+        assertEquals(tree.get("ISBN:9780441569595"), objectMapper.readTree(records.get("9780441569595")));
+        assertEquals(tree.get("ISBN:2070368750"), objectMapper.readTree(records.get("2070368750")));
+        assertTrue(records.get("9780441569595").startsWith("{") && records.get("9780441569595").endsWith("}"));
+    }
+
+    @Test
+    void readsOnlyTheExposedFields() throws IOException {
+        String record = OpenLibraryParser.splitRecords(recordedResponse()).get("9780441569595");
+
+        IsbnMetadataDTO metadata = OpenLibraryParser.parseRecord("9780441569595", record);
+
+        assertEquals("9780441569595", metadata.getIsbn());
+        assertEquals("Neuromancer", metadata.getTitle());
+        assertEquals(List.of("William Gibson"), metadata.getAuthors());
+        assertEquals("1984", metadata.getPublishDate());
+        assertEquals(List.of("0441569595"), metadata.getIdentifiers().get("isbn_10"));
+        assertEquals(5, metadata.getIdentifiers().size());
+    }
+
+    @Test
+    void keepsNonAsciiText() throws IOException {
+        String record = OpenLibraryParser.splitRecords(recordedResponse()).get("2070368750");
+
+        assertEquals("L'Étranger", OpenLibraryParser.parseRecord("2070368750", record).getTitle());
+    }
+
+    @Test
+    void returnsNoRecordsForEmptyResponse() {
+        assertTrue(OpenLibraryParser.splitRecords("{}".getBytes(StandardCharsets.UTF_8)).isEmpty());
+        assertTrue(OpenLibraryParser.splitRecords(new byte[0]).isEmpty());
+    }
+
+    @Test
+    void rejectsMalformedResponse() {
+        assertThrows(TechnicalException.class,
+                () -> OpenLibraryParser.splitRecords("[1, 2]".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(TechnicalException.class, () -> OpenLibraryParser.parseRecord("1", "{\"title\": "));
+    }
+}